@@ -0,0 +1,76 @@
+package com.meli.cupon.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.meli.cupon.model.response.CuponRequest;
+import com.meli.cupon.model.response.CuponResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark de la (de)serialización Jackson de `CuponRequest` y `CuponResponse`.
+ * 
+ * Usa un `ObjectMapper` por defecto y lectores/escritores ya resueltos por tipo, igual que los 
+ * conversores HTTP de Spring una vez que calentaron su caché.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CuponJsonBenchmark {
+
+    @Param({"10", "1000", "5000"})
+    private int cartSize;
+
+    private ObjectReader requestReader;
+    private ObjectWriter responseWriter;
+    private byte[] requestJson;
+    private CuponResponse response;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        requestReader = mapper.readerFor(CuponRequest.class);
+        responseWriter = mapper.writerFor(CuponResponse.class);
+
+        List<String> itemIds = new ArrayList<>(cartSize);
+        for (int i = 0; i < cartSize; i++) {
+            itemIds.add("MLA" + (100000 + i));
+        }
+        CuponRequest request = new CuponRequest();
+        request.setItemIds(itemIds);
+        request.setAmount(50000.0);
+        requestJson = mapper.writeValueAsBytes(request);
+
+        response = new CuponResponse();
+        response.setItemIds(itemIds.subList(0, cartSize / 2));
+        response.setTotal(49999.99);
+        response.setSkippedItemIds(List.of());
+    }
+
+    @Benchmark
+    public CuponRequest deserializeRequest() throws IOException {
+        return requestReader.readValue(requestJson);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws IOException {
+        return responseWriter.writeValueAsBytes(response);
+    }
+}
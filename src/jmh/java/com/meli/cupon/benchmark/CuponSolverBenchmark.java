@@ -0,0 +1,114 @@
+package com.meli.cupon.benchmark;
+
+import com.meli.cupon.metrics.CouponMetrics;
+import com.meli.cupon.model.Cart;
+import com.meli.cupon.model.Deadline;
+import com.meli.cupon.model.entity.Item;
+import com.meli.cupon.model.response.CuponResponse;
+import com.meli.cupon.service.CuponService;
+import com.meli.cupon.service.solver.CuponSolver;
+import com.meli.cupon.service.solver.GreedyCuponSolver;
+import com.meli.cupon.service.solver.KnapsackCuponSolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Benchmark de `CuponService.calculateOptimalItems` para cada estrategia de selección.
+ * 
+ * Recorre tamaños de carrito de 10 a 5.000 ítems, distintas distribuciones de precios y montos 
+ * expresados como fracción de la suma total del carrito. Los datos se generan con semilla fija 
+ * para que las corridas sean comparables entre versiones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CuponSolverBenchmark {
+
+    @Param({"10", "100", "1000", "5000"})
+    private int cartSize;
+
+    @Param({KnapsackCuponSolver.NAME, GreedyCuponSolver.NAME})
+    private String strategy;
+
+    /**
+     * `uniform`: precios entre 1 y 1.000 con centavos; `skewed`: mayoría de precios bajos con 
+     * algunos muy altos; `round`: precios enteros múltiplos de 10 (el MCD reduce la capacidad).
+     */
+    @Param({"uniform", "skewed", "round"})
+    private String distribution;
+
+    /** Monto del cupón como fracción de la suma de precios del carrito. */
+    @Param({"0.1", "0.5", "0.9"})
+    private double budgetRatio;
+
+    private CuponService cuponService;
+    private List<Item> items;
+    private Cart cart;
+    private double amount;
+
+    @Setup
+    public void setUp() {
+        cuponService = new CuponService();
+        Map<String, CuponSolver> solvers = Map.of(
+            KnapsackCuponSolver.NAME, new KnapsackCuponSolver(1_000_000),
+            GreedyCuponSolver.NAME, new GreedyCuponSolver());
+        ReflectionTestUtils.setField(cuponService, "solvers", solvers);
+        ReflectionTestUtils.setField(cuponService, "defaultStrategy", strategy);
+        ReflectionTestUtils.setField(cuponService, "couponMetrics", new CouponMetrics(new SimpleMeterRegistry()));
+
+        SplittableRandom random = new SplittableRandom(42);
+        items = new ArrayList<>(cartSize);
+        double sum = 0;
+        for (int i = 0; i < cartSize; i++) {
+            Item item = new Item();
+            item.setId("MLA" + (100000 + i));
+            item.setPrice(price(random));
+            items.add(item);
+            sum += item.getPrice();
+        }
+        cart = Cart.of(items);
+        amount = Math.floor(sum * budgetRatio * 100) / 100.0;
+    }
+
+    private double price(SplittableRandom random) {
+        switch (distribution) {
+            case "skewed":
+                double base = random.nextDouble() < 0.9 ? random.nextDouble(1, 50) : random.nextDouble(500, 5000);
+                return Math.round(base * 100) / 100.0;
+            case "round":
+                return random.nextInt(1, 100) * 10.0;
+            default:
+                return random.nextInt(100, 100_000) / 100.0;
+        }
+    }
+
+    @Benchmark
+    public CuponResponse calculateOptimalItems() {
+        return cuponService.calculateOptimalItems(items, amount);
+    }
+
+    /** Solo la selección, sobre un carrito ya convertido a centavos. */
+    @Benchmark
+    public CuponResponse calculateOptimalItemsFromCart() {
+        return cuponService.calculateOptimalItems(cart, amount, strategy, Deadline.none());
+    }
+}
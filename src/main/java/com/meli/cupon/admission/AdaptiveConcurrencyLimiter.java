@@ -0,0 +1,113 @@
+package com.meli.cupon.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Límite de solicitudes en curso que se ajusta según la latencia observada (AIMD).
+ *
+ * Cada solicitud que termina aporta una muestra de latencia. La latencia habitual es un promedio
+ * móvil lento de las muestras; una muestra mayor a `tolerance` veces la habitual, o una solicitud
+ * fallida, es una señal de sobrecarga y el límite se multiplica por `backoffRatio` (como mucho una
+ * vez por latencia habitual, para no reaccionar varias veces a la misma congestión). Sin señales de
+ * sobrecarga, y solo si el límite se está usando, crece de a una solicitud por cada `limit`
+ * solicitudes terminadas. El límite queda siempre entre `min` y `max`.
+ *
+ * Así, cuando la API de ítems se vuelve lenta, el límite baja y lo que no entra se rechaza enseguida
+ * en lugar de acumularse en hilos bloqueados.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BASELINE_WEIGHT = 0.01;
+
+    private final int min;
+    private final int max;
+    private final double backoffRatio;
+    private final double tolerance;
+    private final LongSupplier nanoTime;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Protegidos por el monitor de la instancia
+    private double estimate;
+    private double baselineNanos;
+    private long lastDecrease;
+
+    public AdaptiveConcurrencyLimiter(int initial, int min, int max, double backoffRatio, double tolerance) {
+        this(initial, min, max, backoffRatio, tolerance, System::nanoTime);
+    }
+
+    public AdaptiveConcurrencyLimiter(int initial, int min, int max, double backoffRatio, double tolerance, LongSupplier nanoTime) {
+        this.min = min;
+        this.max = max;
+        this.backoffRatio = backoffRatio;
+        this.tolerance = tolerance;
+        this.nanoTime = nanoTime;
+        this.estimate = Math.max(min, Math.min(max, initial));
+        this.limit = (int) estimate;
+        this.lastDecrease = nanoTime.getAsLong();
+    }
+
+    /**
+     * Reserva un lugar si hay menos solicitudes en curso que el límite.
+     *
+     * @return Si la solicitud fue admitida; en ese caso debe liberarse con {@link #release(long, boolean)}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera el lugar de una solicitud terminada y ajusta el límite con su latencia.
+     *
+     * @param nanos Latencia de la solicitud.
+     * @param failed Si la solicitud falló por un error del servidor (por ejemplo un 504).
+     */
+    public void release(long nanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        update(nanos, failed, current);
+    }
+
+    /**
+     * Libera el lugar de una solicitud sin usarla como muestra, por ejemplo si el cliente cortó la
+     * conexión.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long nanos, boolean failed, int inFlightAtRelease) {
+        boolean overloaded = failed || baselineNanos > 0 && nanos > baselineNanos * tolerance;
+        if (!failed) {
+            // Las muestras lentas se acotan para que una congestión no se vuelva la latencia habitual
+            double sample = baselineNanos > 0 ? Math.min(nanos, baselineNanos * tolerance) : nanos;
+            baselineNanos = baselineNanos > 0 ? baselineNanos + BASELINE_WEIGHT * (sample - baselineNanos) : sample;
+        }
+        long now = nanoTime.getAsLong();
+        if (overloaded) {
+            if (now - lastDecrease >= baselineNanos) {
+                estimate = Math.max(min, estimate * backoffRatio);
+                lastDecrease = now;
+            }
+        } else if (inFlightAtRelease * 2 >= estimate) {
+            estimate = Math.min(max, estimate + 1 / estimate);
+        }
+        limit = (int) estimate;
+    }
+}
@@ -0,0 +1,160 @@
+package com.meli.cupon.admission;
+
+import com.meli.cupon.config.AdmissionProperties;
+import com.meli.cupon.config.DeadlineProperties;
+import com.meli.cupon.metrics.CouponMetrics;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Filtro de control de admisión para el stack servlet.
+ * 
+ * Se ejecuta después de la cadena de Spring Security, así el límite por usuario usa el nombre del 
+ * usuario autenticado (o la dirección remota si no lo hay). Primero se consume una ficha de 
+ * **UserRateLimiter** y luego se reserva un lugar en **AdaptiveConcurrencyLimiter**; si alguno 
+ * rechaza, se responde **429** con `Retry-After` sin llegar al controlador. Al terminar la 
+ * solicitud (también las asíncronas) se libera el lugar con su latencia; una respuesta **5xx** 
+ * cuenta como señal de sobrecarga, salvo un **504** por un `X-Request-Timeout` menor al habitual, 
+ * que se debe al plazo del cliente y libera el lugar sin aportar muestra. Las rutas excluidas del 
+ * límite adaptativo (`cupon.admission.limit.exclude-paths`) solo pasan por el límite por usuario.
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    private final AdmissionProperties properties;
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    private final UserRateLimiter userRateLimiter;
+
+    private final DeadlineProperties deadlineProperties;
+
+    private final CouponMetrics couponMetrics;
+
+    public AdmissionFilter(AdmissionProperties properties, AdaptiveConcurrencyLimiter limiter,
+                           UserRateLimiter userRateLimiter, DeadlineProperties deadlineProperties,
+                           CouponMetrics couponMetrics) {
+        this.properties = properties;
+        this.limiter = limiter;
+        this.userRateLimiter = userRateLimiter;
+        this.deadlineProperties = deadlineProperties;
+        this.couponMetrics = couponMetrics;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.applies(PATH_HELPER.getPathWithinApplication(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long wait = userRateLimiter.tryAcquire(user(request));
+        if (wait > 0) {
+            reject(response, "user", TimeUnit.NANOSECONDS.toSeconds(wait) + 1);
+            return;
+        }
+        if (!properties.limits(PATH_HELPER.getPathWithinApplication(request))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!limiter.tryAcquire()) {
+            reject(response, "limit", Math.max(1, properties.getRetryAfter().toSeconds()));
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new Release(start, request, response));
+            } else {
+                release(request, start, failed, response.getStatus());
+            }
+        }
+    }
+
+    private void release(HttpServletRequest request, long start, boolean failed, int status) {
+        if (!failed && status == HttpStatus.GATEWAY_TIMEOUT.value()
+                && deadlineProperties.isShorterThanDefault(request.getHeader(DeadlineProperties.HEADER))) {
+            // Venció el plazo que pidió el cliente: no dice nada sobre la carga
+            limiter.release();
+        } else {
+            limiter.release(System.nanoTime() - start, failed || status >= 500);
+        }
+    }
+
+    private static String user(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated()
+                ? authentication.getName()
+                : request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, String reason, long retryAfterSeconds) throws IOException {
+        couponMetrics.recordAdmissionRejected(reason);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("Demasiadas solicitudes, reintente en " + retryAfterSeconds + " s.");
+    }
+
+    // Libera el lugar cuando termina una solicitud asíncrona
+    private final class Release implements AsyncListener {
+
+        private final long start;
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private boolean released;
+
+        private Release(long start, HttpServletRequest request, HttpServletResponse response) {
+            this.start = start;
+            this.request = request;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(false);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        private synchronized void release(boolean failed) {
+            if (!released) {
+                released = true;
+                AdmissionFilter.this.release(request, start, failed, response.getStatus());
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.meli.cupon.admission;
+
+import com.meli.cupon.config.AdmissionProperties;
+import com.meli.cupon.config.DeadlineProperties;
+import com.meli.cupon.metrics.CouponMetrics;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Filtro de control de admisión para el stack reactivo (WebFlux).
+ * 
+ * Es el equivalente de **AdmissionFilter**: se ordena después de Spring Security para leer el 
+ * usuario del contexto reactivo, rechaza con **429** y `Retry-After` lo que excede 
+ * **UserRateLimiter** o **AdaptiveConcurrencyLimiter**, y libera el lugar cuando el flujo de la 
+ * solicitud termina. Si el cliente cancela, o si la solicitud termina en **504** por un 
+ * `X-Request-Timeout` menor al habitual, el lugar se libera sin usar la latencia como muestra. Las 
+ * rutas excluidas del límite adaptativo solo pasan por el límite por usuario.
+ */
+public class AdmissionWebFilter implements WebFilter, Ordered {
+
+    private final AdmissionProperties properties;
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    private final UserRateLimiter userRateLimiter;
+
+    private final DeadlineProperties deadlineProperties;
+
+    private final CouponMetrics couponMetrics;
+
+    public AdmissionWebFilter(AdmissionProperties properties, AdaptiveConcurrencyLimiter limiter,
+                              UserRateLimiter userRateLimiter, DeadlineProperties deadlineProperties,
+                              CouponMetrics couponMetrics) {
+        this.properties = properties;
+        this.limiter = limiter;
+        this.userRateLimiter = userRateLimiter;
+        this.deadlineProperties = deadlineProperties;
+        this.couponMetrics = couponMetrics;
+    }
+
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!properties.applies(exchange.getRequest().getPath().pathWithinApplication().value())) {
+            return chain.filter(exchange);
+        }
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(Authentication::isAuthenticated)
+                .map(Authentication::getName)
+                .switchIfEmpty(Mono.fromSupplier(() -> remoteAddress(exchange)))
+                .flatMap(user -> admit(exchange, chain, user));
+    }
+
+    private Mono<Void> admit(ServerWebExchange exchange, WebFilterChain chain, String user) {
+        long wait = userRateLimiter.tryAcquire(user);
+        if (wait > 0) {
+            return reject(exchange.getResponse(), "user", TimeUnit.NANOSECONDS.toSeconds(wait) + 1);
+        }
+        if (!properties.limits(exchange.getRequest().getPath().pathWithinApplication().value())) {
+            return chain.filter(exchange);
+        }
+        if (!limiter.tryAcquire()) {
+            return reject(exchange.getResponse(), "limit", Math.max(1, properties.getRetryAfter().toSeconds()));
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (signal == SignalType.CANCEL || signal == SignalType.ON_COMPLETE && callerTimedOut(exchange, status)) {
+                        // El cliente se fue o venció el plazo que él mismo pidió: no dice nada sobre la carga
+                        limiter.release();
+                        return;
+                    }
+                    limiter.release(System.nanoTime() - start,
+                            signal == SignalType.ON_ERROR || status != null && status.is5xxServerError());
+                });
+    }
+
+    private boolean callerTimedOut(ServerWebExchange exchange, HttpStatusCode status) {
+        return status != null && status.value() == HttpStatus.GATEWAY_TIMEOUT.value()
+                && deadlineProperties.isShorterThanDefault(exchange.getRequest().getHeaders().getFirst(DeadlineProperties.HEADER));
+    }
+
+    private static String remoteAddress(ServerWebExchange exchange) {
+        InetSocketAddress address = exchange.getRequest().getRemoteAddress();
+        return address != null ? address.getHostString() : "";
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response, String reason, long retryAfterSeconds) {
+        couponMetrics.recordAdmissionRejected(reason);
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.getHeaders().setContentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8));
+        DataBuffer body = response.bufferFactory()
+                .wrap(("Demasiadas solicitudes, reintente en " + retryAfterSeconds + " s.").getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(body));
+    }
+}
@@ -0,0 +1,74 @@
+package com.meli.cupon.admission;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Límite de solicitudes por usuario con cubetas de fichas (token bucket) sin bloqueos.
+ *
+ * Cada cubeta es un único `long` con el instante teórico en que la cubeta vuelve a estar llena
+ * (algoritmo GCRA): admitir una solicitud lo adelanta `1 / rate` segundos, y se rechaza si quedaría
+ * más de `burst` solicitudes por delante del reloj. Actualizarla es una comparación e intercambio
+ * (CAS), sin locks ni objetos por usuario.
+ *
+ * Los usuarios se reparten por hash entre `stripes` cubetas de un arreglo fijo, así la memoria no
+ * crece con la cantidad de usuarios. Dos usuarios que caen en la misma cubeta la comparten; con
+ * suficientes cubetas es raro y, en el peor caso, limita antes de tiempo. Cada cubeta ocupa su
+ * propia línea de caché para que usuarios distintos no compitan por ella.
+ */
+public class UserRateLimiter {
+
+    // 8 longs = 64 bytes por cubeta
+    private static final int PADDING = 8;
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int mask;
+    private final AtomicLongArray buckets;
+    private final LongSupplier nanoTime;
+    private final long origin;
+
+    public UserRateLimiter(double rate, int burst, int stripes) {
+        this(rate, burst, stripes, System::nanoTime);
+    }
+
+    public UserRateLimiter(double rate, int burst, int stripes, LongSupplier nanoTime) {
+        this.intervalNanos = rate > 0 ? (long) (1_000_000_000L / rate) : 0;
+        this.burstNanos = intervalNanos * Math.max(burst, 1);
+        int size = Integer.highestOneBit(Math.max(stripes - 1, 1)) << 1;
+        this.mask = size - 1;
+        this.buckets = new AtomicLongArray(rate > 0 ? size * PADDING : 0);
+        this.nanoTime = nanoTime;
+        this.origin = nanoTime.getAsLong();
+    }
+
+    /**
+     * Intenta consumir una ficha de la cubeta del usuario.
+     *
+     * @param user Identificador del usuario.
+     * @return `0` si la solicitud fue admitida; si no, los nanosegundos hasta que haya una ficha.
+     */
+    public long tryAcquire(String user) {
+        if (intervalNanos == 0) {
+            return 0;
+        }
+        int index = slot(user) * PADDING;
+        long now = nanoTime.getAsLong() - origin;
+        while (true) {
+            long full = buckets.get(index);
+            long next = Math.max(full, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (buckets.compareAndSet(index, full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private int slot(String user) {
+        int h = user.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,251 @@
+package com.meli.cupon.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.meli.cupon.model.Cart;
+import com.meli.cupon.model.Deadline;
+import com.meli.cupon.model.response.CuponResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Caché de resultados de cupones ya calculados.
+ *
+ * La clave es el carrito normalizado (IDs ordenados, cada uno con su precio en centavos), el monto
+ * en centavos y la estrategia. Los precios forman parte de la clave, así un cambio de precio
+ * produce otra clave y nunca se sirve un resultado calculado con precios viejos; las entradas
+ * huérfanas se desalojan por tamaño (`cupon.memo.maximum-size`) o por tiempo (`cupon.memo.ttl`).
+ *
+ * Pedidos idénticos simultáneos calculan una sola vez: el primero registra un futuro en la caché y
+ * resuelve en su propio hilo, fuera de Caffeine, y los demás esperan ese futuro como mucho hasta su
+ * propio **Deadline**. Solo se conservan resultados óptimos: uno recortado por el **Deadline** del
+ * primero se entrega solo a él y se quita de la caché (si la entrada sigue siendo la suya), y
+ * quienes esperaban calculan de nuevo con su propio tiempo, igual que si el cálculo falló o no
+ * llegó a tiempo. Los carritos con IDs repetidos no se cachean.
+ *
+ * {@link #getReactive} ofrece lo mismo sin bloquear: quien llega a un cálculo en curso se suscribe
+ * al futuro compartido en lugar de esperarlo, así los hilos del scheduler `parallel` no quedan
+ * detenidos mientras otro pedido resuelve el mismo carrito.
+ *
+ * Sus contadores se publican como métricas `cache.*` con la etiqueta `cache=coupons`.
+ */
+@Component
+@ConditionalOnProperty(name = "cupon.memo.enabled", havingValue = "true", matchIfMissing = true)
+public class CuponResultCache implements MeterBinder {
+
+    private final AsyncCache<Key, Result> cache;
+
+    public CuponResultCache(@Value("${cupon.memo.maximum-size:10000}") long maximumSize,
+                            @Value("${cupon.memo.ttl:1m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Devuelve el resultado cacheado para el carrito o lo calcula con `solve`.
+     *
+     * @param cart Carrito con los precios en centavos.
+     * @param strategy Estrategia de selección.
+     * @param budget Monto disponible en centavos.
+     * @param deadline Tiempo límite de quien pide; acota la espera de un cálculo ajeno en curso.
+     * @param solve Cálculo a ejecutar si no hay resultado cacheado.
+     * @return Una respuesta nueva (quien la recibe puede modificarla), con los IDs en el orden del carrito.
+     */
+    public CuponResponse get(Cart cart, String strategy, long budget, Deadline deadline, Supplier<CuponResponse> solve) {
+        Key key = Key.of(cart, strategy, budget);
+        if (key == null) {
+            return solve.get();
+        }
+        CompletableFuture<Result> mine = new CompletableFuture<>();
+        CompletableFuture<Result> shared = cache.get(key, (k, executor) -> mine);
+        if (shared == mine) {
+            return compute(key, mine, solve);
+        }
+        Result result = await(shared, deadline);
+        if (result == null || !result.optimal) {
+            return solve.get();
+        }
+        return result.toResponse(cart);
+    }
+
+    /**
+     * Variante reactiva de {@link #get}: la espera de un cálculo ajeno en curso no ocupa ningún hilo.
+     *
+     * Si el cálculo ajeno falla, no llega antes del **Deadline** o no es óptimo, se calcula de nuevo
+     * en el scheduler `parallel`; cancelar la suscripción no cancela el cálculo compartido.
+     *
+     * @param cart Carrito con los precios en centavos.
+     * @param strategy Estrategia de selección.
+     * @param budget Monto disponible en centavos.
+     * @param deadline Tiempo límite de quien pide; acota la espera de un cálculo ajeno en curso.
+     * @param solve Cálculo a ejecutar si no hay resultado cacheado.
+     * @return Un **Mono** con una respuesta nueva, con los IDs en el orden del carrito.
+     */
+    public Mono<CuponResponse> getReactive(Cart cart, String strategy, long budget, Deadline deadline,
+                                           Supplier<CuponResponse> solve) {
+        return Mono.defer(() -> {
+            Key key = Key.of(cart, strategy, budget);
+            if (key == null) {
+                return Mono.fromSupplier(solve);
+            }
+            CompletableFuture<Result> mine = new CompletableFuture<>();
+            CompletableFuture<Result> shared = cache.get(key, (k, executor) -> mine);
+            if (shared == mine) {
+                return Mono.fromSupplier(() -> compute(key, mine, solve));
+            }
+            Mono<Result> result = Mono.fromFuture(shared, true);
+            if (deadline.isBounded()) {
+                result = result.timeout(deadline.remaining());
+            }
+            return result
+                    .onErrorResume(e -> Mono.empty())
+                    .filter(Result::optimal)
+                    .map(found -> found.toResponse(cart))
+                    // Sin calcular en el hilo que completó el futuro ajeno
+                    .switchIfEmpty(Mono.fromSupplier(solve).subscribeOn(Schedulers.parallel()));
+        });
+    }
+
+    // Resuelve en el hilo de quien registró el futuro y lo completa para quienes esperan
+    private CuponResponse compute(Key key, CompletableFuture<Result> mine, Supplier<CuponResponse> solve) {
+        CuponResponse response;
+        try {
+            response = solve.get();
+        } catch (RuntimeException | Error e) {
+            // Caffeine quita sola la entrada cuyo futuro falló
+            mine.completeExceptionally(e);
+            throw e;
+        }
+        Result result = Result.of(response);
+        if (!result.optimal) {
+            // Condicional: no se borra una entrada nueva que otro pedido haya registrado mientras tanto
+            cache.asMap().remove(key, mine);
+        }
+        mine.complete(result);
+        return response;
+    }
+
+    // Devuelve `null` si el cálculo ajeno falló o no terminó antes del límite de quien espera
+    private static Result await(CompletableFuture<Result> shared, Deadline deadline) {
+        try {
+            return deadline.isBounded()
+                    ? shared.get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS)
+                    : shared.get();
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(cache.synchronous(), "coupons", List.of()).bindTo(registry);
+    }
+
+    /**
+     * Carrito normalizado: IDs ordenados con sus precios, más el monto y la estrategia.
+     */
+    private static final class Key {
+
+        private final String strategy;
+        private final long budget;
+        private final String[] ids;
+        private final long[] cents;
+        private final int hash;
+
+        private Key(String strategy, long budget, String[] ids, long[] cents) {
+            this.strategy = strategy;
+            this.budget = budget;
+            this.ids = ids;
+            this.cents = cents;
+            int h = strategy.hashCode();
+            h = 31 * h + Long.hashCode(budget);
+            h = 31 * h + Arrays.hashCode(ids);
+            this.hash = 31 * h + Arrays.hashCode(cents);
+        }
+
+        // Devuelve `null` si el carrito repite algún ID
+        static Key of(Cart cart, String strategy, long budget) {
+            int[] order = IntStream.range(0, cart.size())
+                    .boxed()
+                    .sorted(Comparator.comparing(cart::id))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            String[] ids = new String[order.length];
+            long[] cents = new long[order.length];
+            for (int i = 0; i < order.length; i++) {
+                ids[i] = cart.id(order[i]);
+                cents[i] = cart.cents()[order[i]];
+                if (i > 0 && ids[i].equals(ids[i - 1])) {
+                    return null;
+                }
+            }
+            return new Key(strategy, budget, ids, cents);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return hash == other.hash && budget == other.budget && strategy.equals(other.strategy)
+                    && Arrays.equals(cents, other.cents) && Arrays.equals(ids, other.ids);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Resultado inmutable: los IDs elegidos (sin orden), el total y si es óptimo.
+     */
+    private record Result(Set<String> itemIds, double total, boolean optimal) {
+
+        static Result of(CuponResponse response) {
+            return new Result(Set.copyOf(response.getItemIds()), response.getTotal(), response.isOptimal());
+        }
+
+        // Arma una respuesta nueva con los IDs en el orden del carrito de quien la pide
+        CuponResponse toResponse(Cart cart) {
+            List<String> selected = new ArrayList<>(itemIds.size());
+            for (int i = 0; i < cart.size(); i++) {
+                if (itemIds.contains(cart.id(i))) {
+                    selected.add(cart.id(i));
+                }
+            }
+            CuponResponse response = new CuponResponse();
+            response.setItemIds(selected);
+            response.setTotal(total);
+            response.setOptimal(optimal);
+            return response;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.meli.cupon.cache;
+
+import com.meli.cupon.model.entity.Item;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * **SharedItemCache** en memoria, con `cupon.cache.l2.type=memory`.
+ *
+ * Sirve para pruebas y para correr una sola instancia sin Redis; varias **ItemPriceCache** que
+ * compartan esta instancia se comportan como instancias detrás de una caché común. Las entradas
+ * vencidas se descartan al leerlas.
+ */
+@Component
+@ConditionalOnProperty(name = "cupon.cache.l2.type", havingValue = "memory")
+public class InMemorySharedItemCache implements SharedItemCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final ItemTtl itemTtl;
+
+    public InMemorySharedItemCache(@Value("${cupon.cache.items.ttl:10m}") Duration ttl,
+                                   @Value("${cupon.cache.items.negative-ttl:30s}") Duration negativeTtl) {
+        this.itemTtl = new ItemTtl(ttl, negativeTtl);
+    }
+
+    @Override
+    public Mono<Map<String, Optional<Item>>> getAll(Collection<String> itemIds) {
+        return Mono.fromSupplier(() -> {
+            long now = System.nanoTime();
+            Map<String, Optional<Item>> found = new HashMap<>();
+            for (String itemId : itemIds) {
+                Entry entry = entries.get(itemId);
+                if (entry == null) {
+                    continue;
+                }
+                if (entry.expiresAt - now > 0) {
+                    found.put(itemId, entry.value);
+                } else {
+                    entries.remove(itemId, entry);
+                }
+            }
+            return found;
+        });
+    }
+
+    @Override
+    public void putAllAsync(Map<String, Optional<Item>> items) {
+        long now = System.nanoTime();
+        items.forEach((itemId, value) -> entries.put(itemId, new Entry(value, now + itemTtl.remainingNanos(value))));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private record Entry(Optional<Item> value, long expiresAt) {
+    }
+}
@@ -0,0 +1,157 @@
+package com.meli.cupon.cache;
+
+import com.meli.cupon.metrics.CouponMetrics;
+import com.meli.cupon.model.entity.Item;
+import com.meli.cupon.repository.ItemRepository;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Copia local de los precios en la tabla `items`, usada por **ItemPriceCache** como segundo nivel
+ * entre la caché en memoria y la API de ítems.
+ *
+ * Cada fila guarda la fecha de su última actualización (`updated_at`, en UTC). Las filas con menos
+ * de `cupon.items.mirror.max-age` se sirven sin consultar la API; las más viejas solo se usan si la
+ * API no pudo responder por ese ítem, así una instancia recién iniciada o una caída de la API no se
+ * traducen en consultar todo el carrito aguas arriba.
+ *
+ * Las lecturas (`findAllById`) y las escrituras (upserts JDBC por lotes de
+ * `cupon.items.mirror.batch-size`) corren en el `jdbcScheduler`, fuera de los hilos que atienden
+ * las solicitudes. Se desactiva con `cupon.items.mirror.enabled=false`.
+ */
+@Component
+@ConditionalOnProperty(name = "cupon.items.mirror.enabled", havingValue = "true", matchIfMissing = true)
+public class ItemMirror {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemMirror.class);
+
+    private static final String UPSERT = "INSERT INTO items (id, price, updated_at) VALUES (?, ?, ?) " +
+                                         "ON DUPLICATE KEY UPDATE price = VALUES(price), updated_at = VALUES(updated_at)";
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("jdbcScheduler")
+    private Scheduler jdbcScheduler;
+
+    @Autowired
+    private CouponMetrics couponMetrics;
+
+    @Value("${cupon.items.mirror.max-age:10m}")
+    private Duration maxAge;
+
+    @Value("${cupon.items.mirror.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Lee las filas guardadas de varios ítems, frescas o no.
+     *
+     * Si la base no responde se devuelve un mapa vacío: el espejo es una optimización y nunca debe
+     * impedir consultar la API.
+     *
+     * @param itemIds IDs de los ítems.
+     * @return Un **Mono** con las filas encontradas por ID.
+     */
+    public Mono<Map<String, Item>> findAll(Collection<? extends String> itemIds) {
+        return Flux.fromIterable(partition(itemIds))
+                .concatMap(chunk -> Mono.fromCallable(() -> itemRepository.findAllById(chunk)).subscribeOn(jdbcScheduler))
+                .flatMapIterable(items -> items)
+                .collectMap(Item::getId)
+                .onErrorResume(e -> {
+                    log.warn("No se pudo leer el espejo de ítems: {}", e.getMessage());
+                    return Mono.just(Map.of());
+                });
+    }
+
+    // Una fila es fresca si es más nueva que `cupon.items.mirror.max-age`
+    private boolean isFresh(Item item) {
+        return item.getUpdatedAt() != null
+                && item.getUpdatedAt().isAfter(LocalDateTime.now(ZoneOffset.UTC).minus(maxAge));
+    }
+
+    /**
+     * Guarda o actualiza los ítems obtenidos de la API con la fecha actual, en segundo plano.
+     *
+     * Los errores se registran en el log y no se propagan a quien consultó los ítems.
+     *
+     * @param items Ítems obtenidos de la API.
+     */
+    public void saveAllAsync(Collection<Item> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        List<Item> rows = new ArrayList<>(items);
+        Mono.fromRunnable(() -> upsert(rows))
+                .subscribeOn(jdbcScheduler)
+                .subscribe(null, e -> log.warn("No se pudieron guardar {} ítems en el espejo: {}", rows.size(), e.getMessage()));
+    }
+
+    private void upsert(List<Item> items) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC));
+        jdbcTemplate.batchUpdate(UPSERT, items, batchSize, (statement, item) -> {
+            statement.setString(1, item.getId());
+            statement.setDouble(2, item.getPrice());
+            statement.setTimestamp(3, now);
+        });
+    }
+
+    /**
+     * Clasifica las filas leídas respecto de los IDs pedidos y publica la métrica
+     * `cupon.items.mirror` (`fresh`, `stale` o `miss`).
+     *
+     * @param itemIds IDs pedidos.
+     * @param rows Filas leídas con {@link #findAll(Collection)}.
+     * @return Las filas que pueden servirse sin consultar la API.
+     */
+    public Map<String, Item> fresh(Collection<? extends String> itemIds, Map<String, Item> rows) {
+        Map<String, Item> fresh = new HashMap<>();
+        int stale = 0;
+        for (Item item : rows.values()) {
+            if (isFresh(item)) {
+                fresh.put(item.getId(), item);
+            } else {
+                stale++;
+            }
+        }
+        couponMetrics.recordMirror(fresh.size(), stale, itemIds.size() - rows.size());
+        return fresh;
+    }
+
+    private List<List<String>> partition(Collection<? extends String> itemIds) {
+        List<List<String>> chunks = new ArrayList<>();
+        List<String> current = new ArrayList<>(Math.min(batchSize, itemIds.size()));
+        for (String itemId : itemIds) {
+            current.add(itemId);
+            if (current.size() == batchSize) {
+                chunks.add(current);
+                current = new ArrayList<>(batchSize);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,244 @@
+package com.meli.cupon.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.meli.cupon.client.ItemApiClient;
+import com.meli.cupon.exception.ItemNotFoundException;
+import com.meli.cupon.model.entity.Item;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caché en memoria de los ítems obtenidos desde la API externa.
+ * 
+ * Está acotada por cantidad de entradas y cada entrada tiene su propio TTL:
+ * - Los ítems encontrados viven `cupon.cache.items.ttl`.
+ * - Los ítems inexistentes (404) se cachean como `Optional.empty()` durante 
+ *   `cupon.cache.items.negative-ttl`, para no volver a consultar IDs inválidos.
+ * 
+ * Pasado `cupon.cache.items.refresh-after` una entrada se sigue sirviendo (stale) mientras se 
+ * recarga en segundo plano. Si la recarga falla, el valor anterior se conserva hasta que venza 
+ * su TTL, por lo que una API lenta o caída no impacta a los pedidos mientras haya datos cacheados.
+ * 
+ * Las consultas de un carrito completo se resuelven con {@link #getAll(Collection)}, que carga todos 
+ * los faltantes en una sola operación de **ItemApiClient** (con concurrencia acotada o multi-get).
+ * 
+ * Si está habilitado **ItemMirror**, los faltantes se buscan antes en la tabla `items` y solo los 
+ * que no tienen una fila fresca llegan a la API; lo obtenido de la API se vuelve a guardar en la 
+ * tabla. Si la API no responde por un ítem con fila vencida, se sirve esa fila. Las recargas de 
+ * `refresh-after` van siempre a la API, para que el espejo no congele precios.
+ * 
+ * Con una **SharedItemCache** (`cupon.cache.l2.type`) hay un nivel más entre la caché en memoria y 
+ * el espejo: los faltantes se buscan primero ahí con una sola lectura, y lo cargado del espejo o 
+ * de la API se publica para las demás instancias. Todos los niveles calculan el vencimiento de un 
+ * precio con **ItemTtl**, a partir de cuándo se obtuvo de la API.
+ * 
+ * Sus contadores se publican como métricas `cache.*` con la etiqueta `cache=items`.
+ */
+@Component
+public class ItemPriceCache implements MeterBinder {
+
+    private final AsyncLoadingCache<String, Optional<Item>> cache;
+
+    private final ItemApiClient itemApiClient;
+
+    private final ItemTtl itemTtl;
+
+    @Autowired(required = false)
+    private ItemMirror itemMirror;
+
+    @Autowired(required = false)
+    private SharedItemCache sharedItemCache;
+
+    public ItemPriceCache(ItemApiClient itemApiClient,
+                          @Value("${cupon.cache.items.maximum-size:100000}") long maximumSize,
+                          @Value("${cupon.cache.items.ttl:10m}") Duration ttl,
+                          @Value("${cupon.cache.items.negative-ttl:30s}") Duration negativeTtl,
+                          @Value("${cupon.cache.items.refresh-after:1m}") Duration refreshAfter) {
+        this.itemTtl = new ItemTtl(ttl, negativeTtl);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ItemExpiry(itemTtl))
+                .refreshAfterWrite(refreshAfter)
+                .recordStats()
+                .buildAsync(new AsyncCacheLoader<String, Optional<Item>>() {
+                    @Override
+                    public CompletableFuture<Optional<Item>> asyncLoad(String itemId, Executor executor) {
+                        if (itemMirror == null && sharedItemCache == null) {
+                            return itemApiClient.fetchItem(itemId).toFuture();
+                        }
+                        return load(Set.of(itemId))
+                                .mapNotNull(found -> found.get(itemId))
+                                .switchIfEmpty(Mono.error(() -> new ItemNotFoundException("No se pudo obtener el ítem " + itemId)))
+                                .toFuture();
+                    }
+
+                    @Override
+                    public CompletableFuture<Map<String, Optional<Item>>> asyncLoadAll(Set<? extends String> itemIds, Executor executor) {
+                        return load(itemIds).toFuture();
+                    }
+
+                    @Override
+                    public CompletableFuture<Optional<Item>> asyncReload(String itemId, Optional<Item> oldValue, Executor executor) {
+                        return itemApiClient.fetchItem(itemId)
+                                .doOnNext(item -> {
+                                    Map<String, Optional<Item>> loaded = ItemTtl.stamp(Map.of(itemId, item));
+                                    saveToMirror(loaded);
+                                    saveToShared(loaded);
+                                })
+                                .toFuture();
+                    }
+                });
+        this.itemApiClient = itemApiClient;
+    }
+
+    // Carga los faltantes de la caché: primero la caché compartida (si existe) y luego el origen
+    private Mono<Map<String, Optional<Item>>> load(Set<? extends String> itemIds) {
+        if (sharedItemCache == null) {
+            return loadFromOrigin(itemIds);
+        }
+        return sharedItemCache.getAll(List.copyOf(itemIds)).flatMap(shared -> {
+            List<String> misses = itemIds.stream().filter(itemId -> !shared.containsKey(itemId)).map(String::valueOf).toList();
+            if (misses.isEmpty()) {
+                return Mono.just(shared);
+            }
+            return loadFromOrigin(misses).map(loaded -> {
+                saveToShared(loaded);
+                Map<String, Optional<Item>> result = new HashMap<>(shared);
+                result.putAll(loaded);
+                return result;
+            });
+        });
+    }
+
+    // Origen de los ítems: el espejo local (si existe) y luego la API
+    private Mono<Map<String, Optional<Item>>> loadFromOrigin(Collection<? extends String> itemIds) {
+        if (itemMirror == null) {
+            return itemApiClient.fetchItems(itemIds).map(ItemTtl::stamp);
+        }
+        return itemMirror.findAll(itemIds).flatMap(rows -> {
+            Map<String, Optional<Item>> result = new HashMap<>();
+            itemMirror.fresh(itemIds, rows).forEach((itemId, item) -> result.put(itemId, Optional.of(item)));
+            List<String> misses = itemIds.stream().filter(itemId -> !result.containsKey(itemId)).map(String::valueOf).toList();
+            if (misses.isEmpty()) {
+                return Mono.just(result);
+            }
+            return itemApiClient.fetchItems(misses).map(found -> {
+                result.putAll(ItemTtl.stamp(found));
+                saveToMirror(found);
+                for (String itemId : misses) {
+                    // La API no respondió por este ítem: se sirve la fila vencida, si la hay
+                    if (!found.containsKey(itemId) && rows.containsKey(itemId)) {
+                        result.put(itemId, Optional.of(rows.get(itemId)));
+                    }
+                }
+                return result;
+            });
+        });
+    }
+
+    private void saveToShared(Map<String, Optional<Item>> items) {
+        if (sharedItemCache != null) {
+            sharedItemCache.putAllAsync(items);
+        }
+    }
+
+    private void saveToMirror(Map<String, Optional<Item>> items) {
+        if (itemMirror != null) {
+            itemMirror.saveAllAsync(items.values().stream().flatMap(Optional::stream).toList());
+        }
+    }
+
+    /**
+     * Obtiene un ítem desde la caché, cargándolo desde la API si no está presente.
+     * 
+     * Cancelar la suscripción no cancela la carga: el futuro de la caché es compartido con los 
+     * demás pedidos del mismo ítem, y cancelarlo los haría fallar a todos.
+     * 
+     * @param itemId ID del ítem.
+     * @return Un **Mono** con el ítem o `Optional.empty()` si la API informó que no existe.
+     */
+    public Mono<Optional<Item>> get(String itemId) {
+        return Mono.fromFuture(() -> cache.get(itemId), true);
+    }
+
+    /**
+     * Obtiene varios ítems desde la caché, cargando los faltantes desde la API en bloque.
+     * 
+     * Los IDs cuya carga falló no aparecen en el mapa resultante y no se cachean. Igual que en 
+     * {@link #get}, cancelar la suscripción no cancela las cargas compartidas.
+     * 
+     * @param itemIds IDs de los ítems.
+     * @return Un **Mono** con el resultado de cada ID que pudo resolverse.
+     */
+    public Mono<Map<String, Optional<Item>>> getAll(Collection<String> itemIds) {
+        return Mono.fromFuture(() -> cache.getAll(itemIds), true);
+    }
+
+    /**
+     * Devuelve los contadores de aciertos, fallos y desalojos de la caché.
+     * 
+     * @return Las estadísticas acumuladas de la caché.
+     */
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(cache.synchronous(), "items", List.of()).bindTo(registry);
+    }
+
+    /**
+     * Devuelve la cantidad aproximada de entradas cacheadas.
+     * 
+     * @return El tamaño estimado de la caché.
+     */
+    public long size() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    /**
+     * Política de expiración por entrada: lo que le resta a cada precio según **ItemTtl**.
+     */
+    private static class ItemExpiry implements Expiry<String, Optional<Item>> {
+
+        private final ItemTtl itemTtl;
+
+        ItemExpiry(ItemTtl itemTtl) {
+            this.itemTtl = itemTtl;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Optional<Item> value, long currentTime) {
+            return itemTtl.remainingNanos(value);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<Item> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<Item> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.meli.cupon.cache;
+
+import com.meli.cupon.model.entity.Item;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Tiempo de vida de un ítem cacheado, común a todos los niveles de caché.
+ *
+ * Un precio vive `cupon.cache.items.ttl` desde que se obtuvo de la API (`updatedAt`), no desde que
+ * llegó a cada nivel: un ítem leído de la caché compartida o del espejo local con 8 minutos de
+ * antigüedad vive solo lo que le resta. Así ningún nivel extiende la vida de un precio que otro
+ * ya considera vencido.
+ *
+ * Los inexistentes (`Optional.empty()`) viven `cupon.cache.items.negative-ttl`. Nada vive menos que
+ * ese mínimo, para que un precio vencido servido durante una caída de la API no obligue a
+ * consultarla en cada solicitud.
+ */
+public final class ItemTtl {
+
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+
+    public ItemTtl(Duration ttl, Duration negativeTtl) {
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+    }
+
+    /**
+     * @param value Ítem encontrado o `Optional.empty()` si no existe.
+     * @return El tiempo de vida que le queda, en nanosegundos.
+     */
+    public long remainingNanos(Optional<Item> value) {
+        if (value.isEmpty()) {
+            return negativeTtlNanos;
+        }
+        LocalDateTime updatedAt = value.get().getUpdatedAt();
+        if (updatedAt == null) {
+            return ttlNanos;
+        }
+        long age = Duration.between(updatedAt, LocalDateTime.now(ZoneOffset.UTC)).toNanos();
+        return Math.max(negativeTtlNanos, Math.min(ttlNanos, ttlNanos - age));
+    }
+
+    /**
+     * Marca los ítems recién obtenidos de la API con la fecha actual, desde la que corre su TTL.
+     *
+     * @param items Resultado de la API.
+     * @return El mismo mapa.
+     */
+    public static Map<String, Optional<Item>> stamp(Map<String, Optional<Item>> items) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        items.values().forEach(item -> item.ifPresent(found -> found.setUpdatedAt(now)));
+        return items;
+    }
+}
@@ -0,0 +1,115 @@
+package com.meli.cupon.cache;
+
+import com.meli.cupon.model.entity.Item;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * **SharedItemCache** sobre Redis, con `cupon.cache.l2.type=redis` (conexión en `spring.data.redis.*`).
+ * Con otro tipo, **RedisAutoConfigurationFilter** ni siquiera crea el cliente de Redis.
+ *
+ * Cada ítem es una clave `cupon.cache.l2.key-prefix` + ID con un valor compacto `precio;updatedAt`
+ * (milisegundos UTC), o vacío para un ítem inexistente. Un carrito completo se lee con un único
+ * `MGET`; las escrituras son `SET ... PX` que Lettuce envía en pipeline sobre la conexión
+ * compartida, sin esperar la respuesta de cada una.
+ *
+ * Las lecturas tienen un límite de `cupon.cache.l2.timeout`: si Redis no responde a tiempo se
+ * sigue como si no hubiera encontrado nada.
+ */
+@Component
+@ConditionalOnProperty(name = "cupon.cache.l2.type", havingValue = "redis")
+@ConditionalOnClass(ReactiveStringRedisTemplate.class)
+public class RedisSharedItemCache implements SharedItemCache {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisSharedItemCache.class);
+
+    private static final String NOT_FOUND = "";
+
+    @Autowired
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Value("${cupon.cache.l2.key-prefix:cupon:item:}")
+    private String keyPrefix;
+
+    @Value("${cupon.cache.l2.timeout:50ms}")
+    private Duration timeout;
+
+    private final ItemTtl itemTtl;
+
+    public RedisSharedItemCache(@Value("${cupon.cache.items.ttl:10m}") Duration ttl,
+                                @Value("${cupon.cache.items.negative-ttl:30s}") Duration negativeTtl) {
+        this.itemTtl = new ItemTtl(ttl, negativeTtl);
+    }
+
+    @Override
+    public Mono<Map<String, Optional<Item>>> getAll(Collection<String> itemIds) {
+        List<String> ids = List.copyOf(itemIds);
+        List<String> keys = ids.stream().map(itemId -> keyPrefix + itemId).toList();
+        return redisTemplate.opsForValue().multiGet(keys)
+                .timeout(timeout)
+                .map(values -> {
+                    Map<String, Optional<Item>> found = new HashMap<>();
+                    for (int i = 0; i < ids.size(); i++) {
+                        String value = values.get(i);
+                        if (value != null) {
+                            found.put(ids.get(i), decode(ids.get(i), value));
+                        }
+                    }
+                    return found;
+                })
+                .onErrorResume(e -> {
+                    log.warn("No se pudo leer la caché compartida: {}", e.getMessage());
+                    return Mono.just(Map.of());
+                });
+    }
+
+    @Override
+    public void putAllAsync(Map<String, Optional<Item>> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Flux.fromIterable(items.entrySet())
+                .flatMap(entry -> redisTemplate.opsForValue().set(keyPrefix + entry.getKey(), encode(entry.getValue()),
+                        Duration.ofNanos(itemTtl.remainingNanos(entry.getValue()))))
+                .subscribe(null, e -> log.warn("No se pudieron guardar {} ítems en la caché compartida: {}", items.size(), e.getMessage()));
+    }
+
+    private static String encode(Optional<Item> value) {
+        if (value.isEmpty()) {
+            return NOT_FOUND;
+        }
+        Item item = value.get();
+        long updatedAt = item.getUpdatedAt() == null ? System.currentTimeMillis()
+                : item.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+        return item.getPrice() + ";" + updatedAt;
+    }
+
+    private static Optional<Item> decode(String itemId, String value) {
+        if (NOT_FOUND.equals(value)) {
+            return Optional.empty();
+        }
+        int separator = value.indexOf(';');
+        Item item = new Item();
+        item.setId(itemId);
+        item.setPrice(Double.parseDouble(value.substring(0, separator)));
+        item.setUpdatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(value.substring(separator + 1))), ZoneOffset.UTC));
+        return Optional.of(item);
+    }
+}
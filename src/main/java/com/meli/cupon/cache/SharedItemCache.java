@@ -0,0 +1,39 @@
+package com.meli.cupon.cache;
+
+import com.meli.cupon.model.entity.Item;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caché de ítems compartida entre instancias (segundo nivel de **ItemPriceCache**).
+ *
+ * Permite que una instancia recién creada encuentre los precios que ya obtuvieron las demás en
+ * lugar de consultar la API por cada ítem. La implementación se elige con `cupon.cache.l2.type`:
+ * `redis` (**RedisSharedItemCache**), `memory` (**InMemorySharedItemCache**, para pruebas o una
+ * sola instancia) o `none` (sin segundo nivel).
+ *
+ * Cada entrada se guarda con el tiempo de vida que le resta según **ItemTtl**, de modo que los dos
+ * niveles vencen un mismo precio al mismo tiempo.
+ */
+public interface SharedItemCache {
+
+    /**
+     * Obtiene varios ítems en una sola ida y vuelta.
+     *
+     * Una caché compartida lenta o caída no debe frenar los pedidos: ante un error o demora se
+     * devuelve un mapa vacío y los ítems se buscan en el nivel siguiente.
+     *
+     * @param itemIds IDs de los ítems.
+     * @return Un **Mono** con los ítems encontrados; los ausentes no aparecen en el mapa.
+     */
+    Mono<Map<String, Optional<Item>>> getAll(Collection<String> itemIds);
+
+    /**
+     * Guarda ítems en segundo plano; los errores se registran y no se propagan.
+     *
+     * @param items Ítems encontrados o `Optional.empty()` para los inexistentes.
+     */
+    void putAllAsync(Map<String, Optional<Item>> items);
+}
@@ -0,0 +1,80 @@
+package com.meli.cupon.client;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Calcula cuánto esperar antes de enviar una solicitud duplicada (hedge) a la API de ítems.
+ *
+ * Con `percentile` en 0 la demora es fija (`delay`). Con un percentil configurado (por ejemplo
+ * 0.95) la demora es ese percentil de las últimas `window` latencias observadas, recalculado
+ * cada `window / 4` muestras y acotado a [`min-delay`, `max-delay`]. Mientras no haya suficientes
+ * muestras se usa `delay`.
+ *
+ * Las latencias se guardan en un buffer circular sin bloqueos, así registrar una muestra cuesta
+ * una escritura atómica.
+ */
+public class HedgePolicy {
+
+    private final boolean enabled;
+    private final long fixedDelayNanos;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final AtomicLongArray samples;
+    private final AtomicInteger cursor = new AtomicInteger();
+    private volatile long currentDelayNanos;
+
+    public HedgePolicy(boolean enabled, Duration delay, double percentile, Duration minDelay, Duration maxDelay, int window) {
+        this.enabled = enabled;
+        this.fixedDelayNanos = delay.toNanos();
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.samples = new AtomicLongArray(Math.max(window, 16));
+        this.currentDelayNanos = fixedDelayNanos;
+    }
+
+    /**
+     * @return Si se envían solicitudes duplicadas.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return La demora actual antes de enviar el duplicado.
+     */
+    public Duration delay() {
+        return Duration.ofNanos(currentDelayNanos);
+    }
+
+    /**
+     * Registra la latencia de una solicitud que terminó bien.
+     *
+     * @param nanos Latencia en nanosegundos.
+     */
+    public void record(long nanos) {
+        if (!enabled || percentile <= 0) {
+            return;
+        }
+        int n = cursor.getAndIncrement();
+        samples.set(Math.floorMod(n, samples.length()), nanos);
+        int recalculateEvery = samples.length() / 4;
+        if (n % recalculateEvery == 0 && (n >= samples.length() || n < 0)) {
+            recalculate();
+        }
+    }
+
+    private void recalculate() {
+        long[] copy = new long[samples.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = samples.get(i);
+        }
+        Arrays.sort(copy);
+        long value = copy[(int) Math.min(copy.length - 1, Math.ceil(percentile * copy.length) - 1)];
+        currentDelayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, value));
+    }
+}
@@ -0,0 +1,190 @@
+package com.meli.cupon.client;
+
+import com.meli.cupon.metrics.CouponMetrics;
+import com.meli.cupon.model.entity.Item;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Cliente HTTP de la API externa de ítems.
+ * 
+ * Encapsula las llamadas reactivas a la API de ítems usando el **WebClient** compartido definido en 
+ * **WebClientConfig**. Un **404** se traduce en un `Optional` vacío 
+ * para que el llamador pueda distinguir un ítem inexistente de una falla de la API.
+ * 
+ * Las consultas de varios ítems se hacen con una cantidad máxima de solicitudes simultáneas 
+ * (`cupon.items.fetch.concurrency`) y, si la API lo soporta (`cupon.items.multi-get.enabled`), 
+ * agrupando los IDs en lotes de `cupon.items.multi-get.batch-size` con `?ids=a,b,c`.
+ * 
+ * Cada llamada pasa por el **circuit breaker** y el **bulkhead** compartidos de la API de ítems: con 
+ * la API caída las llamadas fallan de inmediato, y la cantidad de llamadas simultáneas está acotada 
+ * para todos los pedidos en conjunto. Si el hedging está habilitado (`item-api.hedge.enabled`), una 
+ * llamada que no respondió tras la demora de **HedgePolicy** se duplica y se usa la primera respuesta.
+ */
+@Component
+public class ItemApiClient {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemApiClient.class);
+
+    @Autowired
+    private WebClient itemApiWebClient;
+
+    @Autowired
+    private CouponMetrics couponMetrics;
+
+    @Autowired
+    private CircuitBreaker itemApiCircuitBreaker;
+
+    @Autowired
+    private Bulkhead itemApiBulkhead;
+
+    @Autowired
+    private HedgePolicy hedgePolicy;
+
+    @Value("${cupon.items.fetch.concurrency:32}")
+    private int concurrency;
+
+    @Value("${cupon.items.multi-get.enabled:false}")
+    private boolean multiGetEnabled;
+
+    @Value("${cupon.items.multi-get.batch-size:50}")
+    private int batchSize;
+
+    /**
+     * Obtiene un ítem por su ID.
+     * 
+     * @param itemId ID del ítem a consultar.
+     * @return Un **Mono** con el ítem, vacío (`Optional.empty()`) si la API respondió 404, o con error 
+     *         si la API falló por otro motivo.
+     */
+    public Mono<Optional<Item>> fetchItem(String itemId) {
+        Mono<Optional<Item>> call = itemApiWebClient.get()
+                .uri("/{id}", itemId)  // El item se pasa en la URL como parámetro
+                .retrieve()
+                .bodyToMono(Item.class)
+                .map(Optional::of)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.just(Optional.empty()));
+        return couponMetrics.timeUpstream("single", hedged("single", call), item -> item.isPresent() ? "found" : "not_found");
+    }
+
+    /**
+     * Obtiene varios ítems con concurrencia acotada.
+     * 
+     * Los IDs que la API informa como inexistentes quedan en el mapa con `Optional.empty()`. Los IDs 
+     * cuya consulta falló (timeout, 5xx, etc.) no se incluyen en el mapa, así una falla puntual no 
+     * invalida al resto de los ítems.
+     * 
+     * @param itemIds IDs de los ítems a consultar.
+     * @return Un **Mono** con el resultado de cada ID que pudo resolverse.
+     */
+    public Mono<Map<String, Optional<Item>>> fetchItems(Collection<? extends String> itemIds) {
+        if (multiGetEnabled) {
+            return Flux.fromIterable(partition(itemIds))
+                    .flatMap(this::fetchBatch, concurrency)
+                    .collect(HashMap::new, Map::putAll);
+        }
+        return Flux.<String>fromIterable(itemIds)
+                .flatMap(itemId -> fetchItem(itemId)
+                        .map(item -> Map.entry(itemId, item))
+                        .onErrorResume(e -> {
+                            log.warn("No se pudo obtener el ítem {}: {}", itemId, e.getMessage());
+                            return Mono.empty();
+                        }), concurrency)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    // Consulta un lote de IDs con una sola llamada; los IDs ausentes en la respuesta no existen
+    private Mono<Map<String, Optional<Item>>> fetchBatch(List<String> itemIds) {
+        Mono<Map<String, Item>> call = itemApiWebClient.get()
+                .uri(uriBuilder -> uriBuilder.queryParam("ids", String.join(",", itemIds)).build())
+                .retrieve()
+                .bodyToFlux(Item.class)
+                .collectMap(Item::getId);
+        return couponMetrics.timeUpstream("batch", hedged("batch", call), found -> "success")
+                .map(found -> {
+                    Map<String, Optional<Item>> result = new HashMap<>();
+                    for (String itemId : itemIds) {
+                        result.put(itemId, Optional.ofNullable(found.get(itemId)));
+                    }
+                    return result;
+                })
+                .onErrorResume(e -> {
+                    log.warn("No se pudo obtener el lote de {} ítems: {}", itemIds.size(), e.getMessage());
+                    return Mono.just(Map.of());
+                });
+    }
+
+    /**
+     * Envía la llamada y, si no respondió tras la demora de hedging, un duplicado; gana la primera 
+     * respuesta exitosa y la otra se cancela. Si la llamada original falla antes de la demora, el 
+     * duplicado no se envía y el error se propaga de inmediato.
+     */
+    private <T> Mono<T> hedged(String mode, Mono<T> call) {
+        Mono<T> attempt = attempt(call);
+        if (!hedgePolicy.isEnabled()) {
+            return attempt;
+        }
+        return Mono.defer(() -> {
+            AtomicReference<Throwable> primaryError = new AtomicReference<>();
+            Sinks.One<Boolean> primaryFailed = Sinks.one();
+            Mono<T> primary = attempt.doOnError(e -> {
+                primaryError.set(e);
+                primaryFailed.tryEmitValue(true);
+            });
+            Mono<T> hedge = Mono.delay(hedgePolicy.delay())
+                    .takeUntilOther(primaryFailed.asMono())
+                    .flatMap(tick -> attempt
+                            .doOnSubscribe(s -> couponMetrics.recordHedge(mode, "sent"))
+                            .doOnNext(value -> couponMetrics.recordHedge(mode, "won")));
+            return Mono.firstWithValue(primary, hedge)
+                    .onErrorMap(NoSuchElementException.class,
+                            e -> primaryError.get() != null ? primaryError.get() : e);
+        });
+    }
+
+    // Cada intento (original o duplicado) ocupa un lugar del bulkhead y cuenta para el circuit breaker
+    private <T> Mono<T> attempt(Mono<T> call) {
+        return Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return call.doOnSuccess(value -> hedgePolicy.record(System.nanoTime() - start));
+                })
+                .transformDeferred(CircuitBreakerOperator.of(itemApiCircuitBreaker))
+                .transformDeferred(BulkheadOperator.of(itemApiBulkhead));
+    }
+
+    private List<List<String>> partition(Collection<? extends String> itemIds) {
+        List<List<String>> batches = new ArrayList<>();
+        List<String> current = new ArrayList<>(batchSize);
+        for (String itemId : itemIds) {
+            current.add(itemId);
+            if (current.size() == batchSize) {
+                batches.add(current);
+                current = new ArrayList<>(batchSize);
+            }
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+}
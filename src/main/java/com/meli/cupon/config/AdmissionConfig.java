@@ -0,0 +1,66 @@
+package com.meli.cupon.config;
+
+import com.meli.cupon.admission.AdaptiveConcurrencyLimiter;
+import com.meli.cupon.admission.AdmissionFilter;
+import com.meli.cupon.admission.AdmissionWebFilter;
+import com.meli.cupon.admission.UserRateLimiter;
+import com.meli.cupon.metrics.CouponMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración del control de admisión de `cupon.admission.paths` (por defecto `/coupon/**`, que 
+ * incluye las estadísticas).
+ * 
+ * Define los dos límites y el filtro que corresponde al stack web activo: **AdmissionFilter** en 
+ * servlet, **AdmissionWebFilter** en el perfil `reactive`. Ambos filtros se ordenan después de 
+ * Spring Security. Se desactiva con `cupon.admission.enabled=false`.
+ */
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+@ConditionalOnProperty(name = "cupon.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionConfig {
+
+    /**
+     * @param properties Propiedades de admisión.
+     * @param couponMetrics Métricas donde se publican el límite y las solicitudes en curso.
+     * @return El límite adaptativo configurado en `cupon.admission.limit.*`.
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(AdmissionProperties properties, CouponMetrics couponMetrics) {
+        AdmissionProperties.Limit limit = properties.getLimit();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(limit.getInitial(), limit.getMin(),
+                limit.getMax(), limit.getBackoffRatio(), limit.getTolerance());
+        couponMetrics.registerAdmission(limiter);
+        return limiter;
+    }
+
+    /**
+     * @param properties Propiedades de admisión.
+     * @return El límite por usuario configurado en `cupon.admission.user.*`.
+     */
+    @Bean
+    public UserRateLimiter userRateLimiter(AdmissionProperties properties) {
+        AdmissionProperties.User user = properties.getUser();
+        return new UserRateLimiter(user.getRate(), user.getBurst(), user.getStripes());
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public AdmissionFilter admissionFilter(AdmissionProperties properties, AdaptiveConcurrencyLimiter limiter,
+                                           UserRateLimiter userRateLimiter, DeadlineProperties deadlineProperties,
+                                           CouponMetrics couponMetrics) {
+        return new AdmissionFilter(properties, limiter, userRateLimiter, deadlineProperties, couponMetrics);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public AdmissionWebFilter admissionWebFilter(AdmissionProperties properties, AdaptiveConcurrencyLimiter limiter,
+                                                 UserRateLimiter userRateLimiter, DeadlineProperties deadlineProperties,
+                                                 CouponMetrics couponMetrics) {
+        return new AdmissionWebFilter(properties, limiter, userRateLimiter, deadlineProperties, couponMetrics);
+    }
+}
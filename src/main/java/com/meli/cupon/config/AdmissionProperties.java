@@ -0,0 +1,89 @@
+package com.meli.cupon.config;
+
+import java.time.Duration;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Propiedades del control de admisión de solicitudes (prefijo `cupon.admission`).
+ * 
+ * Las rutas de `paths` pasan por dos controles antes de llegar al controlador: un límite por 
+ * usuario (`user.*`) y un límite adaptativo de solicitudes en curso (`limit.*`). Lo que excede 
+ * cualquiera de los dos se rechaza con **429** y `Retry-After`.
+ * 
+ * Las rutas de `limit.exclude-paths` (por defecto el lote y el stream, cuya latencia depende del 
+ * tamaño de la entrada y no de la carga) solo pasan por el límite por usuario, para que sus 
+ * latencias no se mezclen con las de las solicitudes individuales.
+ */
+@Data
+@ConfigurationProperties(prefix = "cupon.admission")
+public class AdmissionProperties {
+
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    /** Habilita el control de admisión. */
+    private boolean enabled = true;
+
+    /** Rutas alcanzadas, con patrones Ant. */
+    private List<String> paths = List.of("/coupon/**");
+
+    /** Espera sugerida al rechazar por el límite de solicitudes en curso. */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    private Limit limit = new Limit();
+
+    private User user = new User();
+
+    /**
+     * @param path Ruta de la solicitud, sin el contexto de la aplicación.
+     * @return Si la ruta pasa por el control de admisión.
+     */
+    public boolean applies(String path) {
+        return paths.stream().anyMatch(pattern -> MATCHER.match(pattern, path));
+    }
+
+    /**
+     * @param path Ruta de la solicitud, sin el contexto de la aplicación.
+     * @return Si la ruta pasa por el límite adaptativo de solicitudes en curso.
+     */
+    public boolean limits(String path) {
+        return applies(path) && limit.excludePaths.stream().noneMatch(pattern -> MATCHER.match(pattern, path));
+    }
+
+    @Data
+    public static class Limit {
+
+        /** Solicitudes en curso permitidas al iniciar. */
+        private int initial = 100;
+
+        /** Cota inferior del límite. */
+        private int min = 10;
+
+        /** Cota superior del límite. */
+        private int max = 1000;
+
+        /** Factor por el que se multiplica el límite ante una señal de sobrecarga. */
+        private double backoffRatio = 0.9;
+
+        /** Una latencia mayor a `tolerance` veces la habitual cuenta como sobrecarga. */
+        private double tolerance = 2.0;
+
+        /** Rutas de `paths` que no pasan por este límite, con patrones Ant. */
+        private List<String> excludePaths = List.of("/coupon/batch", "/coupon/stream");
+    }
+
+    @Data
+    public static class User {
+
+        /** Solicitudes por segundo sostenidas por usuario; 0 desactiva el límite por usuario. */
+        private double rate = 50;
+
+        /** Solicitudes que un usuario puede hacer de golpe antes de quedar limitado a `rate`. */
+        private int burst = 100;
+
+        /** Cantidad de contadores (potencia de 2) entre los que se reparten los usuarios. */
+        private int stripes = 16384;
+    }
+}
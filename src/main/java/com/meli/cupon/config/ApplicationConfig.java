@@ -1,8 +1,12 @@
 package com.meli.cupon.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Configuración de la aplicación.
@@ -12,6 +16,7 @@ import org.springframework.web.client.RestTemplate;
  * herramienta de Spring para realizar solicitudes HTTP hacia otros servicios de manera sincrónica.
  */
 @Configuration
+@EnableConfigurationProperties(DeadlineProperties.class)
 public class ApplicationConfig {
 
     /**
@@ -27,4 +32,21 @@ public class ApplicationConfig {
     public RestTemplate restTemplate() {
         return new RestTemplate();
     }
+
+    /**
+     * Define el `Scheduler` acotado en el que se ejecutan las consultas bloqueantes a la base de datos 
+     * (JPA/JDBC) desde flujos reactivos.
+     * 
+     * Limitar los hilos a la cantidad de conexiones del pool evita bloquear los hilos del event loop 
+     * y que las consultas compitan por conexiones que no existen.
+     * 
+     * @param threads Cantidad máxima de hilos (`cupon.jdbc.scheduler.threads`).
+     * @param queueSize Cantidad máxima de tareas en espera (`cupon.jdbc.scheduler.queue-size`).
+     * @return Un `Scheduler` de tipo bounded elastic dedicado a la base de datos.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jdbcScheduler(@Value("${cupon.jdbc.scheduler.threads:10}") int threads,
+                                   @Value("${cupon.jdbc.scheduler.queue-size:10000}") int queueSize) {
+        return Schedulers.newBoundedElastic(threads, queueSize, "jdbc");
+    }
 }
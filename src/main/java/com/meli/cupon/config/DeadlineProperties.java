@@ -0,0 +1,61 @@
+package com.meli.cupon.config;
+
+import com.meli.cupon.model.Deadline;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Propiedades del tiempo límite de las solicitudes de cupones (prefijo `cupon.deadline`).
+ * 
+ * El cliente puede pedir su propio límite en milisegundos con la cabecera `X-Request-Timeout`; si 
+ * no la envía se usa `default-timeout`, y nunca se acepta más que `max-timeout`. Del tiempo 
+ * disponible, `fetch-ratio` se reserva para obtener los ítems y el resto queda para el cálculo.
+ */
+@Data
+@ConfigurationProperties(prefix = "cupon.deadline")
+public class DeadlineProperties {
+
+    public static final String HEADER = "X-Request-Timeout";
+
+    /** Límite cuando la solicitud no trae la cabecera. */
+    private Duration defaultTimeout = Duration.ofSeconds(2);
+
+    /** Límite máximo aceptado desde la cabecera. */
+    private Duration maxTimeout = Duration.ofSeconds(10);
+
+    /** Fracción del límite reservada para obtener los ítems. */
+    private double fetchRatio = 0.8;
+
+    /**
+     * Calcula el límite de una solicitud.
+     * 
+     * @param requestedMillis Valor de la cabecera `X-Request-Timeout`, o `null` si no vino.
+     * @return El **Deadline** de la solicitud.
+     */
+    public Deadline resolve(Long requestedMillis) {
+        if (requestedMillis == null || requestedMillis <= 0) {
+            return Deadline.after(defaultTimeout);
+        }
+        Duration requested = Duration.ofMillis(requestedMillis);
+        return Deadline.after(requested.compareTo(maxTimeout) > 0 ? maxTimeout : requested);
+    }
+
+    /**
+     * Indica si un 504 se debe al plazo que pidió el cliente y no a la carga del servidor.
+     * 
+     * @param requestedMillis Valor crudo de la cabecera `X-Request-Timeout`, o `null` si no vino.
+     * @return Si el cliente pidió un límite válido menor a `default-timeout`.
+     */
+    public boolean isShorterThanDefault(String requestedMillis) {
+        if (requestedMillis == null) {
+            return false;
+        }
+        try {
+            long millis = Long.parseLong(requestedMillis.trim());
+            return millis > 0 && millis < defaultTimeout.toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
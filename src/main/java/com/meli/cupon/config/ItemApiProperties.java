@@ -0,0 +1,81 @@
+package com.meli.cupon.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Propiedades de conexión con la API externa de ítems (prefijo `item-api`).
+ * 
+ * Agrupa la URL base, los timeouts y la configuración del pool de conexiones de Reactor Netty 
+ * utilizado por el **WebClient** compartido de la API de ítems, y la política de solicitudes 
+ * duplicadas (hedging). El circuit breaker y el bulkhead se configuran con las propiedades de 
+ * Resilience4j de la instancia `item-api`.
+ */
+@Data
+@ConfigurationProperties(prefix = "item-api")
+public class ItemApiProperties {
+
+    /** URL base del recurso de ítems, sin barra final. */
+    private String baseUrl = "http://localhost:8080/api/items";
+
+    /** Tiempo máximo para establecer una conexión TCP. */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /** Tiempo máximo de espera de la respuesta una vez enviada la solicitud. */
+    private Duration responseTimeout = Duration.ofSeconds(5);
+
+    /** Negocia HTTP/2 (h2 sobre TLS o h2c en texto plano) con fallback a HTTP/1.1. */
+    private boolean http2 = false;
+
+    private Pool pool = new Pool();
+
+    private Hedge hedge = new Hedge();
+
+    @Data
+    public static class Pool {
+
+        /** Cantidad máxima de conexiones abiertas hacia la API. */
+        private int maxConnections = 200;
+
+        /** Cantidad máxima de solicitudes esperando una conexión libre. */
+        private int pendingAcquireMaxCount = 1000;
+
+        /** Tiempo máximo de espera por una conexión libre. */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+
+        /** Tiempo que una conexión puede permanecer ociosa antes de cerrarse. */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        /** Tiempo de vida máximo de una conexión. */
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        /** Intervalo del desalojo en segundo plano de conexiones vencidas. */
+        private Duration evictInBackground = Duration.ofSeconds(30);
+
+        /** Publica las métricas del pool en Micrometer (`reactor.netty.connection.provider.*`). */
+        private boolean metrics = true;
+    }
+
+    @Data
+    public static class Hedge {
+
+        /** Envía una solicitud duplicada si la primera no respondió después de `delay`. */
+        private boolean enabled = false;
+
+        /** Demora fija antes del duplicado, o inicial si se usa `percentile`. */
+        private Duration delay = Duration.ofMillis(100);
+
+        /** Percentil de latencia observada a usar como demora (por ejemplo 0.95); 0 usa `delay`. */
+        private double percentile = 0;
+
+        /** Cota inferior de la demora calculada por percentil. */
+        private Duration minDelay = Duration.ofMillis(10);
+
+        /** Cota superior de la demora calculada por percentil. */
+        private Duration maxDelay = Duration.ofSeconds(1);
+
+        /** Cantidad de latencias recientes sobre las que se calcula el percentil. */
+        private int window = 1024;
+    }
+}
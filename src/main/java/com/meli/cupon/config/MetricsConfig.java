@@ -0,0 +1,33 @@
+package com.meli.cupon.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meli.cupon.metrics.CouponMetrics;
+import com.meli.cupon.metrics.TimedJackson2HttpMessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Configuración de métricas del stack servlet.
+ * 
+ * Reemplaza el conversor JSON por defecto de Spring Boot por uno que mide la serialización de 
+ * cada respuesta (`cupon.serialize`), usando el mismo `ObjectMapper` autoconfigurado.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class MetricsConfig {
+
+    /**
+     * Define el conversor JSON medido.
+     * 
+     * @param objectMapper `ObjectMapper` de la aplicación.
+     * @param couponMetrics Métricas de cupones.
+     * @return El conversor que usa Spring MVC para leer y escribir JSON.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                 CouponMetrics couponMetrics) {
+        return new TimedJackson2HttpMessageConverter(objectMapper, couponMetrics);
+    }
+}
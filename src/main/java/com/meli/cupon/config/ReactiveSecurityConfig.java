@@ -0,0 +1,74 @@
+package com.meli.cupon.config;
+
+import com.meli.cupon.security.JwtAuthenticationWebFilter;
+import com.meli.cupon.security.JwtTokenProvider;
+import java.util.Arrays;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+/**
+ * Configuración de seguridad para el stack reactivo (perfil `reactive`).
+ * 
+ * Es el equivalente de **SecurityConfig** sobre WebFlux: mismos endpoints públicos, sin CSRF, sin 
+ * sesión (el contexto de seguridad no se guarda entre solicitudes) y autenticación por **JWT** 
+ * mediante **JwtAuthenticationWebFilter**.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    /**
+     * Configura la cadena de filtros de seguridad reactiva.
+     * 
+     * @param http La instancia de `ServerHttpSecurity` que permite configurar la seguridad.
+     * @param jwtTokenProvider Proveedor de tokens JWT.
+     * @return La `SecurityWebFilterChain` de la aplicación.
+     */
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtTokenProvider jwtTokenProvider) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .cors(cors -> cors.configurationSource(reactiveCorsConfigurationSource()))
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchanges ->
+                        exchanges
+                                .pathMatchers("/swagger-ui/**", "/v3/api-docs/**", "/auth/login").permitAll()
+                                // Solo las sondas de salud; las métricas (`/actuator/prometheus`) requieren un token
+                                .pathMatchers("/actuator/health/**").permitAll()
+                                .anyExchange().authenticated()
+                )
+                .addFilterAt(new JwtAuthenticationWebFilter(jwtTokenProvider), SecurityWebFiltersOrder.AUTHENTICATION)
+                .httpBasic(httpBasic -> { })
+                .build();
+    }
+
+    /**
+     * Configura las opciones de CORS, con las mismas políticas que el stack servlet.
+     * 
+     * @return La configuración de CORS que define las políticas de acceso entre dominios.
+     */
+    @Bean
+    public CorsConfigurationSource reactiveCorsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOrigins(Arrays.asList("https://meli-api-coupon.wl.r.appspot.com/"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setAllowCredentials(true);
+        configuration.setMaxAge(3600L);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+
+        return source;
+    }
+}
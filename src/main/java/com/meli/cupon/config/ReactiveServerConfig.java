@@ -0,0 +1,28 @@
+package com.meli.cupon.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración del servidor para el stack reactivo (perfil `reactive`).
+ * 
+ * Como Tomcat también está en el classpath (por `spring-boot-starter-web`), Spring Boot lo elegiría 
+ * para servir la aplicación reactiva a través de un adaptador servlet. Se declara explícitamente el 
+ * servidor **Netty** para que toda la aplicación corra sobre el event loop de punta a punta.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveServerConfig {
+
+    /**
+     * Define la fábrica del servidor web Netty.
+     * 
+     * @return Una instancia de `NettyReactiveWebServerFactory`.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
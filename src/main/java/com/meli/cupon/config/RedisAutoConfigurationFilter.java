@@ -0,0 +1,38 @@
+package com.meli.cupon.config;
+
+import org.springframework.boot.autoconfigure.AutoConfigurationImportFilter;
+import org.springframework.boot.autoconfigure.AutoConfigurationMetadata;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+/**
+ * Descarta la autoconfiguración de Redis de Spring Boot salvo con `cupon.cache.l2.type=redis`.
+ *
+ * Redis solo se usa como caché compartida de ítems (**RedisSharedItemCache**). Con cualquier otro
+ * tipo no se crean el cliente Lettuce, sus hilos ni sus métricas, aunque
+ * `spring-boot-starter-data-redis` (dependencia opcional) esté en el classpath. Se registra en
+ * `META-INF/spring.factories`, ya que se evalúa antes de crear cualquier bean.
+ */
+public class RedisAutoConfigurationFilter implements AutoConfigurationImportFilter, EnvironmentAware {
+
+    private static final String REDIS_AUTO_CONFIGURATION = "org.springframework.boot.autoconfigure.data.redis.";
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public boolean[] match(String[] autoConfigurationClasses, AutoConfigurationMetadata autoConfigurationMetadata) {
+        boolean redis = "redis".equals(environment.getProperty("cupon.cache.l2.type", "none"));
+        boolean[] matches = new boolean[autoConfigurationClasses.length];
+        for (int i = 0; i < autoConfigurationClasses.length; i++) {
+            // Las entradas nulas ya fueron descartadas por otro filtro
+            String candidate = autoConfigurationClasses[i];
+            matches[i] = redis || candidate == null || !candidate.startsWith(REDIS_AUTO_CONFIGURATION);
+        }
+        return matches;
+    }
+}
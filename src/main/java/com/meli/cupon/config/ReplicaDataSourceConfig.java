@@ -0,0 +1,74 @@
+package com.meli.cupon.config;
+
+import com.meli.cupon.metrics.CouponMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Configuración de la réplica de lectura.
+ * 
+ * Se activa con `cupon.datasource.replica.url`. Reemplaza el **DataSource** que arma Spring Boot 
+ * por tres beans:
+ * - `primaryDataSource`: el pool de `spring.datasource.*` (y `spring.datasource.hikari.*`).
+ * - `replicaDataSource`: un pool propio con `cupon.datasource.replica.url`, `username`, `password` 
+ *   y `cupon.datasource.replica.hikari.*`.
+ * - `dataSource` (principal): un **LazyConnectionDataSourceProxy** sobre 
+ *   **ReplicaRoutingDataSource**, que usan JPA, `JdbcTemplate` y Flyway.
+ * 
+ * Las migraciones y las transacciones de escritura siempre van a la primaria; solo 
+ * `@Transactional(readOnly = true)` va a la réplica: la resiembra del ranking de favoritos 
+ * (`FavoriteCounterService.refreshTopK`) y la lectura paginada de los favoritos de un usuario 
+ * (`FavoriteRepository.findItemIdsByUserId`). La réplica arranca sin conectarse y con un tiempo de espera corto, así una réplica caída no impide 
+ * iniciar la aplicación ni demora las consultas más que eso antes de pasar a la primaria.
+ */
+@Configuration
+@ConditionalOnProperty("cupon.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("cupon.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${cupon.datasource.replica.url}") String url,
+                                              @Value("${cupon.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${cupon.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setConnectionTimeout(500);
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 @Value("${cupon.datasource.replica.retry-after:30s}") Duration retryAfter,
+                                 CouponMetrics couponMetrics) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, retryAfter, couponMetrics));
+    }
+}
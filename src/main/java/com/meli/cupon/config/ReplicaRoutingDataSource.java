@@ -0,0 +1,77 @@
+package com.meli.cupon.config;
+
+import com.meli.cupon.metrics.CouponMetrics;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * **DataSource** que envía las transacciones de solo lectura (`@Transactional(readOnly = true)`) a 
+ * la réplica y todo lo demás a la primaria.
+ * 
+ * La decisión se toma al pedir la conexión, por lo que debe usarse detrás de un 
+ * **LazyConnectionDataSourceProxy**: así la conexión se obtiene recién con la primera sentencia, 
+ * cuando la transacción ya marcó si es de solo lectura.
+ * 
+ * Si la réplica no entrega una conexión, se usa la primaria y la réplica no se vuelve a intentar 
+ * durante `retryAfter`, para no pagar el tiempo de espera del pool en cada consulta.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    static final String REPLICA = "replica";
+
+    private final DataSource primary;
+
+    private final DataSource replica;
+
+    private final long retryAfterNanos;
+
+    private final CouponMetrics couponMetrics;
+
+    private volatile long replicaDownUntil = System.nanoTime();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration retryAfter, CouponMetrics couponMetrics) {
+        this.primary = primary;
+        this.replica = replica;
+        this.retryAfterNanos = retryAfter.toNanos();
+        this.couponMetrics = couponMetrics;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return readOnly && System.nanoTime() - replicaDownUntil >= 0 ? REPLICA : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() == PRIMARY) {
+            couponMetrics.recordDataSourceRoute(PRIMARY);
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.getConnection();
+            couponMetrics.recordDataSourceRoute(REPLICA);
+            return connection;
+        } catch (SQLException e) {
+            replicaDownUntil = System.nanoTime() + retryAfterNanos;
+            log.warn("La réplica no está disponible, se usa la primaria: {}", e.getMessage());
+            couponMetrics.recordDataSourceRoute("fallback");
+            return primary.getConnection();
+        }
+    }
+}
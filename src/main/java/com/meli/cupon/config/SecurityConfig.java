@@ -2,7 +2,9 @@ package com.meli.cupon.config;
 
 import com.meli.cupon.security.JwtAuthenticationFilter;
 import com.meli.cupon.security.JwtTokenProvider;
+import jakarta.servlet.DispatcherType;
 import java.util.Arrays;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -23,9 +25,12 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
  * la autenticación y autorización de los usuarios, usando *JWT* para asegurar los endpoints.
  * También se gestiona la política de CORS para permitir que la API sea consumida por otras 
  * aplicaciones de diferentes dominios.
+ * 
+ * Aplica solo al stack servlet; el perfil `reactive` usa **ReactiveSecurityConfig**.
  */
 @Configuration
 @EnableWebSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class SecurityConfig {
 
     /**
@@ -56,7 +61,12 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(authorizeRequests ->
                         authorizeRequests
+                                // La solicitud ya se autorizó al entrar; el despacho asíncrono que completa las 
+                                // respuestas diferidas (como las de `/favorites`) no vuelve a pasar por el filtro JWT
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**","/auth/login").permitAll()
+                                // Solo las sondas de salud; las métricas (`/actuator/prometheus`) requieren un token
+                                .requestMatchers("/actuator/health/**").permitAll()
                                 .anyRequest().authenticated()
                 )
                 .sessionManagement(sessionManagement ->
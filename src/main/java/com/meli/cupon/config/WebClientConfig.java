@@ -1,8 +1,19 @@
 package com.meli.cupon.config;
 
+import com.meli.cupon.client.HedgePolicy;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 /**
  * Configuración de WebClient.
@@ -10,8 +21,17 @@ import org.springframework.web.reactive.function.client.WebClient;
  * Esta clase define el bean `WebClient.Builder` que se utiliza para crear instancias de `WebClient`. 
  * `WebClient` es una alternativa más moderna y no bloqueante a `RestTemplate`, y se usa para hacer 
  * solicitudes HTTP de manera asincrónica.
+ * 
+ * También expone un único `WebClient` para la API de ítems, configurado a partir de 
+ * **ItemApiProperties**, que reutiliza conexiones keep-alive de un pool acotado en lugar de crear 
+ * un cliente nuevo por cada ítem.
+ * 
+ * Las llamadas a la API de ítems comparten un único circuit breaker y un único bulkhead 
+ * (instancia `item-api` de Resilience4j), de modo que una API degradada no acapara las conexiones 
+ * de todos los pedidos en curso.
  */
 @Configuration
+@EnableConfigurationProperties(ItemApiProperties.class)
 public class WebClientConfig {
     
     /**
@@ -23,4 +43,94 @@ public class WebClientConfig {
     public WebClient.Builder webClientBuilder(){
         return WebClient.builder();
     }
+
+    /**
+     * Define el pool de conexiones hacia la API de ítems.
+     * 
+     * Limita las conexiones abiertas y las solicitudes en espera, y desaloja en segundo plano las 
+     * conexiones ociosas o demasiado viejas.
+     * 
+     * @param properties Propiedades de la API de ítems.
+     * @return El `ConnectionProvider` compartido por todas las llamadas a la API de ítems.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider itemApiConnectionProvider(ItemApiProperties properties) {
+        ItemApiProperties.Pool pool = properties.getPool();
+        return ConnectionProvider.builder("item-api")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInBackground())
+                .metrics(pool.isMetrics())
+                .build();
+    }
+
+    /**
+     * Define el circuit breaker de la API de ítems.
+     * 
+     * Se configura con `resilience4j.circuitbreaker.instances.item-api.*` y publica sus métricas 
+     * (`resilience4j.circuitbreaker.*`) en Micrometer.
+     * 
+     * @param circuitBreakerRegistry Registro de circuit breakers de Resilience4j.
+     * @return El circuit breaker compartido por todas las llamadas a la API de ítems.
+     */
+    @Bean
+    public CircuitBreaker itemApiCircuitBreaker(CircuitBreakerRegistry circuitBreakerRegistry) {
+        return circuitBreakerRegistry.circuitBreaker("item-api");
+    }
+
+    /**
+     * Define el bulkhead de la API de ítems: la cantidad máxima de llamadas simultáneas, sumando 
+     * todos los pedidos en curso.
+     * 
+     * Se configura con `resilience4j.bulkhead.instances.item-api.*`. `max-wait-duration` debe ser 0 
+     * porque las llamadas corren sobre los hilos de Netty, que no deben bloquearse.
+     * 
+     * @param bulkheadRegistry Registro de bulkheads de Resilience4j.
+     * @return El bulkhead compartido por todas las llamadas a la API de ítems.
+     */
+    @Bean
+    public Bulkhead itemApiBulkhead(BulkheadRegistry bulkheadRegistry) {
+        return bulkheadRegistry.bulkhead("item-api");
+    }
+
+    /**
+     * Define la política de solicitudes duplicadas (hedging) hacia la API de ítems.
+     * 
+     * @param properties Propiedades de la API de ítems.
+     * @return La política configurada en `item-api.hedge.*`.
+     */
+    @Bean
+    public HedgePolicy itemApiHedgePolicy(ItemApiProperties properties) {
+        ItemApiProperties.Hedge hedge = properties.getHedge();
+        return new HedgePolicy(hedge.isEnabled(), hedge.getDelay(), hedge.getPercentile(),
+                hedge.getMinDelay(), hedge.getMaxDelay(), hedge.getWindow());
+    }
+
+    /**
+     * Define el `WebClient` de la API de ítems.
+     * 
+     * @param webClientBuilder Builder base de `WebClient`.
+     * @param itemApiConnectionProvider Pool de conexiones de la API de ítems.
+     * @param properties Propiedades de la API de ítems.
+     * @return Un `WebClient` con la URL base, los timeouts y el pool configurados.
+     */
+    @Bean
+    public WebClient itemApiWebClient(WebClient.Builder webClientBuilder, ConnectionProvider itemApiConnectionProvider,
+                                      ItemApiProperties properties) {
+        HttpClient httpClient = HttpClient.create(itemApiConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(properties.getResponseTimeout());
+        if (properties.isHttp2()) {
+            HttpProtocol h2 = properties.getBaseUrl().startsWith("https") ? HttpProtocol.H2 : HttpProtocol.H2C;
+            httpClient = httpClient.protocol(h2, HttpProtocol.HTTP11);
+        }
+        return webClientBuilder.clone()
+                .baseUrl(properties.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
 }
@@ -1,14 +1,26 @@
 package com.meli.cupon.controller;
 
+import com.meli.cupon.config.DeadlineProperties;
+import com.meli.cupon.model.Deadline;
+import com.meli.cupon.model.ItemFetchResult;
+import com.meli.cupon.model.response.CuponBatchResult;
 import com.meli.cupon.model.response.CuponRequest;
 import com.meli.cupon.model.response.CuponResponse;
-import com.meli.cupon.model.entity.Item;
+import com.meli.cupon.model.response.FavoriteCuponRequest;
+import com.meli.cupon.service.CuponBatchService;
 import com.meli.cupon.service.CuponService;
+import com.meli.cupon.service.CuponStreamProcessor;
+import com.meli.cupon.service.FavoriteService;
 import com.meli.cupon.service.ItemService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 /**
@@ -19,6 +31,7 @@ import org.springframework.http.ResponseEntity;
  * y recibe una respuesta con los items óptimos para aplicar el cupón.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/coupon")
 public class CuponController {
 
@@ -28,26 +41,107 @@ public class CuponController {
     @Autowired
     private CuponService cuponService;
 
+    @Autowired
+    private CuponBatchService cuponBatchService;
+
+    @Autowired
+    private CuponStreamProcessor cuponStreamProcessor;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private DeadlineProperties deadlineProperties;
+
     /**
      * Endpoint para aplicar un cupón a un conjunto de items.
      * 
      * Este endpoint recibe una solicitud con los IDs de los items y el monto al que se aplica el cupón.
      * Luego, obtiene los detalles de los items desde el servicio de `ItemService` y calcula los items óptimos
-     * para el cupón mediante el servicio `CuponService`.
+     * para el cupón mediante el servicio `CuponService`. Los IDs que no se pudieron obtener se 
+     * informan en `skippedItemIds`.
+     * 
+     * La solicitud tiene un tiempo límite, tomado de la cabecera `X-Request-Timeout` (en milisegundos) 
+     * o del valor por defecto. Si los ítems no se obtienen a tiempo se responde **504**; si el cálculo 
+     * no termina a tiempo se responde la mejor selección encontrada con `optimal` en `false`.
      * 
      * @param request El objeto **CuponRequest** que contiene los IDs de los items y el monto.
+     * @param timeoutMillis Tiempo límite pedido por el cliente, en milisegundos (opcional).
      * @return Un objeto **CuponResponse** con la información de los items óptimos a aplicar para el cupón.
      */
     @PostMapping("/")
-    public ResponseEntity<CuponResponse> applyCoupon(@RequestBody CuponRequest request) {
+    public ResponseEntity<CuponResponse> applyCoupon(@RequestBody CuponRequest request,
+                                                     @RequestHeader(value = DeadlineProperties.HEADER, required = false) Long timeoutMillis) {
         List<String> itemIds = request.getItemIds();
+        Deadline deadline = deadlineProperties.resolve(timeoutMillis);
         
         // Obtiene los items con base en los IDs proporcionados
-        List<Item> items = itemService.getItemsByIds(itemIds).block();
+        ItemFetchResult fetched = itemService.fetchItemsBlocking(itemIds, deadline.portion(deadlineProperties.getFetchRatio()));
         
-        // Calcula los items óptimos para el cupón
-        CuponResponse response = cuponService.calculateOptimalItems(items, request.getAmount());
+        // Calcula los items óptimos para el cupón con el tiempo que queda
+        CuponResponse response = cuponService.calculateOptimalItems(fetched.getItems(), request.getAmount(), deadline);
+        response.setSkippedItemIds(fetched.getSkippedItemIds());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Endpoint para aplicar un cupón a los ítems favoritos de un usuario.
+     * 
+     * Los favoritos se leen de la base por páginas y cada página se consulta a la API de ítems 
+     * apenas se lee, sin que el cliente tenga que listarlos antes. Responde como `POST /coupon/`, 
+     * con el mismo tiempo límite.
+     * 
+     * @param userId ID del usuario.
+     * @param request El objeto **FavoriteCuponRequest** con el monto.
+     * @param timeoutMillis Tiempo límite pedido por el cliente, en milisegundos (opcional).
+     * @return Un objeto **CuponResponse** con los favoritos óptimos a aplicar para el cupón.
+     */
+    @PostMapping("/favorites/{userId}")
+    public ResponseEntity<CuponResponse> applyFavoritesCoupon(@PathVariable Long userId,
+                                                              @RequestBody FavoriteCuponRequest request,
+                                                              @RequestHeader(value = DeadlineProperties.HEADER, required = false) Long timeoutMillis) {
+        Deadline deadline = deadlineProperties.resolve(timeoutMillis);
+        ItemFetchResult fetched = itemService.fetchItems(favoriteService.favoriteItemIds(userId),
+                deadline.portion(deadlineProperties.getFetchRatio())).block();
+        CuponResponse response = cuponService.calculateOptimalItems(fetched.getItems(), request.getAmount(), deadline);
+        response.setSkippedItemIds(fetched.getSkippedItemIds());
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Endpoint para evaluar muchos cupones en una sola solicitud.
+     * 
+     * Los ítems de todos los pedidos se obtienen una única vez y cada cupón se calcula en paralelo. 
+     * La respuesta tiene un resultado por pedido, en el mismo orden; los pedidos que fallan llevan 
+     * el motivo en `error` sin afectar a los demás.
+     * 
+     * @param requests Lista de objetos **CuponRequest**.
+     * @param timeoutMillis Tiempo límite pedido por el cliente para todo el lote, en milisegundos (opcional).
+     * @return Una lista de **CuponBatchResult** en el orden de los pedidos.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<CuponBatchResult>> applyCoupons(@RequestBody List<CuponRequest> requests,
+                                                               @RequestHeader(value = DeadlineProperties.HEADER, required = false) Long timeoutMillis) {
+        Deadline deadline = deadlineProperties.resolve(timeoutMillis);
+        return ResponseEntity.ok(cuponBatchService.evaluate(requests, deadline, deadlineProperties.getFetchRatio()));
+    }
+
+    /**
+     * Endpoint para evaluar un volumen arbitrario de cupones en formato NDJSON.
+     * 
+     * El cuerpo tiene un **CuponRequest** por línea y la respuesta un **CuponBatchResult** por línea, 
+     * en el mismo orden. Los pedidos se leen y se responden por ventanas a medida que llegan, así la 
+     * memoria usada no depende del tamaño del cuerpo. Cada ventana tiene su propio tiempo límite 
+     * (`cupon.stream.window-timeout`), por lo que no aplica `X-Request-Timeout`.
+     * 
+     * @param request Solicitud de la que se lee el cuerpo NDJSON.
+     * @param response Respuesta donde se escriben los resultados.
+     * @throws IOException Si falla la lectura o la escritura, o si una línea no es JSON válido.
+     */
+    @PostMapping(value = "/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamCoupons(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        cuponStreamProcessor.process(request.getInputStream(), response.getOutputStream());
+    }
+
 }
@@ -0,0 +1,84 @@
+package com.meli.cupon.controller;
+
+import com.meli.cupon.model.response.FavoriteRequest;
+import com.meli.cupon.security.JwtTokenProvider;
+import com.meli.cupon.service.FavoriteWriteService;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador para registrar altas y bajas de favoritos.
+ * 
+ * Las escrituras se delegan en **FavoriteWriteService**, que las agrupa en lotes. Con `ack=queued` 
+ * se responde **202 Accepted** apenas la escritura queda encolada; con `ack=durable` se responde 
+ * **200 OK** cuando quedó confirmada en la base. Si no se indica `ack` se usa 
+ * `cupon.favorites.ingest.ack`. Si la cola está llena se responde **503** con `Retry-After`.
+ * 
+ * Cada usuario solo puede modificar sus propios favoritos: si el `userId` del cuerpo no es el del 
+ * token (claim `uid`) se responde **403**.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/favorites")
+public class FavoriteController {
+
+    @Autowired
+    private FavoriteWriteService favoriteWriteService;
+
+    /**
+     * Endpoint para marcar un ítem como favorito de un usuario.
+     * 
+     * @param request El objeto **FavoriteRequest** con el usuario y el ítem.
+     * @param ack Modo de confirmación, `queued` o `durable` (opcional).
+     * @param authentication Usuario autenticado; solo puede modificar sus propios favoritos.
+     * @return La respuesta vacía, cuando corresponde según el modo de confirmación.
+     */
+    @PostMapping
+    public CompletableFuture<ResponseEntity<Void>> addFavorite(@RequestBody FavoriteRequest request,
+                                                               @RequestParam(required = false) String ack,
+                                                               Authentication authentication) {
+        if (request.getUserId() == null || request.getItemId() == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        if (!request.getUserId().equals(JwtTokenProvider.userId(authentication))) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        return respond(favoriteWriteService.add(request.getUserId(), request.getItemId(), ack), ack);
+    }
+
+    /**
+     * Endpoint para quitar un ítem de los favoritos de un usuario.
+     * 
+     * @param request El objeto **FavoriteRequest** con el usuario y el ítem.
+     * @param ack Modo de confirmación, `queued` o `durable` (opcional).
+     * @param authentication Usuario autenticado; solo puede modificar sus propios favoritos.
+     * @return La respuesta vacía, cuando corresponde según el modo de confirmación.
+     */
+    @DeleteMapping
+    public CompletableFuture<ResponseEntity<Void>> removeFavorite(@RequestBody FavoriteRequest request,
+                                                                  @RequestParam(required = false) String ack,
+                                                                  Authentication authentication) {
+        if (request.getUserId() == null || request.getItemId() == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        if (!request.getUserId().equals(JwtTokenProvider.userId(authentication))) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        return respond(favoriteWriteService.remove(request.getUserId(), request.getItemId(), ack), ack);
+    }
+
+    private CompletableFuture<ResponseEntity<Void>> respond(CompletableFuture<Void> written, String ack) {
+        boolean durable = favoriteWriteService.isDurable(ack);
+        return written.thenApply(done -> durable ? ResponseEntity.ok().build() : ResponseEntity.accepted().build());
+    }
+}
@@ -1,10 +1,18 @@
 package com.meli.cupon.controller;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.meli.cupon.cache.ItemPriceCache;
+import com.meli.cupon.model.TopFavoritesSnapshot;
+import com.meli.cupon.model.response.CacheStatsResponse;
 import com.meli.cupon.model.response.FavoriteResponse;
 import com.meli.cupon.service.FavoriteService;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -17,21 +25,63 @@ import org.springframework.web.bind.annotation.RestController;
  * Proporciona un endpoint para obtener los ítems más favoriteados.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/coupon/stats")
 public class StatsController {
     
     @Autowired
     private FavoriteService favoriteService;
+
+    @Autowired
+    private ItemPriceCache itemPriceCache;
+
+    @Value("${cupon.stats.cache.max-age:45s}")
+    private Duration maxAge;
+
+    @Value("${cupon.stats.cache.stale-while-revalidate:60s}")
+    private Duration staleWhileRevalidate;
     
     /**
      * Endpoint para obtener los ítems más populares o favoritos.
      * 
-     * Este endpoint obtiene las estadísticas de los ítems más favoriteados.
+     * Este endpoint obtiene las estadísticas de los ítems más favoriteados a partir del último 
+     * snapshot calculado. La cabecera **Age** indica su antigüedad en segundos.
+     * 
+     * La respuesta lleva el **ETag** del snapshot y `Cache-Control: public` con `max-age` 
+     * (`cupon.stats.cache.max-age`) y `stale-while-revalidate` 
+     * (`cupon.stats.cache.stale-while-revalidate`), para que una CDN o el navegador la reutilicen. 
+     * Si `If-None-Match` coincide con el ETag, Spring responde **304 Not Modified** con las mismas 
+     * cabeceras y sin serializar el cuerpo; el snapshot ya está en memoria, así que tampoco se 
+     * consulta la base. Como **Age** cuenta contra `max-age`, este debe superar el intervalo de 
+     * refresco del snapshot.
      * @return Una lista de **FavoriteResponse** que contiene los ítems favoritos más destacados.
      */
     @GetMapping
     public ResponseEntity<List<FavoriteResponse>> getTopFavorites() {
-        List<FavoriteResponse> topFavorites = favoriteService.getTopFavorites();
-        return ResponseEntity.ok(topFavorites);
+        TopFavoritesSnapshot snapshot = favoriteService.getTopFavoritesSnapshot();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.AGE, String.valueOf(snapshot.getAge().toSeconds()))
+                .eTag(snapshot.getETag())
+                .cacheControl(CacheControl.maxAge(maxAge).cachePublic().staleWhileRevalidate(staleWhileRevalidate))
+                .body(snapshot.getFavorites());
+    }
+
+    /**
+     * Endpoint para obtener los contadores de la caché de ítems.
+     * 
+     * Permite dimensionar la caché observando aciertos, fallos y desalojos.
+     * @return Un objeto **CacheStatsResponse** con las estadísticas acumuladas de la caché.
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<CacheStatsResponse> getItemCacheStats() {
+        CacheStats stats = itemPriceCache.stats();
+        CacheStatsResponse response = new CacheStatsResponse();
+        response.setSize(itemPriceCache.size());
+        response.setHitCount(stats.hitCount());
+        response.setMissCount(stats.missCount());
+        response.setEvictionCount(stats.evictionCount());
+        response.setLoadFailureCount(stats.loadFailureCount());
+        response.setHitRate(stats.hitRate());
+        return ResponseEntity.ok(response);
     }
 }
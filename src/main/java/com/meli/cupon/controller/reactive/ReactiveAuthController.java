@@ -0,0 +1,40 @@
+package com.meli.cupon.controller.reactive;
+
+import com.meli.cupon.model.response.AuthRequest;
+import com.meli.cupon.service.AuthService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controlador reactivo para la autenticación de usuarios (perfil `reactive`).
+ * 
+ * Expone el mismo contrato que **AuthController**. La generación del token es solo CPU, por lo que 
+ * se resuelve directamente sobre el hilo que atiende la solicitud.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/auth")
+public class ReactiveAuthController {
+
+    @Autowired
+    private AuthService authService;
+
+    /**
+     * Endpoint para iniciar sesión en la API.
+     * 
+     * @param authRequest Objeto que contiene las credenciales del usuario (nombre de usuario y contraseña).
+     * @return Un **Mono** con el **token JWT** o una respuesta de error 401 si las credenciales son incorrectas.
+     */
+    @PostMapping("/login")
+    public Mono<ResponseEntity<String>> login(@RequestBody AuthRequest authRequest) {
+        return Mono.fromCallable(() -> authService.login(authRequest.getUsername(), authRequest.getPassword()))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.status(401).build());
+    }
+}
@@ -0,0 +1,134 @@
+package com.meli.cupon.controller.reactive;
+
+import com.meli.cupon.config.DeadlineProperties;
+import com.meli.cupon.model.Deadline;
+import com.meli.cupon.model.response.CuponBatchResult;
+import com.meli.cupon.model.response.CuponRequest;
+import com.meli.cupon.model.response.CuponResponse;
+import com.meli.cupon.model.response.FavoriteCuponRequest;
+import com.meli.cupon.service.CuponBatchService;
+import com.meli.cupon.service.CuponService;
+import com.meli.cupon.service.CuponStreamProcessor;
+import com.meli.cupon.service.FavoriteService;
+import com.meli.cupon.service.ItemService;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Controlador reactivo para la gestión de cupones (perfil `reactive`).
+ * 
+ * Expone el mismo contrato que **CuponController**, pero sin bloquear: la obtención de ítems se 
+ * encadena sobre el flujo reactivo de `ItemService` y el cálculo del cupón se ejecuta en el 
+ * scheduler `parallel` para no ocupar los hilos del event loop con trabajo de CPU. Si un carrito 
+ * idéntico ya se está calculando, la espera de ese resultado tampoco ocupa un hilo `parallel`.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/coupon")
+public class ReactiveCuponController {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private CuponService cuponService;
+
+    @Autowired
+    private CuponBatchService cuponBatchService;
+
+    @Autowired
+    private CuponStreamProcessor cuponStreamProcessor;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private DeadlineProperties deadlineProperties;
+
+    /**
+     * Endpoint para aplicar un cupón a un conjunto de items.
+     * 
+     * Respeta el mismo tiempo límite (`X-Request-Timeout`) que el controlador servlet.
+     * 
+     * @param request El objeto **CuponRequest** que contiene los IDs de los items y el monto.
+     * @param timeoutMillis Tiempo límite pedido por el cliente, en milisegundos (opcional).
+     * @return Un **Mono** con la respuesta **CuponResponse** de los items óptimos a aplicar para el cupón.
+     */
+    @PostMapping("/")
+    public Mono<ResponseEntity<CuponResponse>> applyCoupon(@RequestBody CuponRequest request,
+                                                           @RequestHeader(value = DeadlineProperties.HEADER, required = false) Long timeoutMillis) {
+        Deadline deadline = deadlineProperties.resolve(timeoutMillis);
+        return itemService.fetchItems(request.getItemIds(), deadline.portion(deadlineProperties.getFetchRatio()))
+                .publishOn(Schedulers.parallel())
+                .flatMap(fetched -> cuponService.calculateOptimalItemsReactive(fetched.getItems(), request.getAmount(), deadline)
+                        .map(response -> {
+                            response.setSkippedItemIds(fetched.getSkippedItemIds());
+                            return ResponseEntity.ok(response);
+                        }));
+    }
+
+    /**
+     * Endpoint para aplicar un cupón a los ítems favoritos de un usuario.
+     * 
+     * @param userId ID del usuario.
+     * @param request El objeto **FavoriteCuponRequest** con el monto.
+     * @param timeoutMillis Tiempo límite pedido por el cliente, en milisegundos (opcional).
+     * @return Un **Mono** con la respuesta **CuponResponse** de los favoritos óptimos a aplicar para el cupón.
+     */
+    @PostMapping("/favorites/{userId}")
+    public Mono<ResponseEntity<CuponResponse>> applyFavoritesCoupon(@PathVariable Long userId,
+                                                                    @RequestBody FavoriteCuponRequest request,
+                                                                    @RequestHeader(value = DeadlineProperties.HEADER, required = false) Long timeoutMillis) {
+        Deadline deadline = deadlineProperties.resolve(timeoutMillis);
+        return itemService.fetchItems(favoriteService.favoriteItemIds(userId), deadline.portion(deadlineProperties.getFetchRatio()))
+                .publishOn(Schedulers.parallel())
+                .flatMap(fetched -> cuponService.calculateOptimalItemsReactive(fetched.getItems(), request.getAmount(), deadline)
+                        .map(response -> {
+                            response.setSkippedItemIds(fetched.getSkippedItemIds());
+                            return ResponseEntity.ok(response);
+                        }));
+    }
+
+    /**
+     * Endpoint para evaluar muchos cupones en una sola solicitud.
+     * 
+     * @param requests Lista de objetos **CuponRequest**.
+     * @param timeoutMillis Tiempo límite pedido por el cliente para todo el lote, en milisegundos (opcional).
+     * @return Un **Mono** con un **CuponBatchResult** por pedido, en el mismo orden.
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<List<CuponBatchResult>>> applyCoupons(@RequestBody List<CuponRequest> requests,
+                                                                     @RequestHeader(value = DeadlineProperties.HEADER, required = false) Long timeoutMillis) {
+        Deadline deadline = deadlineProperties.resolve(timeoutMillis);
+        return Mono.fromCallable(() -> cuponBatchService.distinctItemIds(requests))
+                .flatMap(itemIds -> itemService.fetchCatalog(itemIds, deadline.portion(deadlineProperties.getFetchRatio())))
+                .flatMap(catalog -> Mono.fromFuture(() -> cuponBatchService.solveAll(requests, catalog, deadline)))
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Endpoint para evaluar un volumen arbitrario de cupones en formato NDJSON.
+     * 
+     * El cuerpo se decodifica línea por línea y los resultados se escriben a medida que se resuelve 
+     * cada ventana; la contrapresión del cliente frena la lectura del cuerpo.
+     * 
+     * @param requests Los **CuponRequest** del cuerpo, uno por línea.
+     * @return Un **Flux** con un **CuponBatchResult** por pedido, en el mismo orden.
+     */
+    @PostMapping(value = "/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CuponBatchResult> streamCoupons(@RequestBody Flux<CuponRequest> requests) {
+        return cuponStreamProcessor.process(requests);
+    }
+}
@@ -0,0 +1,82 @@
+package com.meli.cupon.controller.reactive;
+
+import com.meli.cupon.model.response.FavoriteRequest;
+import com.meli.cupon.security.JwtTokenProvider;
+import com.meli.cupon.service.FavoriteWriteService;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controlador reactivo para registrar altas y bajas de favoritos (perfil `reactive`).
+ * 
+ * Expone el mismo contrato que **FavoriteController**. Encolar una escritura nunca bloquea, y la 
+ * confirmación durable se espera sin ocupar los hilos del event loop.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/favorites")
+public class ReactiveFavoriteController {
+
+    @Autowired
+    private FavoriteWriteService favoriteWriteService;
+
+    /**
+     * Endpoint para marcar un ítem como favorito de un usuario.
+     * 
+     * @param request El objeto **FavoriteRequest** con el usuario y el ítem.
+     * @param ack Modo de confirmación, `queued` o `durable` (opcional).
+     * @param authentication Usuario autenticado; solo puede modificar sus propios favoritos.
+     * @return Un **Mono** con la respuesta vacía, según el modo de confirmación.
+     */
+    @PostMapping
+    public Mono<ResponseEntity<Void>> addFavorite(@RequestBody FavoriteRequest request,
+                                                  @RequestParam(required = false) String ack,
+                                                  Authentication authentication) {
+        if (request.getUserId() == null || request.getItemId() == null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        if (!request.getUserId().equals(JwtTokenProvider.userId(authentication))) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        return respond(favoriteWriteService.add(request.getUserId(), request.getItemId(), ack), ack);
+    }
+
+    /**
+     * Endpoint para quitar un ítem de los favoritos de un usuario.
+     * 
+     * @param request El objeto **FavoriteRequest** con el usuario y el ítem.
+     * @param ack Modo de confirmación, `queued` o `durable` (opcional).
+     * @param authentication Usuario autenticado; solo puede modificar sus propios favoritos.
+     * @return Un **Mono** con la respuesta vacía, según el modo de confirmación.
+     */
+    @DeleteMapping
+    public Mono<ResponseEntity<Void>> removeFavorite(@RequestBody FavoriteRequest request,
+                                                     @RequestParam(required = false) String ack,
+                                                     Authentication authentication) {
+        if (request.getUserId() == null || request.getItemId() == null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        if (!request.getUserId().equals(JwtTokenProvider.userId(authentication))) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        return respond(favoriteWriteService.remove(request.getUserId(), request.getItemId(), ack), ack);
+    }
+
+    private Mono<ResponseEntity<Void>> respond(CompletableFuture<Void> written, String ack) {
+        ResponseEntity<Void> response = favoriteWriteService.isDurable(ack)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.accepted().build();
+        return Mono.fromFuture(written).thenReturn(response);
+    }
+}
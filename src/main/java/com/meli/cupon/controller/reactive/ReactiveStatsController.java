@@ -0,0 +1,84 @@
+package com.meli.cupon.controller.reactive;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.meli.cupon.cache.ItemPriceCache;
+import com.meli.cupon.model.TopFavoritesSnapshot;
+import com.meli.cupon.model.response.CacheStatsResponse;
+import com.meli.cupon.model.response.FavoriteResponse;
+import com.meli.cupon.service.FavoriteService;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controlador reactivo de estadísticas de favoritos (perfil `reactive`).
+ * 
+ * Expone el mismo contrato que **StatsController**. El ranking se lee del snapshot en memoria de 
+ * **FavoriteService**, por lo que se responde directamente sobre el event loop.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/coupon/stats")
+public class ReactiveStatsController {
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private ItemPriceCache itemPriceCache;
+
+    @Value("${cupon.stats.cache.max-age:45s}")
+    private Duration maxAge;
+
+    @Value("${cupon.stats.cache.stale-while-revalidate:60s}")
+    private Duration staleWhileRevalidate;
+
+    /**
+     * Endpoint para obtener los ítems más populares o favoritos.
+     * 
+     * Lleva las mismas cabeceras de caché y responde **304** ante `If-None-Match` igual que 
+     * **StatsController**.
+     * 
+     * @return Un **Mono** con la lista de **FavoriteResponse** de los ítems favoritos más destacados.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<List<FavoriteResponse>>> getTopFavorites() {
+        return Mono.fromCallable(() -> {
+            TopFavoritesSnapshot snapshot = favoriteService.getTopFavoritesSnapshot();
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.AGE, String.valueOf(snapshot.getAge().toSeconds()))
+                    .eTag(snapshot.getETag())
+                    .cacheControl(CacheControl.maxAge(maxAge).cachePublic().staleWhileRevalidate(staleWhileRevalidate))
+                    .body(snapshot.getFavorites());
+        });
+    }
+
+    /**
+     * Endpoint para obtener los contadores de la caché de ítems.
+     * 
+     * @return Un **Mono** con las estadísticas acumuladas de la caché.
+     */
+    @GetMapping("/cache")
+    public Mono<ResponseEntity<CacheStatsResponse>> getItemCacheStats() {
+        return Mono.fromSupplier(() -> {
+            CacheStats stats = itemPriceCache.stats();
+            CacheStatsResponse response = new CacheStatsResponse();
+            response.setSize(itemPriceCache.size());
+            response.setHitCount(stats.hitCount());
+            response.setMissCount(stats.missCount());
+            response.setEvictionCount(stats.evictionCount());
+            response.setLoadFailureCount(stats.loadFailureCount());
+            response.setHitRate(stats.hitRate());
+            return ResponseEntity.ok(response);
+        });
+    }
+}
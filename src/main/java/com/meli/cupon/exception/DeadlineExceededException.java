@@ -0,0 +1,11 @@
+package com.meli.cupon.exception;
+
+/**
+ * Excepción lanzada cuando una solicitud no pudo completarse dentro de su tiempo límite.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.meli.cupon.exception;
+
+import java.time.Duration;
+
+/**
+ * Excepción lanzada cuando la cola de escrituras de favoritos está llena.
+ * 
+ * Indica cuánto conviene esperar antes de reintentar.
+ */
+public class FavoriteQueueFullException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public FavoriteQueueFullException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -1,6 +1,9 @@
 package com.meli.cupon.exception;
 
 
+import com.meli.cupon.metrics.CouponMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -13,10 +16,16 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
  * Usa la anotación `@RestControllerAdvice` para manejar excepciones de manera global para 
  * los controladores REST. Se utiliza con el fin de proporcionar una respuesta adecuada según el tipo de
  * excepción que ocurra.
+ * 
+ * Cada excepción manejada se cuenta en la métrica `cupon.exceptions`, etiquetada con el tipo de 
+ * excepción y el código HTTP devuelto.
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    @Autowired
+    private CouponMetrics couponMetrics;
+
     /**
      * Maneja excepciones de credenciales inválidas.
      * 
@@ -30,6 +39,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<String> handleBadCredentials(BadCredentialsException ex) {
+        couponMetrics.recordException("BadCredentialsException", HttpStatus.UNAUTHORIZED.value());
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Nombre de usuario o password inválidos.");
     }
     
@@ -43,6 +53,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(ItemNotFoundException.class)
     public ResponseEntity<String> handleItemNotFound(ItemNotFoundException ex) {
+        couponMetrics.recordException("ItemNotFoundException", HttpStatus.NOT_FOUND.value());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Ítem no encontrado: " + ex.getMessage());
     }
     
@@ -56,6 +67,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(FavoriteNotFoundException.class)
     public ResponseEntity<String> handleFavoriteNotFound(FavoriteNotFoundException ex) {
+        couponMetrics.recordException("FavoriteNotFoundException", HttpStatus.NOT_FOUND.value());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Favorito no encontrado: " + ex.getMessage());
     }
     
@@ -69,9 +81,42 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(CuponNotFoundException.class)
     public ResponseEntity<String> handleCuponNotFound(CuponNotFoundException ex) {
+        couponMetrics.recordException("CuponNotFoundException", HttpStatus.BAD_REQUEST.value());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error con el cupón: " + ex.getMessage());
     }
     
+    /**
+     * Maneja la excepción DeadlineExceededException.
+     * 
+     * Devuelve un código de estado 504 (Gateway Timeout) cuando no se pudieron obtener los ítems 
+     * dentro del tiempo límite de la solicitud.
+     * 
+     * @param ex La excepción lanzada cuando se agota el tiempo límite.
+     * @return Un mensaje con el detalle del error.
+     */
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<String> handleDeadlineExceeded(DeadlineExceededException ex) {
+        couponMetrics.recordException("DeadlineExceededException", HttpStatus.GATEWAY_TIMEOUT.value());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body("Tiempo de espera agotado: " + ex.getMessage());
+    }
+    
+    /**
+     * Maneja la excepción FavoriteQueueFullException.
+     * 
+     * Devuelve un código de estado 503 (Service Unavailable) con la cabecera `Retry-After`, en 
+     * segundos, para que el cliente reintente cuando la cola de favoritos se haya vaciado.
+     * 
+     * @param ex La excepción lanzada cuando la cola de escrituras de favoritos está llena.
+     * @return Un mensaje con el detalle del error.
+     */
+    @ExceptionHandler(FavoriteQueueFullException.class)
+    public ResponseEntity<String> handleFavoriteQueueFull(FavoriteQueueFullException ex) {
+        couponMetrics.recordException("FavoriteQueueFullException", HttpStatus.SERVICE_UNAVAILABLE.value());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body("Servicio saturado: " + ex.getMessage());
+    }
+    
     /**
      * Maneja excepciones generales.
      * 
@@ -82,6 +127,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleGeneralException(Exception ex) {
+        couponMetrics.recordException("Exception", HttpStatus.INTERNAL_SERVER_ERROR.value());
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error inesperado: " + ex.getMessage());
     }
     
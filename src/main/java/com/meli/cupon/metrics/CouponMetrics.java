@@ -0,0 +1,306 @@
+package com.meli.cupon.metrics;
+
+import com.meli.cupon.admission.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Métricas de las etapas del cálculo de cupones.
+ *
+ * Centraliza los nombres y etiquetas de los medidores para que todas las etapas se publiquen con
+ * el mismo criterio en `/actuator/prometheus`:
+ * - `cupon.fetch`: obtención de todos los ítems de un pedido (caché + API).
+ * - `cupon.item.upstream`: cada llamada a la API de ítems, por modo (`single` o `batch`).
+ * - `cupon.item.hedge`: solicitudes duplicadas enviadas y ganadas, por modo.
+ * - `cupon.solve`: selección de ítems, por estrategia.
+ * - `cupon.serialize`: escritura JSON de la respuesta, por tipo.
+ * - `cupon.stats.query`: recarga del ranking de favoritos desde la base (las lecturas del snapshot 
+ *   son una lectura de memoria y no se miden).
+ * - `cupon.cart.size` y `cupon.budget`: tamaño del carrito y monto de cada cálculo.
+ * - `cupon.items.skipped` y `cupon.exceptions`: ítems descartados y excepciones manejadas.
+ * - `cupon.items.mirror`: ítems buscados en la tabla `items`, por resultado (`fresh`, `stale`, `miss`).
+ * - `cupon.admission.limit`, `cupon.admission.inflight` y `cupon.admission.rejected`: límite adaptativo 
+ *   de solicitudes en curso, solicitudes en curso y rechazos con 429, por motivo (`limit`, `user`).
+ * - `cupon.datasource.route`: conexiones pedidas a la base, por destino (`primary`, `replica`, `fallback`).
+ * - `cupon.favorites.queue`, `cupon.favorites.flush` y `cupon.favorites.writes`: escrituras de 
+ *   favoritos pendientes, y lotes y escrituras aplicados en la base, por resultado.
+ *
+ * Las etiquetas toman siempre valores de un conjunto fijo (nunca IDs de ítems ni mensajes), así la
+ * cantidad de series se mantiene acotada. Los histogramas de percentiles se habilitan por
+ * configuración con `management.metrics.distribution.percentiles-histogram.cupon`. El endpoint 
+ * pide el mismo token JWT que el resto de la API (`Authorization: Bearer ...`).
+ */
+@Component
+public class CouponMetrics {
+
+    private final MeterRegistry registry;
+
+    private final DistributionSummary cartSize;
+
+    private final DistributionSummary budget;
+
+    private final Counter skippedItems;
+
+    public CouponMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.cartSize = DistributionSummary.builder("cupon.cart.size")
+                .description("Cantidad de ítems de cada cálculo de cupón")
+                .baseUnit("items")
+                .register(registry);
+        this.budget = DistributionSummary.builder("cupon.budget")
+                .description("Monto de cada cálculo de cupón")
+                .register(registry);
+        this.skippedItems = Counter.builder("cupon.items.skipped")
+                .description("Ítems descartados por no poder obtenerse")
+                .baseUnit("items")
+                .register(registry);
+    }
+
+    /**
+     * Mide la obtención de los ítems de un pedido, desde la suscripción hasta el resultado.
+     *
+     * @param fetch Flujo que obtiene los ítems.
+     * @return El mismo flujo, medido en `cupon.fetch`.
+     */
+    public <T> Mono<T> timeFetch(Mono<T> fetch) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return fetch
+                    .doOnSuccess(result -> recordFetch(System.nanoTime() - start, "success"))
+                    .doOnError(e -> recordFetch(System.nanoTime() - start, "error"));
+        });
+    }
+
+    /**
+     * Registra una obtención de ítems medida por fuera de un flujo reactivo.
+     *
+     * @param nanos Duración en nanosegundos.
+     * @param outcome `success` o `error`.
+     */
+    public void recordFetch(long nanos, String outcome) {
+        Timer.builder("cupon.fetch")
+                .description("Obtención de los ítems de un pedido")
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Mide una llamada a la API de ítems.
+     *
+     * @param mode `single` o `batch`.
+     * @param call Llamada a medir.
+     * @param outcome Traduce el resultado a una etiqueta de un conjunto fijo (por ejemplo `found`).
+     * @return La misma llamada, medida en `cupon.item.upstream`.
+     */
+    public <T> Mono<T> timeUpstream(String mode, Mono<T> call, Function<T, String> outcome) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call
+                    .doOnSuccess(result -> recordUpstream(mode, result == null ? "empty" : outcome.apply(result),
+                            System.nanoTime() - start))
+                    .doOnError(e -> recordUpstream(mode, "error", System.nanoTime() - start));
+        });
+    }
+
+    private void recordUpstream(String mode, String outcome, long nanos) {
+        Timer.builder("cupon.item.upstream")
+                .description("Latencia de cada llamada a la API de ítems")
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra una solicitud duplicada (hedge) a la API de ítems.
+     *
+     * @param mode `single` o `batch`.
+     * @param result `sent` al enviarla, `won` si respondió antes que la original.
+     */
+    public void recordHedge(String mode, String result) {
+        Counter.builder("cupon.item.hedge")
+                .description("Solicitudes duplicadas a la API de ítems")
+                .tag("mode", mode)
+                .tag("result", result)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Registra la duración de una selección de ítems.
+     *
+     * @param strategy Estrategia utilizada.
+     * @param optimal Si la selección es óptima.
+     * @param nanos Duración en nanosegundos.
+     */
+    public void recordSolve(String strategy, boolean optimal, long nanos) {
+        Timer.builder("cupon.solve")
+                .description("Selección de los ítems del cupón")
+                .tag("strategy", strategy)
+                .tag("optimal", String.valueOf(optimal))
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra la escritura JSON de una respuesta.
+     *
+     * @param type Nombre simple de la clase serializada.
+     * @param nanos Duración en nanosegundos.
+     */
+    public void recordSerialize(String type, long nanos) {
+        Timer.builder("cupon.serialize")
+                .description("Escritura JSON de las respuestas")
+                .tag("type", type)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra una recarga del ranking de favoritos.
+     *
+     * @param source Origen de la recarga (`database`).
+     * @param nanos Duración en nanosegundos.
+     */
+    public void recordStatsQuery(String source, long nanos) {
+        Timer.builder("cupon.stats.query")
+                .description("Recarga del ranking de favoritos")
+                .tag("source", source)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra el tamaño del carrito y el monto de un cálculo.
+     *
+     * @param items Cantidad de ítems del carrito.
+     * @param amount Monto del cupón.
+     */
+    public void recordCart(int items, double amount) {
+        cartSize.record(items);
+        budget.record(amount);
+    }
+
+    /**
+     * Registra los ítems descartados de un pedido.
+     *
+     * @param count Cantidad de ítems descartados.
+     */
+    public void recordSkipped(int count) {
+        if (count > 0) {
+            skippedItems.increment(count);
+        }
+    }
+
+    /**
+     * Registra el resultado de buscar ítems en el espejo local.
+     *
+     * @param fresh Ítems servidos desde la tabla.
+     * @param stale Ítems encontrados pero vencidos.
+     * @param miss Ítems que no estaban en la tabla.
+     */
+    public void recordMirror(int fresh, int stale, int miss) {
+        incrementMirror("fresh", fresh);
+        incrementMirror("stale", stale);
+        incrementMirror("miss", miss);
+    }
+
+    private void incrementMirror(String result, int count) {
+        if (count > 0) {
+            Counter.builder("cupon.items.mirror")
+                    .description("Ítems buscados en el espejo local de precios")
+                    .baseUnit("items")
+                    .tag("result", result)
+                    .register(registry)
+                    .increment(count);
+        }
+    }
+
+    /**
+     * Publica el límite adaptativo y las solicitudes en curso del control de admisión.
+     *
+     * @param limiter Límite de solicitudes en curso.
+     */
+    public void registerAdmission(AdaptiveConcurrencyLimiter limiter) {
+        registry.gauge("cupon.admission.limit", limiter, AdaptiveConcurrencyLimiter::limit);
+        registry.gauge("cupon.admission.inflight", limiter, AdaptiveConcurrencyLimiter::inFlight);
+    }
+
+    /**
+     * Registra una solicitud rechazada por el control de admisión.
+     *
+     * @param reason `limit` (límite de solicitudes en curso) o `user` (límite por usuario).
+     */
+    public void recordAdmissionRejected(String reason) {
+        Counter.builder("cupon.admission.rejected")
+                .description("Solicitudes rechazadas con 429 por el control de admisión")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Registra a qué base se pidió una conexión.
+     *
+     * @param target `primary`, `replica`, o `fallback` si la réplica no respondió y se usó la primaria.
+     */
+    public void recordDataSourceRoute(String target) {
+        Counter.builder("cupon.datasource.route")
+                .description("Conexiones pedidas a la base, por destino")
+                .tag("target", target)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Publica la cantidad de escrituras de favoritos pendientes.
+     *
+     * @param queue Cola de escrituras.
+     */
+    public void registerFavoriteQueue(Collection<?> queue) {
+        registry.gauge("cupon.favorites.queue", queue, Collection::size);
+    }
+
+    /**
+     * Registra un lote de escrituras de favoritos.
+     *
+     * @param size Cantidad de escrituras del lote.
+     * @param outcome `success` o `error`.
+     * @param nanos Duración en nanosegundos.
+     */
+    public void recordFavoriteFlush(int size, String outcome, long nanos) {
+        Timer.builder("cupon.favorites.flush")
+                .description("Escritura de un lote de favoritos en la base")
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        Counter.builder("cupon.favorites.writes")
+                .description("Escrituras de favoritos aplicadas en la base")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment(size);
+    }
+
+    /**
+     * Registra una excepción manejada por **GlobalExceptionHandler**.
+     *
+     * @param exception Tipo de excepción, tomado de un conjunto fijo.
+     * @param status Código HTTP devuelto.
+     */
+    public void recordException(String exception, int status) {
+        Counter.builder("cupon.exceptions")
+                .description("Excepciones manejadas por GlobalExceptionHandler")
+                .tag("exception", exception)
+                .tag("status", String.valueOf(status))
+                .register(registry)
+                .increment();
+    }
+}
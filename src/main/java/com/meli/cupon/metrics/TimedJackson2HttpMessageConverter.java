@@ -0,0 +1,35 @@
+package com.meli.cupon.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Conversor JSON que mide cuánto tarda en escribir cada respuesta.
+ *
+ * La medición incluye la escritura sobre el buffer de salida del servidor, que es el costo real de
+ * serializar una respuesta grande. Se etiqueta con el nombre simple de la clase serializada.
+ */
+public class TimedJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final CouponMetrics couponMetrics;
+
+    public TimedJackson2HttpMessageConverter(ObjectMapper objectMapper, CouponMetrics couponMetrics) {
+        super(objectMapper);
+        this.couponMetrics = couponMetrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            couponMetrics.recordSerialize(object.getClass().getSimpleName(), System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.meli.cupon.model;
+
+import com.meli.cupon.model.entity.Item;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Carrito en formato columnar para el cálculo del cupón.
+ *
+ * Guarda los IDs y los precios en dos arreglos paralelos, con los precios ya convertidos a
+ * **centavos** (`long`). Se arma una sola vez a partir de los ítems obtenidos; desde ahí la
+ * selección y los totales trabajan sobre primitivos, sin objetos por ítem ni sumas en `double`
+ * (donde, por ejemplo, `0.1 + 0.2` no da `0.3`). Los montos se vuelven a `double` solo al armar la
+ * respuesta, con {@link #toAmount(long)}.
+ *
+ * Los arreglos no se copian: quien recibe {@link #cents()} no debe modificarlo.
+ */
+public final class Cart {
+
+    private final String[] ids;
+    private final long[] cents;
+
+    private Cart(String[] ids, long[] cents) {
+        this.ids = ids;
+        this.cents = cents;
+    }
+
+    /**
+     * @param items Ítems del carrito, con precio.
+     * @return El carrito con los precios convertidos a centavos, en el mismo orden.
+     */
+    public static Cart of(List<Item> items) {
+        int n = items.size();
+        String[] ids = new String[n];
+        long[] cents = new long[n];
+        for (int i = 0; i < n; i++) {
+            Item item = items.get(i);
+            ids[i] = item.getId();
+            cents[i] = toCents(item.getPrice());
+        }
+        return new Cart(ids, cents);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    /**
+     * @return Los precios en centavos; la posición identifica al ítem.
+     */
+    public long[] cents() {
+        return cents;
+    }
+
+    public String id(int index) {
+        return ids[index];
+    }
+
+    /**
+     * @param indices Posiciones de ítems del carrito.
+     * @return Los IDs de esas posiciones, en el mismo orden.
+     */
+    public List<String> ids(int[] indices) {
+        List<String> selected = new ArrayList<>(indices.length);
+        for (int i : indices) {
+            selected.add(ids[i]);
+        }
+        return selected;
+    }
+
+    /**
+     * Convierte un precio a centavos, redondeando al centavo más cercano.
+     */
+    public static long toCents(double price) {
+        return Math.round(price * 100);
+    }
+
+    /**
+     * Convierte un monto disponible a centavos, redondeando hacia abajo para no excederlo nunca. La
+     * tolerancia absorbe representaciones como `0.29 * 100 = 28.999999999999996`.
+     */
+    public static long budgetCents(double amount) {
+        return (long) Math.floor(amount * 100 + 1e-6);
+    }
+
+    /**
+     * Convierte centavos al monto en `double` de la respuesta. Como la división se hace una sola vez
+     * sobre un total exacto, el resultado es el `double` más cercano al monto real.
+     */
+    public static double toAmount(long cents) {
+        return cents / 100.0;
+    }
+}
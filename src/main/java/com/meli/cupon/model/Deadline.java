@@ -0,0 +1,66 @@
+package com.meli.cupon.model;
+
+import java.time.Duration;
+
+/**
+ * Instante límite para terminar de atender una solicitud.
+ * 
+ * Se mide con `System.nanoTime()`, por lo que no le afectan los cambios del reloj del sistema. 
+ * {@link #none()} representa una solicitud sin límite.
+ */
+public final class Deadline {
+
+    private static final Deadline NONE = new Deadline(0, false);
+
+    private final long deadlineNanos;
+    private final boolean bounded;
+
+    private Deadline(long deadlineNanos, boolean bounded) {
+        this.deadlineNanos = deadlineNanos;
+        this.bounded = bounded;
+    }
+
+    /**
+     * @param timeout Tiempo disponible desde ahora.
+     * @return Un límite que vence dentro de `timeout`.
+     */
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos(), true);
+    }
+
+    /**
+     * @return Un límite que nunca vence.
+     */
+    public static Deadline none() {
+        return NONE;
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    public boolean isExpired() {
+        return bounded && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * @return El tiempo que falta hasta el límite (nunca negativo), o `null` si no hay límite.
+     */
+    public Duration remaining() {
+        if (!bounded) {
+            return null;
+        }
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * Reserva una fracción del tiempo restante para una etapa de la solicitud.
+     * 
+     * @param ratio Fracción del tiempo restante, entre 0 y 1.
+     * @return El tiempo asignado a la etapa, o `null` si no hay límite.
+     */
+    public Duration portion(double ratio) {
+        Duration remaining = remaining();
+        return remaining == null ? null : Duration.ofNanos((long) (remaining.toNanos() * ratio));
+    }
+}
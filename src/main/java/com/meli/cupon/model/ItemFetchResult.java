@@ -0,0 +1,22 @@
+package com.meli.cupon.model;
+
+import com.meli.cupon.model.entity.Item;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Resultado de obtener los ítems de un carrito.
+ * 
+ * Contiene los ítems que se pudieron resolver, en el orden en que fueron solicitados, y los IDs 
+ * que se descartaron por no existir o porque la API de ítems no pudo responder.
+ */
+@Data
+@AllArgsConstructor
+public class ItemFetchResult {
+
+    private List<Item> items;
+
+    private List<String> skippedItemIds;
+
+}
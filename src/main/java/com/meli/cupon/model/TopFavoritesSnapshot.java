@@ -0,0 +1,69 @@
+package com.meli.cupon.model;
+
+import com.meli.cupon.model.response.FavoriteResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Foto inmutable del ranking de ítems favoritos.
+ * 
+ * La `version` solo cambia cuando cambia el contenido del ranking; `generatedAt` indica cuándo se 
+ * verificó por última vez contra la base de datos.
+ * 
+ * El `eTag` identifica el contenido de la versión y se calcula una sola vez al crear la foto. Se 
+ * deriva del ranking y no del número de versión, que cuenta por instancia: así todas las 
+ * instancias detrás de un balanceador o una CDN dan el mismo ETag para el mismo ranking.
+ */
+public final class TopFavoritesSnapshot {
+
+    private final List<FavoriteResponse> favorites;
+    private final Instant generatedAt;
+    private final long version;
+    private final String eTag;
+
+    public TopFavoritesSnapshot(List<FavoriteResponse> favorites, Instant generatedAt, long version) {
+        this.favorites = List.copyOf(favorites);
+        this.generatedAt = generatedAt;
+        this.version = version;
+        this.eTag = eTag(this.favorites);
+    }
+
+    public List<FavoriteResponse> getFavorites() {
+        return favorites;
+    }
+
+    public Instant getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return Un ETag fuerte (entre comillas) del ranking.
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * Devuelve la antigüedad de la foto.
+     * 
+     * @return El tiempo transcurrido desde que se generó.
+     */
+    public Duration getAge() {
+        return Duration.between(generatedAt, Instant.now());
+    }
+
+    private static String eTag(List<FavoriteResponse> favorites) {
+        CRC32C checksum = new CRC32C();
+        for (FavoriteResponse favorite : favorites) {
+            checksum.update((favorite.getId() + '=' + favorite.getQuantity() + '\n').getBytes(StandardCharsets.UTF_8));
+        }
+        return "\"" + Long.toHexString(checksum.getValue()) + "-" + favorites.size() + "\"";
+    }
+}
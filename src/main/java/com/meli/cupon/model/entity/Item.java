@@ -1,8 +1,10 @@
 package com.meli.cupon.model.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import jakarta.persistence.*;
 import java.io.Serializable;
+import java.time.LocalDateTime;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 
@@ -12,6 +14,9 @@ import jakarta.validation.constraints.Pattern;
  * Esta clase mapea la información de un item a la tabla `items` en la base de datos, que incluye 
  * un **ID** y el **precio** del item. La validación asegura que tanto el ID como el precio no 
  * sean nulos.
+ * 
+ * La tabla funciona como espejo local de la API de ítems: `updatedAt` (UTC) indica cuándo se 
+ * guardó el precio por última vez y no forma parte del JSON.
  */
 @Data
 @Entity
@@ -25,4 +30,8 @@ public class Item implements Serializable{
     @NotNull(message = "El precio no puede ser nulo.")
     private Double price;
 
+    @JsonIgnore
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
 }
@@ -0,0 +1,28 @@
+package com.meli.cupon.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import lombok.Data;
+
+/**
+ * Entidad que representa la cantidad de veces que un ítem fue marcado como favorito.
+ * 
+ * Mapea la tabla `item_favorite_counts`, un agregado de la tabla `favorites` que se actualiza 
+ * cuando cambian los favoritos y se reconstruye periódicamente, para no tener que agrupar toda 
+ * la tabla de favoritos en cada consulta de estadísticas.
+ */
+@Data
+@Entity
+@Table(name = "item_favorite_counts")
+public class ItemFavoriteCount implements Serializable {
+
+    @Id
+    @Column(name = "item_id")
+    private String itemId;
+
+    private long quantity;
+
+}
@@ -0,0 +1,13 @@
+package com.meli.cupon.model.response;
+
+import lombok.Data;
+
+@Data
+public class CacheStatsResponse {
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long loadFailureCount;
+    private double hitRate;
+}
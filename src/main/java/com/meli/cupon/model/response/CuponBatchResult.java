@@ -0,0 +1,11 @@
+package com.meli.cupon.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CuponBatchResult {
+    private CuponResponse response;
+    private String error;
+}
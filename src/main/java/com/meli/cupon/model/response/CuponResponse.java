@@ -7,4 +7,6 @@ import lombok.Data;
 public class CuponResponse {
     private List<String> itemIds;
     private double total;
+    private List<String> skippedItemIds;
+    private boolean optimal;
 }
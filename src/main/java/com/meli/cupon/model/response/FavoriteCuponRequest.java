@@ -0,0 +1,8 @@
+package com.meli.cupon.model.response;
+
+import lombok.Data;
+
+@Data
+public class FavoriteCuponRequest {
+    private double amount;
+}
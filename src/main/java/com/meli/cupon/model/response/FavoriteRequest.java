@@ -0,0 +1,9 @@
+package com.meli.cupon.model.response;
+
+import lombok.Data;
+
+@Data
+public class FavoriteRequest {
+    private Long userId;
+    private String itemId;
+}
@@ -3,30 +3,37 @@ package com.meli.cupon.repository;
 import com.meli.cupon.model.Favorite;
 import com.meli.cupon.model.FavoriteId;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repositorio para gestionar las operaciones relacionadas con los favoritos.
  * 
  * Este repositorio extiende **JpaRepository** y se utiliza para acceder a los datos de la tabla `favorite`.
- * Contiene una consulta personalizada para obtener los ítems más populares basados en la cantidad de veces que 
- * un ítem ha sido marcado como favorito.
+ * El ranking de favoritos no se calcula aquí sino desde el agregado de **ItemFavoriteCountRepository**.
  */
 public interface FavoriteRepository extends JpaRepository<Favorite, FavoriteId> {
     /**
-     * Consulta personalizada para obtener los ítems más populares basados en la cantidad de veces que
-     * han sido marcados como favoritos.
+     * Obtiene una página de los IDs de ítems favoritos de un usuario, ordenados por ID.
      * 
-     * Esta consulta devuelve un listado de objetos, donde cada objeto contiene el **ID** del item 
-     * y la cantidad de veces que ha sido marcado como favorito. Los resultados son ordenados por la 
-     * cantidad de favoritos en orden descendente.
+     * Pagina por clave (keyset): cada página empieza después del último ID de la anterior, así 
+     * leer la página `n` no recorre las `n - 1` anteriores como lo haría un `OFFSET`. Solo lee 
+     * columnas del índice `idx_favorites_user_item`, sin tocar las filas ni armar entidades.
      * 
-     * @return Una lista de arrays de objetos donde el primer elemento es el ID del item y el segundo es la cantidad.
+     * Es de solo lectura, así que con una réplica configurada se ejecuta en ella.
+     * 
+     * @param userId ID del usuario.
+     * @param afterItemId Último ID de la página anterior, o `""` para la primera.
+     * @param page Tamaño de la página (se usa solo el tamaño, siempre desde el primer resultado).
+     * @return Los IDs de la página, en orden ascendente.
      */
-    @Query("SELECT f.id.itemId, COUNT(f) AS quantity " +
+    @Transactional(readOnly = true)
+    @Query("SELECT f.id.itemId " +
            "FROM Favorite f " +
-           "GROUP BY f.id.itemId " +
-           "ORDER BY quantity DESC")
-    List<Object[]> findTopFavorites();
+           "WHERE f.id.userId = :userId AND f.id.itemId > :afterItemId " +
+           "ORDER BY f.id.itemId")
+    List<String> findItemIdsByUserId(@Param("userId") Long userId, @Param("afterItemId") String afterItemId, Pageable page);
 }
@@ -0,0 +1,52 @@
+package com.meli.cupon.repository;
+
+import com.meli.cupon.model.entity.ItemFavoriteCount;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repositorio del agregado de favoritos por ítem (`item_favorite_counts`).
+ * 
+ * Permite actualizar los contadores de forma incremental, leer los más altos por índice y 
+ * reconstruir el agregado completo a partir de la tabla `favorites`.
+ */
+public interface ItemFavoriteCountRepository extends JpaRepository<ItemFavoriteCount, String> {
+
+    /**
+     * Obtiene los ítems con más favoritos, ordenados por cantidad en orden descendente.
+     * 
+     * @param pageable Cantidad de resultados a devolver.
+     * @return Los contadores más altos.
+     */
+    List<ItemFavoriteCount> findAllByOrderByQuantityDesc(Pageable pageable);
+
+    /**
+     * Suma `delta` al contador de un ítem, creándolo si no existe.
+     * 
+     * @param itemId ID del ítem.
+     * @param delta Cantidad a sumar (negativa para restar).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO item_favorite_counts (item_id, quantity) VALUES (:itemId, GREATEST(:delta, 0)) " +
+                   "ON DUPLICATE KEY UPDATE quantity = GREATEST(quantity + :delta, 0)", nativeQuery = true)
+    void increment(@Param("itemId") String itemId, @Param("delta") long delta);
+
+    /**
+     * Elimina todos los contadores.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM item_favorite_counts", nativeQuery = true)
+    void deleteAllCounts();
+
+    /**
+     * Recalcula todos los contadores a partir de la tabla `favorites`.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO item_favorite_counts (item_id, quantity) " +
+                   "SELECT item_id, COUNT(*) FROM favorites GROUP BY item_id", nativeQuery = true)
+    void rebuildFromFavorites();
+}
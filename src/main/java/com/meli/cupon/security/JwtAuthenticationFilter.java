@@ -33,7 +33,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      * 
      * Si la solicitud contiene un token JWT válido en la cabecera **Authorization** (con el prefijo 
      * "Bearer "), el filtro valida el token y extrae la información del usuario, estableciendo la 
-     * autenticación en el contexto de seguridad.
+     * autenticación en el contexto de seguridad. La verificación se hace una sola vez por token 
+     * gracias a la caché de **JwtTokenProvider**.
      * 
      * @param request La solicitud HTTP entrante.
      * @param response La respuesta HTTP que se enviará.
@@ -50,12 +51,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7); //
 
-            if (jwtTokenProvider.validateToken(token)) {
-                String username = jwtTokenProvider.getUsername(token);
-                Authentication auth = jwtTokenProvider.getAuthentication(username);
-                if (auth != null) {
-                    SecurityContextHolder.getContext().setAuthentication(auth);
-                }
+            Authentication auth = jwtTokenProvider.authenticate(token);
+            if (auth != null) {
+                SecurityContextHolder.getContext().setAuthentication(auth);
             }
         }
 
@@ -0,0 +1,48 @@
+package com.meli.cupon.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Filtro de autenticación basado en JWT para el stack reactivo (WebFlux).
+ * 
+ * Es el equivalente de **JwtAuthenticationFilter**: si la cabecera **Authorization** contiene un 
+ * token JWT válido, la autenticación se publica en el contexto reactivo de seguridad de la solicitud.
+ */
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private final JwtTokenProvider jwtTokenProvider;
+
+    public JwtAuthenticationWebFilter(JwtTokenProvider jwtTokenProvider) {
+        this.jwtTokenProvider = jwtTokenProvider;
+    }
+
+    /**
+     * Filtra cada solicitud para verificar la validez del token JWT.
+     * 
+     * @param exchange El intercambio HTTP entrante.
+     * @param chain La cadena de filtros.
+     * @return Un **Mono** que completa cuando termina el resto de la cadena.
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (header != null && header.startsWith("Bearer ")) {
+            String token = header.substring(7);
+
+            Authentication auth = jwtTokenProvider.authenticate(token);
+            if (auth != null) {
+                return chain.filter(exchange)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth));
+            }
+        }
+
+        return chain.filter(exchange);
+    }
+}
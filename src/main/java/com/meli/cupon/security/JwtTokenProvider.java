@@ -1,14 +1,24 @@
 package com.meli.cupon.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 
@@ -18,18 +28,57 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
  * Esta clase se encarga de la creación, validación y extracción de información de los tokens JWT. 
  * El proveedor utiliza una **clave secreta** para firmar y verificar la validez de los tokens, 
  * así como para extraer el nombre de usuario del token.
+ * 
+ * Como los clientes reutilizan el mismo token durante toda su validez, las autenticaciones ya 
+ * verificadas se guardan en una caché acotada (`jwt.cache.maximum-size`), indexada por el hash 
+ * SHA-256 del token y vigente hasta el vencimiento (`exp`) del propio token.
+ * 
+ * El token del usuario configurado lleva además su ID (`jwt.user-id`) en el claim `uid`, que queda 
+ * en los detalles de la autenticación; las escrituras de favoritos solo se aceptan para ese ID.
  */
 @Component
 public class JwtTokenProvider {
 
     private static final String SECRET_KEY = "your_secret_key";
     private static final long VALIDITY_IN_MILLISECONDS = 3600000;
+    private static final String USER_ID_CLAIM = "uid";
 
     @Value("${jwt.username}")
     private String username;
 
     @Value("${jwt.password}")
     private String password;
+
+    @Value("${jwt.user-id:1}")
+    private Long userId;
+
+    @Value("${jwt.cache.maximum-size:10000}")
+    private long cacheMaximumSize;
+
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    public void initCache() {
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.expiresAt - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
     
     /**
      * Crea un token JWT basado en el nombre de usuario.
@@ -40,6 +89,7 @@ public class JwtTokenProvider {
     public String createToken(String username) {
         return Jwts.builder()
                 .setSubject(username)
+                .claim(USER_ID_CLAIM, username.equals(this.username) ? userId : null)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + VALIDITY_IN_MILLISECONDS))
                 .signWith(SignatureAlgorithm.HS256, SECRET_KEY)
@@ -86,17 +136,78 @@ public class JwtTokenProvider {
         }
     }
 
+    /**
+     * Verifica la firma y vigencia de un token JWT parseándolo una sola vez.
+     * 
+     * @param token El token JWT a verificar.
+     * @return Los **Claims** del token, o **null** si ha expirado o es incorrecto.
+     */
+    public Claims parseClaims(String token) {
+        try {
+            return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Obtiene la autenticación asociada a un token JWT.
+     * 
+     * Si el token ya fue verificado y no venció, devuelve la autenticación cacheada sin volver a 
+     * verificar la firma. Si no, lo verifica una única vez y cachea el resultado hasta su `exp`.
+     * 
+     * @param token El token JWT recibido.
+     * @return Un objeto **Authentication**, o **null** si el token es inválido o ha expirado.
+     */
+    public Authentication authenticate(String token) {
+        String key = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+            return cached.authentication;
+        }
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            return null;
+        }
+        UsernamePasswordAuthenticationToken authentication = getAuthentication(claims.getSubject());
+        authentication.setDetails(claims.get(USER_ID_CLAIM, Long.class));
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(key, new VerifiedToken(authentication, claims.getExpiration().getTime()));
+        }
+        return authentication;
+    }
+
     /**
      * Obtiene la autenticación del usuario a partir del token JWT.
      * 
      * @param username El nombre de usuario para crear una autenticación.
      * @return Un objeto **Authentication** con los roles del usuario.
      */
-    public Authentication getAuthentication(String username) {
+    public UsernamePasswordAuthenticationToken getAuthentication(String username) {
             UserDetails userDetails = User.withUsername(username)
                 .authorities(new SimpleGrantedAuthority("USER"))
                 .password("")
                 .build();
             return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
     }
-}
\ No newline at end of file
+
+    /**
+     * @param authentication Autenticación obtenida de un token, o `null`.
+     * @return El ID de usuario del token (claim `uid`), o `null` si no lo tiene.
+     */
+    public static Long userId(Authentication authentication) {
+        return authentication != null && authentication.getDetails() instanceof Long id ? id : null;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private record VerifiedToken(Authentication authentication, long expiresAt) {
+    }
+}
@@ -0,0 +1,156 @@
+package com.meli.cupon.service;
+
+import com.meli.cupon.exception.CuponNotFoundException;
+import com.meli.cupon.model.Deadline;
+import com.meli.cupon.model.ItemFetchResult;
+import com.meli.cupon.model.entity.Item;
+import com.meli.cupon.model.response.CuponBatchResult;
+import com.meli.cupon.model.response.CuponRequest;
+import com.meli.cupon.model.response.CuponResponse;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Servicio que evalúa muchos cupones en una sola operación.
+ * 
+ * Junta los IDs de todos los pedidos y obtiene cada ítem distinto **una sola vez**; luego resuelve 
+ * cada cupón en paralelo sobre un `ForkJoinPool` propio (`cupon.batch.parallelism` hilos, por 
+ * defecto uno por procesador) y devuelve los resultados en el mismo orden que los pedidos.
+ * 
+ * Un pedido que falla (sin ítems, ítems faltantes con la política `fail`, etc.) no invalida al 
+ * resto: su posición lleva el mensaje en `error`.
+ */
+@Service
+public class CuponBatchService {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private CuponService cuponService;
+
+    @Value("${cupon.batch.max-size:1000}")
+    private int maxSize;
+
+    private final ForkJoinPool pool;
+
+    public CuponBatchService(@Value("${cupon.batch.parallelism:0}") int parallelism) {
+        // Pool propio para no competir con el common pool ni con el executor de tareas de Spring
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Evalúa un lote de cupones bloqueando el hilo actual.
+     * 
+     * @param requests Pedidos del lote.
+     * @param deadline Tiempo límite de todo el lote.
+     * @param fetchRatio Fracción del tiempo reservada para obtener los ítems.
+     * @return Un resultado por pedido, en el mismo orden.
+     * @throws CuponNotFoundException Si el lote está vacío o supera `cupon.batch.max-size`.
+     */
+    public List<CuponBatchResult> evaluate(List<CuponRequest> requests, Deadline deadline, double fetchRatio) {
+        List<String> itemIds = distinctItemIds(requests);
+        Map<String, Optional<Item>> catalog = itemService.fetchCatalogBlocking(itemIds, deadline.portion(fetchRatio));
+        return await(solveAll(requests, catalog, deadline));
+    }
+
+    /**
+     * Espera el resultado de {@link #solveAll(List, Map, Deadline)} bloqueando el hilo actual.
+     * 
+     * @param results Futuro devuelto por `solveAll`.
+     * @return Un resultado por pedido, en el mismo orden.
+     */
+    static List<CuponBatchResult> await(CompletableFuture<List<CuponBatchResult>> results) {
+        try {
+            return results.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CuponNotFoundException("Se interrumpió la evaluación del lote.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CuponNotFoundException("Error al evaluar el lote: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * @return La cantidad máxima de pedidos por lote (`cupon.batch.max-size`).
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Valida el lote y devuelve la unión de los IDs de todos sus pedidos, sin repetidos.
+     * 
+     * @param requests Pedidos del lote.
+     * @return Los IDs distintos, en orden de aparición.
+     * @throws CuponNotFoundException Si el lote está vacío o supera `cupon.batch.max-size`.
+     */
+    public List<String> distinctItemIds(List<CuponRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new CuponNotFoundException("El lote no contiene pedidos.");
+        }
+        if (requests.size() > maxSize) {
+            throw new CuponNotFoundException("El lote supera el máximo de " + maxSize + " pedidos.");
+        }
+        Set<String> itemIds = new LinkedHashSet<>();
+        for (CuponRequest request : requests) {
+            if (request.getItemIds() != null) {
+                itemIds.addAll(request.getItemIds());
+            }
+        }
+        return new ArrayList<>(itemIds);
+    }
+
+    /**
+     * Resuelve cada pedido del lote en paralelo sobre el pool del servicio, a partir de ítems ya 
+     * obtenidos.
+     * 
+     * @param requests Pedidos del lote.
+     * @param catalog Ítems obtenidos para la unión de los pedidos.
+     * @param deadline Tiempo límite del cálculo.
+     * @return Un futuro con un resultado por pedido, en el mismo orden.
+     */
+    public CompletableFuture<List<CuponBatchResult>> solveAll(List<CuponRequest> requests,
+                                                              Map<String, Optional<Item>> catalog, Deadline deadline) {
+        // Un stream paralelo lanzado desde una tarea del pool se reparte en ese mismo pool
+        return CompletableFuture.supplyAsync(() -> IntStream.range(0, requests.size())
+                .parallel()
+                .mapToObj(i -> solve(requests.get(i), catalog, deadline))
+                .collect(Collectors.toList()), pool);
+    }
+
+    private CuponBatchResult solve(CuponRequest request, Map<String, Optional<Item>> catalog, Deadline deadline) {
+        CuponBatchResult result = new CuponBatchResult();
+        try {
+            List<String> itemIds = request.getItemIds() == null ? List.of() : request.getItemIds();
+            ItemFetchResult fetched = itemService.select(itemIds, catalog);
+            CuponResponse response = cuponService.calculateOptimalItems(fetched.getItems(), request.getAmount(), deadline);
+            response.setSkippedItemIds(fetched.getSkippedItemIds());
+            result.setResponse(response);
+        } catch (RuntimeException e) {
+            result.setError(e.getMessage());
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
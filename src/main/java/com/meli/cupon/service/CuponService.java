@@ -1,59 +1,183 @@
 package com.meli.cupon.service;
 
+import com.meli.cupon.cache.CuponResultCache;
 import com.meli.cupon.exception.CuponNotFoundException;
+import com.meli.cupon.metrics.CouponMetrics;
+import com.meli.cupon.model.Cart;
+import com.meli.cupon.model.Deadline;
 import com.meli.cupon.model.response.CuponResponse;
 import com.meli.cupon.model.entity.Item;
-import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.Comparator;
+import com.meli.cupon.service.solver.CuponSolver;
+import com.meli.cupon.service.solver.Selection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 /**
  * Servicio encargado de calcular la mejor combinación de ítems para aplicar un cupón.
  * 
- * Esta clase se encarga de seleccionar los ítems más baratos dentro de un presupuesto, 
+ * Esta clase se encarga de seleccionar los ítems que maximizan el gasto dentro de un presupuesto, 
  * garantizando que el total no exceda el monto disponible. Además, devuelve la lista de 
  * ítems seleccionados y el total gastado.
+ * 
+ * El algoritmo de selección se elige con la propiedad `cupon.solver.strategy` (`knapsack` por 
+ * defecto, o `greedy`), lo que permite comparar ambas estrategias.
+ * 
+ * Con un **Deadline** el cálculo no se extiende más allá del tiempo límite: la respuesta trae la 
+ * mejor selección encontrada y `optimal` indica si está garantizada como óptima.
+ * 
+ * Si **CuponResultCache** está habilitada (`cupon.memo.enabled`), los carritos idénticos (mismos 
+ * ítems, precios, monto y estrategia) reutilizan el resultado ya calculado. El stack reactivo usa 
+ * {@link #calculateOptimalItemsReactive}, que espera un cálculo idéntico en curso sin bloquear.
  */
 @Service
 public class CuponService {
+
+    @Autowired
+    private Map<String, CuponSolver> solvers;
+
+    @Autowired
+    private CouponMetrics couponMetrics;
+
+    @Autowired(required = false)
+    private CuponResultCache cuponResultCache;
+
+    @Value("${cupon.solver.strategy:knapsack}")
+    private String defaultStrategy;
     
     /**
-     * Calcula los ítems óptimos que pueden ser comprados dentro de un monto.
-     * 
-     * Ordena los ítems por precio, seleccionando aquellos cuya suma no exceda el monto disponible.
+     * Calcula los ítems óptimos que pueden ser comprados dentro de un monto usando la estrategia 
+     * configurada por defecto.
      * 
      * @param items Lista de ítems disponibles para la compra.
      * @param amount El monto total disponible para gastar.
      * @return Una respuesta con los ítems seleccionados y el total gastado.
      */
     public CuponResponse calculateOptimalItems(List<Item> items, double amount) {
+        return calculateOptimalItems(items, amount, defaultStrategy);
+    }
+
+    /**
+     * Calcula los ítems óptimos que pueden ser comprados dentro de un monto, sin tiempo límite.
+     * 
+     * @param items Lista de ítems disponibles para la compra.
+     * @param amount El monto total disponible para gastar.
+     * @param strategy Nombre de la estrategia a utilizar (`knapsack` o `greedy`).
+     * @return Una respuesta con los ítems seleccionados y el total gastado.
+     */
+    public CuponResponse calculateOptimalItems(List<Item> items, double amount, String strategy) {
+        return calculateOptimalItems(items, amount, strategy, Deadline.none());
+    }
+
+    /**
+     * Calcula los ítems óptimos usando la estrategia configurada por defecto, dentro de un tiempo límite.
+     * 
+     * @param items Lista de ítems disponibles para la compra.
+     * @param amount El monto total disponible para gastar.
+     * @param deadline Tiempo límite del cálculo.
+     * @return Una respuesta con los ítems seleccionados, el total gastado y si el resultado es óptimo.
+     */
+    public CuponResponse calculateOptimalItems(List<Item> items, double amount, Deadline deadline) {
+        return calculateOptimalItems(items, amount, defaultStrategy, deadline);
+    }
+
+    /**
+     * Calcula los ítems óptimos que pueden ser comprados dentro de un monto y de un tiempo límite.
+     * 
+     * Arma el **Cart** con los precios en centavos y delega en 
+     * {@link #calculateOptimalItems(Cart, double, String, Deadline)}.
+     * 
+     * @param items Lista de ítems disponibles para la compra.
+     * @param amount El monto total disponible para gastar.
+     * @param strategy Nombre de la estrategia a utilizar (`knapsack` o `greedy`).
+     * @param deadline Tiempo límite del cálculo.
+     * @return Una respuesta con los ítems seleccionados, el total gastado y si el resultado es óptimo.
+     */
+    public CuponResponse calculateOptimalItems(List<Item> items, double amount, String strategy, Deadline deadline) {
         if (items.isEmpty()) {
             throw new CuponNotFoundException("No se han encontrado ítems para aplicar el cupón.");
         }
-        else{
-            // Ordena los ítems por precio (de menor a mayor)
-        items.sort(Comparator.comparingDouble(Item::getPrice));
-        
-        List<String> selectedItems = new ArrayList<>();
-        for (Item i : items) {
+        return calculateOptimalItems(Cart.of(items), amount, strategy, deadline);
+    }
+
+    /**
+     * Calcula los ítems óptimos de un carrito ya convertido a centavos.
+     * 
+     * Convierte el monto a centavos y delega la selección en la estrategia indicada; todo el cálculo 
+     * y el total se hacen en enteros y solo se pasan a `double` al armar la respuesta. Si el tiempo 
+     * se agota, la estrategia devuelve la mejor selección que encontró.
+     * 
+     * @param cart Carrito con los IDs y precios de los ítems.
+     * @param amount El monto total disponible para gastar.
+     * @param strategy Nombre de la estrategia a utilizar (`knapsack` o `greedy`).
+     * @param deadline Tiempo límite del cálculo.
+     * @return Una respuesta con los ítems seleccionados, el total gastado y si el resultado es óptimo.
+     */
+    public CuponResponse calculateOptimalItems(Cart cart, double amount, String strategy, Deadline deadline) {
+        CuponSolver solver = solver(cart, strategy);
+        couponMetrics.recordCart(cart.size(), amount);
+        long budget = Cart.budgetCents(amount);
+        if (cuponResultCache == null) {
+            return solve(cart, budget, strategy, solver, deadline);
         }
-        double totalSpent = 0.0;
-        // Recorre los ítems y selecciona aquellos que se puedan pagar sin exceder el monto disponible
-        for (Item item : items) {
-            if (totalSpent + item.getPrice() <= amount) {
-                selectedItems.add(item.getId());
-                totalSpent += item.getPrice();
+        return cuponResultCache.get(cart, strategy, budget, deadline, () -> solve(cart, budget, strategy, solver, deadline));
+    }
+
+    /**
+     * Calcula los ítems óptimos usando la estrategia configurada por defecto, sin bloquear el hilo 
+     * que se suscribe mientras espera un cálculo idéntico en curso.
+     * 
+     * El cálculo propio se ejecuta en el hilo que se suscribe, así que debe ser uno apto para 
+     * trabajo de CPU (por ejemplo, del scheduler `parallel`).
+     * 
+     * @param items Lista de ítems disponibles para la compra.
+     * @param amount El monto total disponible para gastar.
+     * @param deadline Tiempo límite del cálculo.
+     * @return Un **Mono** con los ítems seleccionados, el total gastado y si el resultado es óptimo.
+     */
+    public Mono<CuponResponse> calculateOptimalItemsReactive(List<Item> items, double amount, Deadline deadline) {
+        return Mono.defer(() -> {
+            if (items.isEmpty()) {
+                return Mono.error(new CuponNotFoundException("No se han encontrado ítems para aplicar el cupón."));
             }
+            Cart cart = Cart.of(items);
+            CuponSolver solver = solver(cart, defaultStrategy);
+            couponMetrics.recordCart(cart.size(), amount);
+            long budget = Cart.budgetCents(amount);
+            Supplier<CuponResponse> solve = () -> solve(cart, budget, defaultStrategy, solver, deadline);
+            if (cuponResultCache == null) {
+                return Mono.fromSupplier(solve);
+            }
+            return cuponResultCache.getReactive(cart, defaultStrategy, budget, deadline, solve);
+        });
+    }
+
+    // Valida el carrito y devuelve la estrategia pedida
+    private CuponSolver solver(Cart cart, String strategy) {
+        if (cart.isEmpty()) {
+            throw new CuponNotFoundException("No se han encontrado ítems para aplicar el cupón.");
+        }
+        CuponSolver solver = solvers.get(strategy);
+        if (solver == null) {
+            throw new CuponNotFoundException("Estrategia de cálculo desconocida: " + strategy);
         }
-        
+        return solver;
+    }
+
+    private CuponResponse solve(Cart cart, long budget, String strategy, CuponSolver solver, Deadline deadline) {
+        long start = System.nanoTime();
+        Selection selection = solver.solve(cart.cents(), budget, deadline);
+        couponMetrics.recordSolve(strategy, selection.isOptimal(), System.nanoTime() - start);
+
         // Crea y devuelve la respuesta con los ítems seleccionados y el total gastado
         CuponResponse response = new CuponResponse();
-        response.setItemIds(selectedItems);
-        response.setTotal(totalSpent);
+        response.setItemIds(cart.ids(selection.getIndices()));
+        response.setTotal(Cart.toAmount(selection.getTotal()));
+        response.setOptimal(selection.isOptimal());
         return response;
-        }
     }
 }
@@ -0,0 +1,178 @@
+package com.meli.cupon.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.meli.cupon.config.DeadlineProperties;
+import com.meli.cupon.model.Deadline;
+import com.meli.cupon.model.entity.Item;
+import com.meli.cupon.model.response.CuponBatchResult;
+import com.meli.cupon.model.response.CuponRequest;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Servicio que evalúa cupones leídos como NDJSON (un **CuponRequest** por línea) y escribe un
+ * **CuponBatchResult** por línea, en el mismo orden.
+ *
+ * Los pedidos se leen de a uno con el parser de Jackson y se procesan en ventanas de
+ * `cupon.stream.window-size` pedidos: cada ventana se resuelve como un lote de
+ * **CuponBatchService** (los ítems de la ventana se obtienen una sola vez) con su propio tiempo
+ * límite `cupon.stream.window-timeout`. Mientras se resuelve una ventana se lee y se obtienen los
+ * ítems de la siguiente, y no se lee una tercera hasta escribir la primera; así nunca hay más de dos
+ * ventanas en memoria, sin importar el tamaño de la entrada.
+ *
+ * Si no se pueden obtener los ítems de una ventana, todos sus pedidos llevan el motivo en `error`
+ * y el proceso sigue con la siguiente. Una línea que no es JSON válido corta el proceso, ya que no
+ * hay forma segura de resincronizar el parser.
+ */
+@Service
+public class CuponStreamProcessor {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private CuponBatchService cuponBatchService;
+
+    @Autowired
+    private DeadlineProperties deadlineProperties;
+
+    @Value("${cupon.stream.window-size:256}")
+    private int windowSize;
+
+    @Value("${cupon.stream.window-timeout:30s}")
+    private Duration windowTimeout;
+
+    private final ObjectReader reader;
+
+    private final ObjectWriter writer;
+
+    public CuponStreamProcessor(ObjectMapper objectMapper) {
+        this.reader = objectMapper.readerFor(CuponRequest.class)
+                .without(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        this.writer = objectMapper.writerFor(CuponBatchResult.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Verifica que una ventana completa no supere el tamaño máximo de lote; si no, todas las 
+     * ventanas fallarían.
+     */
+    @PostConstruct
+    public void validate() {
+        if (windowSize > cuponBatchService.getMaxSize()) {
+            throw new IllegalStateException("cupon.stream.window-size (" + windowSize
+                    + ") no puede superar cupon.batch.max-size (" + cuponBatchService.getMaxSize() + ")");
+        }
+    }
+
+    /**
+     * Procesa un flujo NDJSON completo bloqueando el hilo actual.
+     *
+     * Los resultados se escriben y se vuelcan (`flush`) al terminar cada ventana. Ninguno de los dos
+     * flujos se cierra.
+     *
+     * @param in Entrada con un **CuponRequest** por línea.
+     * @param out Salida donde se escribe un **CuponBatchResult** por línea.
+     * @return La cantidad de pedidos procesados.
+     * @throws IOException Si falla la lectura o la escritura, o si una línea no es JSON válido.
+     */
+    public long process(InputStream in, OutputStream out) throws IOException {
+        long processed = 0;
+        try (MappingIterator<CuponRequest> requests = reader.readValues(in);
+             JsonGenerator generator = writer.createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            CompletableFuture<List<CuponBatchResult>> pending = null;
+            List<CuponRequest> window;
+            while (!(window = nextWindow(requests)).isEmpty()) {
+                // La ventana siguiente se obtiene mientras la anterior todavía se está resolviendo
+                CompletableFuture<List<CuponBatchResult>> next = solve(window);
+                if (pending != null) {
+                    processed += write(generator, CuponBatchService.await(pending));
+                }
+                pending = next;
+            }
+            if (pending != null) {
+                processed += write(generator, CuponBatchService.await(pending));
+            }
+        }
+        return processed;
+    }
+
+    /**
+     * Variante reactiva de {@link #process(InputStream, OutputStream)}: la demanda de quien consume
+     * los resultados regula cuántas ventanas se piden a la entrada.
+     *
+     * @param requests Pedidos a evaluar, por ejemplo decodificados de un cuerpo NDJSON.
+     * @return Un **Flux** con un resultado por pedido, en el mismo orden.
+     */
+    public Flux<CuponBatchResult> process(Flux<CuponRequest> requests) {
+        return requests.buffer(windowSize)
+                .concatMap(window -> {
+                    Deadline deadline = Deadline.after(windowTimeout);
+                    // Dentro del Mono: si la ventana no es válida, solo sus pedidos llevan el error
+                    return Mono.fromCallable(() -> cuponBatchService.distinctItemIds(window))
+                            .flatMap(itemIds -> itemService.fetchCatalog(itemIds, deadline.portion(deadlineProperties.getFetchRatio())))
+                            .flatMap(catalog -> Mono.fromFuture(() -> cuponBatchService.solveAll(window, catalog, deadline)))
+                            .onErrorResume(RuntimeException.class, e -> Mono.just(failed(window, e)));
+                }, 1)
+                .flatMapIterable(results -> results);
+    }
+
+    private List<CuponRequest> nextWindow(MappingIterator<CuponRequest> requests) throws IOException {
+        List<CuponRequest> window = new ArrayList<>(windowSize);
+        while (window.size() < windowSize && requests.hasNextValue()) {
+            window.add(requests.nextValue());
+        }
+        return window;
+    }
+
+    private CompletableFuture<List<CuponBatchResult>> solve(List<CuponRequest> window) {
+        Deadline deadline = Deadline.after(windowTimeout);
+        try {
+            Map<String, Optional<Item>> catalog = itemService.fetchCatalogBlocking(
+                    cuponBatchService.distinctItemIds(window), deadline.portion(deadlineProperties.getFetchRatio()));
+            return cuponBatchService.solveAll(window, catalog, deadline);
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(failed(window, e));
+        }
+    }
+
+    private int write(JsonGenerator generator, List<CuponBatchResult> results) throws IOException {
+        for (CuponBatchResult result : results) {
+            writer.writeValue(generator, result);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+        return results.size();
+    }
+
+    private static List<CuponBatchResult> failed(List<CuponRequest> window, RuntimeException e) {
+        List<CuponBatchResult> results = new ArrayList<>(window.size());
+        for (int i = 0; i < window.size(); i++) {
+            CuponBatchResult result = new CuponBatchResult();
+            result.setError(e.getMessage());
+            results.add(result);
+        }
+        return results;
+    }
+}
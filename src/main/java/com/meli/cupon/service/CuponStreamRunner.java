@@ -0,0 +1,68 @@
+package com.meli.cupon.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ejecuta **CuponStreamProcessor** sobre archivos al iniciar la aplicación, para simulaciones
+ * fuera de línea.
+ *
+ * Se activa con `cupon.stream.input` (un archivo NDJSON, o `-` para la entrada estándar); los
+ * resultados van a `cupon.stream.output` (`-` por defecto, la salida estándar). Al terminar cierra
+ * la aplicación, por lo que conviene correrlo sin servidor web:
+ *
+ * `java -jar cupon.jar --spring.main.web-application-type=none --cupon.stream.input=carts.ndjson --cupon.stream.output=results.ndjson`
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty("cupon.stream.input")
+public class CuponStreamRunner implements ApplicationRunner {
+
+    private static final String STANDARD_STREAM = "-";
+
+    @Autowired
+    private CuponStreamProcessor cuponStreamProcessor;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Value("${cupon.stream.input}")
+    private String input;
+
+    @Value("${cupon.stream.output:-}")
+    private String output;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long start = System.nanoTime();
+        long processed;
+        InputStream in = STANDARD_STREAM.equals(input) ? System.in : Files.newInputStream(Path.of(input));
+        OutputStream out = STANDARD_STREAM.equals(output) ? System.out : Files.newOutputStream(Path.of(output));
+        try {
+            processed = cuponStreamProcessor.process(new BufferedInputStream(in), new BufferedOutputStream(out));
+        } finally {
+            // La entrada y salida estándar quedan abiertas para el resto del proceso
+            if (in != System.in) {
+                in.close();
+            }
+            if (out != System.out) {
+                out.close();
+            }
+        }
+        log.info("Se procesaron {} pedidos de {} en {} ms", processed, input, (System.nanoTime() - start) / 1_000_000);
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
@@ -0,0 +1,185 @@
+package com.meli.cupon.service;
+
+import com.meli.cupon.model.entity.ItemFavoriteCount;
+import com.meli.cupon.repository.ItemFavoriteCountRepository;
+import com.meli.cupon.stats.TopKSketch;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Servicio que mantiene los contadores de favoritos por ítem.
+ * 
+ * Cada lote de altas y bajas de **FavoriteWriteService** actualiza el agregado 
+ * `item_favorite_counts` y un **TopKSketch** en memoria, de modo que obtener el ranking no requiere 
+ * agrupar la tabla `favorites`.
+ * 
+ * Como cada instancia solo ve sus propias escrituras, el sketch se vuelve a sembrar con los 
+ * contadores más altos del agregado compartido cada vez que **FavoriteService** refresca su 
+ * snapshot, y el agregado se reconstruye desde la tabla `favorites` con menor frecuencia 
+ * (`cupon.favorites.reconcile-interval`) para corregir cualquier desvío.
+ * 
+ * La reconstrucción reescribe el agregado completo, así que corre en una sola instancia por vez: 
+ * la que toma el turno `favorites-reconcile` de **ScheduledLockService**. El turno se libera recién 
+ * a mitad del intervalo, para que las demás instancias no repitan la reconstrucción apenas termina.
+ */
+@Service
+public class FavoriteCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(FavoriteCounterService.class);
+
+    static final String RECONCILE_LOCK = "favorites-reconcile";
+
+    @Autowired
+    private ItemFavoriteCountRepository itemFavoriteCountRepository;
+
+    @Autowired
+    private ScheduledLockService scheduledLockService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${cupon.favorites.reconcile-interval:PT6H}")
+    private Duration reconcileInterval;
+
+    @Value("${cupon.favorites.reconcile-lock-timeout:PT1H}")
+    private Duration reconcileLockTimeout;
+
+    private final int capacity;
+
+    private final TopKSketch sketch;
+
+    public FavoriteCounterService(@Value("${cupon.favorites.top-k.capacity:1000}") int capacity) {
+        this.capacity = capacity;
+        this.sketch = new TopKSketch(capacity);
+    }
+
+    /**
+     * Aplica en bloque las altas y bajas de favoritos de un lote de escrituras.
+     * 
+     * Los contadores se actualizan en orden de ID, así dos lotes concurrentes (de esta u otra 
+     * instancia) toman los locks de las filas en el mismo orden y no se bloquean mutuamente. La 
+     * estructura en memoria se actualiza recién cuando la transacción se confirma: un lote revertido 
+     * (y quizás reintentado) no deja cambios que nunca llegaron a la base.
+     * 
+     * @param deltas Cambio neto de favoritos por ID de ítem.
+     */
+    @Transactional
+    public void favoritesChanged(Map<String, Long> deltas) {
+        Map<String, Long> applied = new TreeMap<>();
+        new TreeMap<>(deltas).forEach((itemId, delta) -> {
+            if (delta != 0) {
+                itemFavoriteCountRepository.increment(itemId, delta);
+                applied.put(itemId, delta);
+            }
+        });
+        afterCommit(() -> applied.forEach(sketch::add));
+    }
+
+    /**
+     * Devuelve los `k` ítems con más favoritos desde la estructura en memoria.
+     * 
+     * @param k Cantidad de ítems a devolver.
+     * @return Pares (ID del ítem, cantidad de favoritos) ordenados por cantidad.
+     */
+    public List<Map.Entry<String, Long>> topFavorites(int k) {
+        return sketch.top(k);
+    }
+
+    /**
+     * Vuelve a sembrar la estructura en memoria con los contadores más altos del agregado.
+     * 
+     * Lee por índice solo las filas necesarias, sin recorrer la tabla `favorites`. Es de solo 
+     * lectura, así que con una réplica configurada (`cupon.datasource.replica.url`) se ejecuta en 
+     * ella; dentro de `reconcile` se suma a su transacción y lee de la primaria.
+     */
+    @Transactional(readOnly = true)
+    public void refreshTopK() {
+        List<ItemFavoriteCount> counts = itemFavoriteCountRepository
+                .findAllByOrderByQuantityDesc(PageRequest.of(0, capacity));
+        Map<String, Long> exact = new HashMap<>();
+        for (ItemFavoriteCount count : counts) {
+            exact.put(count.getItemId(), count.getQuantity());
+        }
+        afterCommit(() -> sketch.reset(exact));
+    }
+
+    /**
+     * Reconstruye el agregado completo desde la tabla `favorites` y vuelve a sembrar el ranking.
+     * 
+     * No toma el turno de reconciliación: quien la llama debe tenerlo.
+     */
+    @Transactional
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        itemFavoriteCountRepository.deleteAllCounts();
+        itemFavoriteCountRepository.rebuildFromFavorites();
+        log.info("Contadores de favoritos reconstruidos en {} ms", System.currentTimeMillis() - start);
+        refreshTopK();
+    }
+
+    /**
+     * Reconciliación periódica: reconstruye el agregado si esta instancia toma el turno; si otra lo 
+     * tiene, no hace nada.
+     */
+    @Scheduled(fixedDelayString = "${cupon.favorites.reconcile-interval:PT6H}",
+               initialDelayString = "${cupon.favorites.reconcile-interval:PT6H}")
+    public void scheduledReconcile() {
+        if (!reconcileIfLocked()) {
+            log.debug("Otra instancia tiene el turno de reconciliación de favoritos");
+        }
+    }
+
+    // Fuera de transacción: el turno se toma y libera en sentencias propias, visibles enseguida
+    private boolean reconcileIfLocked() {
+        Instant start = Instant.now();
+        if (!scheduledLockService.tryLock(RECONCILE_LOCK, reconcileLockTimeout)) {
+            return false;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> reconcile());
+        } finally {
+            scheduledLockService.unlock(RECONCILE_LOCK, start.plus(reconcileInterval.dividedBy(2)));
+        }
+        return true;
+    }
+
+    // Sin transacción con sincronización activa (por ejemplo, en pruebas) se aplica enseguida
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Carga el ranking inicial; si el agregado está vacío (primer despliegue) lo construye antes 
+     * desde la tabla `favorites`, siempre que ninguna otra instancia lo esté construyendo.
+     */
+    public void initialize() {
+        if (itemFavoriteCountRepository.count() == 0 && reconcileIfLocked()) {
+            return;
+        }
+        refreshTopK();
+    }
+}
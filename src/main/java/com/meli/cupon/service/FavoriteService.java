@@ -1,51 +1,196 @@
 package com.meli.cupon.service;
 
+import com.meli.cupon.metrics.CouponMetrics;
+import com.meli.cupon.model.TopFavoritesSnapshot;
 import com.meli.cupon.model.response.FavoriteResponse;
 import com.meli.cupon.repository.FavoriteRepository;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import com.meli.cupon.exception.FavoriteNotFoundException;
 import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 /**
  * Servicio encargado de obtener los ítems más populares basados en las veces que han sido 
  * marcados como favoritos.
  * 
  * Esta clase se encarga de calcular cuáles son los ítems más populares (más frecuentemente 
- * marcados como favoritos) utilizando el repositorio **FavoriteRepository**.
+ * marcados como favoritos) a partir de los contadores que mantiene **FavoriteCounterService**, 
+ * sin agrupar la tabla de favoritos en cada consulta.
+ * 
+ * El ranking se publica como un **TopFavoritesSnapshot** inmutable: las lecturas solo leen una 
+ * referencia atómica, sin acceder a la base de datos. Un refresco en segundo plano lo reconstruye 
+ * cada `cupon.favorites.snapshot.refresh-interval` (± `cupon.favorites.snapshot.jitter`, para que 
+ * las instancias no consulten la base todas a la vez) y nunca hay dos refrescos simultáneos.
+ * 
+ * También lee los favoritos de un usuario por páginas (`cupon.favorites.page-size`), para calcular 
+ * un cupón a partir de ellos.
  */
 @Service
 public class FavoriteService {
 
+    private static final Logger log = LoggerFactory.getLogger(FavoriteService.class);
+
+    private static final int TOP_SIZE = 5;
+
+    @Autowired
+    private FavoriteCounterService favoriteCounterService;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private CouponMetrics couponMetrics;
+
+    @Value("${cupon.favorites.snapshot.refresh-interval:PT30S}")
+    private Duration refreshInterval;
+
+    @Value("${cupon.favorites.snapshot.jitter:PT5S}")
+    private Duration jitter;
+
     @Autowired
     private FavoriteRepository favoriteRepository;
 
+    @Autowired
+    @Qualifier("jdbcScheduler")
+    private Scheduler jdbcScheduler;
+
+    @Value("${cupon.favorites.page-size:1000}")
+    private int pageSize;
+
+    private final AtomicReference<TopFavoritesSnapshot> snapshot = new AtomicReference<>();
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
     /**
      * Obtiene los ítems más populares basados en los que más han sido marcados como favoritos.
      * 
-     * Llama al repositorio para obtener la lista de ítems más favoritos, y limita el resultado
-     * a los **5** primeros.
-     * 
      * @return Una lista con los 5 ítems más populares, ordenados por la cantidad de favoritos.
+     * @throws FavoriteNotFoundException Si no hay favoritos o el ranking aún no fue calculado.
      */
     public List<FavoriteResponse> getTopFavorites() {
+        return getTopFavoritesSnapshot().getFavorites();
+    }
 
-        List<Object[]> results = favoriteRepository.findTopFavorites();
-
-        if (results == null || results.isEmpty()) {
+    /**
+     * Obtiene la última foto publicada del ranking de favoritos, sin acceder a la base de datos.
+     * 
+     * @return El snapshot actual con los **5** ítems más populares.
+     * @throws FavoriteNotFoundException Si no hay favoritos o el ranking aún no fue calculado.
+     */
+    public TopFavoritesSnapshot getTopFavoritesSnapshot() {
+        TopFavoritesSnapshot current = snapshot.get();
+        if (current == null || current.getFavorites().isEmpty()) {
             throw new FavoriteNotFoundException("No se encontraron favoritos en la base de datos.");
         }
+        return current;
+    }
+
+    /**
+     * Recarga los contadores desde la base de datos y publica un nuevo snapshot.
+     * 
+     * Si ya hay un refresco en curso, no hace nada.
+     */
+    public void refreshSnapshot() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            favoriteCounterService.refreshTopK();
+            couponMetrics.recordStatsQuery("database", System.nanoTime() - start);
+            publishSnapshot();
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * Lee los IDs de los ítems favoritos de un usuario por páginas.
+     * 
+     * Cada página se pide recién cuando se consume la anterior y se lee en el `jdbcScheduler`, así 
+     * un usuario con miles de favoritos no se carga entero en memoria antes de empezar a obtener 
+     * sus ítems.
+     * 
+     * @param userId ID del usuario.
+     * @return Un **Flux** con las páginas de IDs, en orden ascendente y sin repetidos.
+     */
+    public Flux<List<String>> favoriteItemIds(Long userId) {
+        return page(userId, "")
+                .expand(ids -> ids.size() < pageSize ? Mono.empty() : page(userId, ids.get(ids.size() - 1)))
+                .filter(ids -> !ids.isEmpty());
+    }
+
+    private Mono<List<String>> page(Long userId, String afterItemId) {
+        return Mono.fromCallable(() -> favoriteRepository.findItemIdsByUserId(userId, afterItemId, PageRequest.ofSize(pageSize)))
+                .subscribeOn(jdbcScheduler);
+    }
+
+    /**
+     * Al iniciar la aplicación carga los contadores, publica el primer snapshot y programa los 
+     * refrescos siguientes.
+     * 
+     * Si la carga falla (por ejemplo, la base no está disponible) la aplicación arranca igual: las 
+     * estadísticas responden **404** hasta que un refresco programado publique el ranking.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            favoriteCounterService.initialize();
+            publishSnapshot();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo cargar el ranking de favoritos al iniciar: {}", e.getMessage());
+        } finally {
+            scheduleNextRefresh();
+        }
+    }
+
+    private void publishSnapshot() {
+        List<Map.Entry<String, Long>> results = favoriteCounterService.topFavorites(TOP_SIZE);
+
         // Mapea los resultados a objetos de tipo FavoriteResponse
-        List<FavoriteResponse> favorites = results.stream().limit(5).map(result -> {
+        List<FavoriteResponse> favorites = results.stream().map(result -> {
             FavoriteResponse favoriteResponse = new FavoriteResponse();
-            favoriteResponse.setId((String) result[0]);
-            favoriteResponse.setQuantity(((Number) result[1]).intValue());
+            favoriteResponse.setId(result.getKey());
+            favoriteResponse.setQuantity(result.getValue().intValue());
             return favoriteResponse;
         }).collect(Collectors.toList());
 
-        return favorites;
-
+        TopFavoritesSnapshot previous = snapshot.get();
+        long version = previous == null ? 1
+                : previous.getFavorites().equals(favorites) ? previous.getVersion() : previous.getVersion() + 1;
+        snapshot.set(new TopFavoritesSnapshot(favorites, Instant.now(), version));
     }
 
+    private void scheduleNextRefresh() {
+        long jitterMillis = jitter.toMillis();
+        long offset = jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(-jitterMillis, jitterMillis + 1) : 0;
+        Instant next = Instant.now().plus(refreshInterval).plusMillis(offset);
+        taskScheduler.schedule(() -> {
+            try {
+                refreshSnapshot();
+            } catch (RuntimeException e) {
+                log.warn("No se pudo refrescar el ranking de favoritos: {}", e.getMessage());
+            } finally {
+                scheduleNextRefresh();
+            }
+        }, next);
+    }
 }
@@ -0,0 +1,293 @@
+package com.meli.cupon.service;
+
+import com.meli.cupon.exception.FavoriteQueueFullException;
+import com.meli.cupon.metrics.CouponMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Servicio que registra altas y bajas de favoritos con escritura diferida (write-behind).
+ * 
+ * Cada escritura se encola en una cola acotada (`cupon.favorites.ingest.queue-capacity`) y un hilo 
+ * dedicado la escribe en la base junto con otras, en lotes JDBC de hasta 
+ * `cupon.favorites.ingest.flush-size` escrituras o cada `cupon.favorites.ingest.flush-interval`, lo 
+ * que ocurra primero. Las altas usan `INSERT IGNORE`, así un favorito repetido no falla ni se cuenta 
+ * dos veces; las bajas de un favorito inexistente tampoco cuentan. Cada lote actualiza los 
+ * contadores de **FavoriteCounterService** en la misma transacción.
+ * 
+ * El orden de las escrituras se respeta: un lote se divide en tramos consecutivos de altas o de 
+ * bajas, y cada tramo es un batch JDBC.
+ * 
+ * Los deadlocks y esperas de lock agotadas (por ejemplo, contra la reconciliación de contadores) son 
+ * transitorios: el lote entero se reintenta hasta `cupon.favorites.ingest.max-attempts` veces, con 
+ * una espera creciente de `cupon.favorites.ingest.retry-backoff`, antes de darlo por fallido.
+ * 
+ * Modos de confirmación (`cupon.favorites.ingest.ack`, o por solicitud):
+ * - `queued`: se confirma al encolar. Es el modo más rápido, pero si la instancia se detiene de 
+ *   golpe o el lote falla, la escritura se pierde.
+ * - `durable`: se confirma cuando el lote que la contiene quedó confirmado en la base.
+ * 
+ * Si la cola está llena se lanza **FavoriteQueueFullException** en lugar de bloquear, para que el 
+ * cliente reintente luego de `cupon.favorites.ingest.retry-after`.
+ */
+@Service
+public class FavoriteWriteService {
+
+    private static final Logger log = LoggerFactory.getLogger(FavoriteWriteService.class);
+
+    private static final String INSERT = "INSERT IGNORE INTO favorites (user_id, item_id) VALUES (?, ?)";
+
+    private static final String DELETE = "DELETE FROM favorites WHERE user_id = ? AND item_id = ?";
+
+    public static final String ACK_QUEUED = "queued";
+
+    public static final String ACK_DURABLE = "durable";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private FavoriteCounterService favoriteCounterService;
+
+    @Autowired
+    private CouponMetrics couponMetrics;
+
+    @Value("${cupon.favorites.ingest.flush-size:500}")
+    private int flushSize;
+
+    @Value("${cupon.favorites.ingest.flush-interval:50ms}")
+    private Duration flushInterval;
+
+    @Value("${cupon.favorites.ingest.ack:queued}")
+    private String defaultAck;
+
+    @Value("${cupon.favorites.ingest.retry-after:1s}")
+    private Duration retryAfter;
+
+    @Value("${cupon.favorites.ingest.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${cupon.favorites.ingest.retry-backoff:20ms}")
+    private Duration retryBackoff;
+
+    private final BlockingQueue<FavoriteWrite> queue;
+
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    public FavoriteWriteService(@Value("${cupon.favorites.ingest.queue-capacity:100000}") int queueCapacity) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::run, "favorites-writer");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        couponMetrics.registerFavoriteQueue(queue);
+        writer.start();
+    }
+
+    /**
+     * Encola el alta de un favorito.
+     * 
+     * @param userId ID del usuario.
+     * @param itemId ID del ítem.
+     * @param ack Modo de confirmación (`queued` o `durable`), o `null` para el configurado.
+     * @return Un futuro que se completa según el modo de confirmación.
+     * @throws FavoriteQueueFullException Si la cola está llena.
+     */
+    public CompletableFuture<Void> add(Long userId, String itemId, String ack) {
+        return submit(new FavoriteWrite(userId, itemId, true, isDurable(ack) ? new CompletableFuture<>() : null));
+    }
+
+    /**
+     * Encola la baja de un favorito.
+     * 
+     * @param userId ID del usuario.
+     * @param itemId ID del ítem.
+     * @param ack Modo de confirmación (`queued` o `durable`), o `null` para el configurado.
+     * @return Un futuro que se completa según el modo de confirmación.
+     * @throws FavoriteQueueFullException Si la cola está llena.
+     */
+    public CompletableFuture<Void> remove(Long userId, String itemId, String ack) {
+        return submit(new FavoriteWrite(userId, itemId, false, isDurable(ack) ? new CompletableFuture<>() : null));
+    }
+
+    /**
+     * @param ack Modo de confirmación pedido, o `null` para el configurado.
+     * @return Si la escritura se confirma recién cuando quedó en la base.
+     */
+    public boolean isDurable(String ack) {
+        return ACK_DURABLE.equalsIgnoreCase(ack == null ? defaultAck : ack);
+    }
+
+    private CompletableFuture<Void> submit(FavoriteWrite write) {
+        if (!running || !queue.offer(write)) {
+            throw new FavoriteQueueFullException("La cola de favoritos está llena, reintente más tarde.", retryAfter);
+        }
+        return write.done() == null ? CompletableFuture.completedFuture(null) : write.done();
+    }
+
+    // Junta escrituras hasta completar un lote o agotar el intervalo desde la primera
+    private void run() {
+        List<FavoriteWrite> batch = new ArrayList<>(flushSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                FavoriteWrite first = queue.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < flushSize) {
+                    queue.drainTo(batch, flushSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= flushSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    FavoriteWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Error inesperado en la escritura de favoritos", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Escribe un lote en una transacción y completa las confirmaciones durables.
+     * 
+     * @param batch Escrituras en orden de llegada.
+     */
+    void flush(List<FavoriteWrite> batch) {
+        long start = System.nanoTime();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    write(batch);
+                    break;
+                } catch (PessimisticLockingFailureException e) {
+                    if (attempt >= maxAttempts || !backoff(attempt)) {
+                        throw e;
+                    }
+                    log.debug("Reintentando un lote de {} favoritos (intento {}): {}", batch.size(), attempt + 1,
+                            e.getMessage());
+                }
+            }
+            couponMetrics.recordFavoriteFlush(batch.size(), "success", System.nanoTime() - start);
+            batch.forEach(write -> {
+                if (write.done() != null) {
+                    write.done().complete(null);
+                }
+            });
+        } catch (RuntimeException e) {
+            couponMetrics.recordFavoriteFlush(batch.size(), "error", System.nanoTime() - start);
+            log.warn("No se pudo escribir un lote de {} favoritos: {}", batch.size(), e.getMessage());
+            batch.forEach(write -> {
+                if (write.done() != null) {
+                    write.done().completeExceptionally(e);
+                }
+            });
+        }
+    }
+
+    // Una transacción por intento: si se revierte, los deltas se vuelven a calcular desde cero
+    private void write(List<FavoriteWrite> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Ordenado por ID: los contadores se actualizan siempre en el mismo orden
+            Map<String, Long> deltas = new TreeMap<>();
+            int from = 0;
+            while (from < batch.size()) {
+                boolean added = batch.get(from).added();
+                int to = from;
+                while (to < batch.size() && batch.get(to).added() == added) {
+                    to++;
+                }
+                List<FavoriteWrite> run = batch.subList(from, to);
+                int[] counts = jdbcTemplate.batchUpdate(added ? INSERT : DELETE, new Setter(run));
+                for (int i = 0; i < counts.length; i++) {
+                    // Solo cuentan las filas que realmente se insertaron o borraron
+                    if (counts[i] > 0) {
+                        deltas.merge(run.get(i).itemId(), added ? 1L : -1L, Long::sum);
+                    }
+                }
+                from = to;
+            }
+            favoriteCounterService.favoritesChanged(deltas);
+        });
+    }
+
+    // Espera antes del siguiente intento; devuelve `false` si el hilo fue interrumpido
+    private boolean backoff(int attempt) {
+        try {
+            Thread.sleep(retryBackoff.multipliedBy(attempt).toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Deja de aceptar escrituras y espera a que se escriba lo que quedó en la cola.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Sin interrumpir: la espera termina sola en `flush-interval` y no se corta un lote a medias
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Escritura pendiente; `done` es `null` si se confirmó al encolar.
+     */
+    record FavoriteWrite(Long userId, String itemId, boolean added, CompletableFuture<Void> done) {
+    }
+
+    private record Setter(List<FavoriteWrite> writes) implements BatchPreparedStatementSetter {
+
+        @Override
+        public void setValues(PreparedStatement statement, int i) throws SQLException {
+            statement.setLong(1, writes.get(i).userId());
+            statement.setString(2, writes.get(i).itemId());
+        }
+
+        @Override
+        public int getBatchSize() {
+            return writes.size();
+        }
+    }
+}
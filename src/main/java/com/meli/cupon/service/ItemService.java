@@ -1,67 +1,268 @@
 package com.meli.cupon.service;
 
+import com.meli.cupon.cache.ItemPriceCache;
+import com.meli.cupon.exception.DeadlineExceededException;
 import com.meli.cupon.exception.ItemNotFoundException;
+import com.meli.cupon.metrics.CouponMetrics;
+import com.meli.cupon.model.ItemFetchResult;
 import com.meli.cupon.model.entity.Item;
-import com.meli.cupon.repository.ItemRepository;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
  * Servicio encargado de la obtención de ítems a través de una API externa.
  * 
  * Esta clase interactúa con una API externa de ítems (como un sistema de inventario o catálogo) 
- * para obtener información detallada de los ítems utilizando **WebClient**.
+ * para obtener información detallada de los ítems utilizando **WebClient**. Las consultas pasan por 
+ * **ItemPriceCache**, de modo que los ítems populares se reutilizan entre solicitudes.
+ * 
+ * La propiedad `cupon.items.missing-policy` define qué hacer con los ítems que no se pudieron 
+ * obtener: `skip` los descarta y se informan en el resultado, `fail` rechaza todo el pedido con 
+ * **ItemNotFoundException**.
+ * 
+ * Con hilos virtuales habilitados (`spring.threads.virtual.enabled=true` sobre Java 21+) las 
+ * solicitudes bloqueantes obtienen los ítems con {@link #fetchItemsBlocking(List)}, que reparte el 
+ * carrito en subtareas sobre hilos virtuales y las une antes de devolver.
+ * 
+ * Las variantes con `timeout` lanzan **DeadlineExceededException** si los ítems no se obtienen a 
+ * tiempo, para que la solicitud no espere indefinidamente a la API de ítems.
  */
 @Service
 public class ItemService {
     
     @Autowired
-    private WebClient.Builder webClientBuilder;
-    
-    private final String ITEM_API_URL = "http://localhost:8080/api/items/";
+    private ItemPriceCache itemPriceCache;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private CouponMetrics couponMetrics;
+
+    @Value("${cupon.items.missing-policy:skip}")
+    private String missingPolicy;
+
+    @Value("${cupon.items.fetch.fork-size:50}")
+    private int forkSize;
+
+    @Value("${cupon.items.fetch.page-concurrency:4}")
+    private int pageConcurrency;
     
     /**
      * Obtiene los ítems por sus IDs desde una API externa.
      * 
-     * Realiza múltiples llamadas a la API para obtener información sobre varios ítems en paralelo. 
-     * Utiliza la programación reactiva para manejar las respuestas de forma eficiente.
+     * Los IDs repetidos se consultan una sola vez y los ítems se devuelven en el orden solicitado.
      * 
      * @param itemIds Lista de IDs de los ítems que se desean obtener.
-     * @return Una lista de **Mono<Item>**, representando la respuesta reactiva de cada ítem.
+     * @return Un **Mono** con la lista de ítems obtenidos.
      */
     public Mono<List<Item>> getItemsByIds(List<String> itemIds) {
-        List<Mono<Item>> itemMonos = new ArrayList<>();
-        
-        // Creamos una lista de Mono para las peticiones de cada item
-        for (String itemId : itemIds) {
-            itemMonos.add(obtenerItemPorId(itemId));  // Hacemos la llamada para cada item
-        }
+        return fetchItems(itemIds).map(ItemFetchResult::getItems);
+    }
+
+    /**
+     * Obtiene los ítems por sus IDs, aplicando la política configurada para los faltantes.
+     * 
+     * Las consultas a la API se hacen en bloque, con concurrencia acotada, a través de la caché.
+     * 
+     * @param itemIds Lista de IDs de los ítems que se desean obtener.
+     * @return Un **Mono** con los ítems obtenidos y los IDs descartados.
+     * @throws ItemNotFoundException Si la política es `fail` y algún ítem no pudo obtenerse.
+     */
+    public Mono<ItemFetchResult> fetchItems(List<String> itemIds) {
+        return fetchItems(itemIds, null);
+    }
+
+    /**
+     * Obtiene los ítems por sus IDs dentro de un tiempo máximo.
+     * 
+     * @param itemIds Lista de IDs de los ítems que se desean obtener.
+     * @param timeout Tiempo máximo para obtener los ítems, o `null` para esperar sin límite.
+     * @return Un **Mono** con los ítems obtenidos y los IDs descartados.
+     * @throws ItemNotFoundException Si la política es `fail` y algún ítem no pudo obtenerse.
+     * @throws DeadlineExceededException Si los ítems no se obtuvieron dentro de `timeout`.
+     */
+    public Mono<ItemFetchResult> fetchItems(List<String> itemIds, Duration timeout) {
+        List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(itemIds));
+        return fetchCatalog(distinctIds, timeout)
+                .map(found -> toResult(distinctIds, found));
+    }
 
-        // Usamos zip para combinar todos los resultados de los Monos de items en una lista
-        return Mono.zip(itemMonos, results -> {
-            List<Item> items = new ArrayList<>();
-            for (Object result : results) {
-                items.add((Item) result);  // Convertimos los resultados a objetos Item
+    /**
+     * Obtiene ítems cuyos IDs llegan por páginas, por ejemplo leídas de la base.
+     * 
+     * Cada página se consulta apenas llega, mientras se leen las siguientes; el tiempo máximo 
+     * abarca todas las páginas.
+     * 
+     * @param pages Páginas de IDs distintos.
+     * @param timeout Tiempo máximo para obtener los ítems, o `null` para esperar sin límite.
+     * @return Un **Mono** con los ítems obtenidos, en el orden de las páginas, y los IDs descartados.
+     * @throws ItemNotFoundException Si la política es `fail` y algún ítem no pudo obtenerse.
+     * @throws DeadlineExceededException Si los ítems no se obtuvieron dentro de `timeout`.
+     */
+    public Mono<ItemFetchResult> fetchItems(Flux<List<String>> pages, Duration timeout) {
+        return Mono.defer(() -> {
+            List<String> itemIds = new ArrayList<>();
+            Mono<Map<String, Optional<Item>>> found = pages
+                    .doOnNext(itemIds::addAll)
+                    .flatMap(itemPriceCache::getAll, pageConcurrency)
+                    .collect(HashMap::new, Map::putAll);
+            if (timeout != null) {
+                found = found.timeout(timeout, Mono.error(() -> timeoutException(itemIds.size(), timeout)));
             }
-            return items;
+            return couponMetrics.timeFetch(found)
+                    .map(catalog -> toResult(itemIds, catalog));
         });
     }
-    
-    // Método que realiza una llamada reactiva a la API de Items para obtener un solo item por su ID
-    private Mono<Item> obtenerItemPorId(String itemId) {
-        return webClientBuilder.baseUrl(ITEM_API_URL)
-                .build()
-                .get()
-                .uri(itemId)  // El item se pasa en la URL como parámetro
-                .retrieve()
-                .bodyToMono(Item.class)
-                .onErrorMap(e -> new ItemNotFoundException("Error al obtener el ítem: " + itemId));  // Convierte la respuesta JSON a un objeto Item
+
+    /**
+     * Obtiene los ítems por sus IDs bloqueando el hilo actual hasta tener el resultado.
+     * 
+     * Con hilos virtuales activos, cada bloque de `cupon.items.fetch.fork-size` IDs se resuelve en 
+     * su propia subtarea y el hilo que atiende la solicitud espera a todas. Ninguna subtarea 
+     * sobrevive a este método: si una falla o el hilo es interrumpido, las demás se cancelan. 
+     * Sin hilos virtuales se bloquea sobre el flujo reactivo de {@link #fetchItems(List)}.
+     * 
+     * @param itemIds Lista de IDs de los ítems que se desean obtener.
+     * @return Los ítems obtenidos y los IDs descartados.
+     * @throws ItemNotFoundException Si la política es `fail` y algún ítem no pudo obtenerse.
+     */
+    public ItemFetchResult fetchItemsBlocking(List<String> itemIds) {
+        return fetchItemsBlocking(itemIds, null);
+    }
+
+    /**
+     * Obtiene los ítems por sus IDs bloqueando el hilo actual, como mucho durante `timeout`.
+     * 
+     * @param itemIds Lista de IDs de los ítems que se desean obtener.
+     * @param timeout Tiempo máximo para obtener los ítems, o `null` para esperar sin límite.
+     * @return Los ítems obtenidos y los IDs descartados.
+     * @throws ItemNotFoundException Si la política es `fail` y algún ítem no pudo obtenerse.
+     * @throws DeadlineExceededException Si los ítems no se obtuvieron dentro de `timeout`.
+     */
+    public ItemFetchResult fetchItemsBlocking(List<String> itemIds, Duration timeout) {
+        List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(itemIds));
+        return toResult(distinctIds, fetchCatalogBlocking(distinctIds, timeout));
+    }
+
+    /**
+     * Obtiene un conjunto de ítems sin aplicar la política de faltantes, para repartirlos luego 
+     * entre varios pedidos con {@link #select(List, Map)}.
+     * 
+     * @param itemIds IDs distintos de los ítems.
+     * @param timeout Tiempo máximo para obtener los ítems, o `null` para esperar sin límite.
+     * @return Un **Mono** con el resultado de cada ID que pudo resolverse.
+     * @throws DeadlineExceededException Si los ítems no se obtuvieron dentro de `timeout`.
+     */
+    public Mono<Map<String, Optional<Item>>> fetchCatalog(List<String> itemIds, Duration timeout) {
+        Mono<Map<String, Optional<Item>>> found = itemPriceCache.getAll(itemIds);
+        if (timeout != null) {
+            found = found.timeout(timeout, Mono.error(() -> timeoutException(itemIds.size(), timeout)));
+        }
+        return couponMetrics.timeFetch(found);
+    }
+
+    /**
+     * Variante bloqueante de {@link #fetchCatalog(List, Duration)}, que con hilos virtuales reparte 
+     * los IDs en subtareas como {@link #fetchItemsBlocking(List)}.
+     * 
+     * @param itemIds IDs distintos de los ítems.
+     * @param timeout Tiempo máximo para obtener los ítems, o `null` para esperar sin límite.
+     * @return El resultado de cada ID que pudo resolverse.
+     * @throws DeadlineExceededException Si los ítems no se obtuvieron dentro de `timeout`.
+     */
+    public Map<String, Optional<Item>> fetchCatalogBlocking(List<String> itemIds, Duration timeout) {
+        if (!Threading.VIRTUAL.isActive(environment)) {
+            return fetchCatalog(itemIds, timeout).block();
+        }
+        List<Future<Map<String, Optional<Item>>>> forks = new ArrayList<>();
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            for (int from = 0; from < itemIds.size(); from += forkSize) {
+                List<String> chunk = itemIds.subList(from, Math.min(from + forkSize, itemIds.size()));
+                forks.add(applicationTaskExecutor.submit(() -> itemPriceCache.getAll(chunk).block()));
+            }
+            long deadline = timeout == null ? 0 : System.nanoTime() + timeout.toNanos();
+            Map<String, Optional<Item>> found = new HashMap<>();
+            for (Future<Map<String, Optional<Item>>> fork : forks) {
+                found.putAll(timeout == null ? fork.get()
+                        : fork.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+            outcome = "success";
+            return found;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ItemNotFoundException("Se interrumpió la obtención de los ítems.");
+        } catch (TimeoutException e) {
+            throw timeoutException(itemIds.size(), timeout);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ItemNotFoundException("Error al obtener los ítems: " + e.getCause().getMessage());
+        } finally {
+            forks.forEach(fork -> fork.cancel(true));
+            couponMetrics.recordFetch(System.nanoTime() - start, outcome);
+        }
+    }
+
+    /**
+     * Arma el resultado de un pedido a partir de ítems ya obtenidos, aplicando la política de 
+     * faltantes solo a ese pedido.
+     * 
+     * @param itemIds IDs del pedido (pueden repetirse).
+     * @param catalog Ítems obtenidos con {@link #fetchCatalog(List, Duration)}.
+     * @return Los ítems del pedido y los IDs descartados.
+     * @throws ItemNotFoundException Si la política es `fail` y algún ítem del pedido no pudo obtenerse.
+     */
+    public ItemFetchResult select(List<String> itemIds, Map<String, Optional<Item>> catalog) {
+        return toResult(new ArrayList<>(new LinkedHashSet<>(itemIds)), catalog);
+    }
+
+    private static DeadlineExceededException timeoutException(int count, Duration timeout) {
+        return new DeadlineExceededException(
+                "No se obtuvieron los " + count + " ítems en " + timeout.toMillis() + " ms.");
+    }
+
+    private ItemFetchResult toResult(List<String> itemIds, Map<String, Optional<Item>> found) {
+        List<Item> items = new ArrayList<>(itemIds.size());
+        List<String> skipped = new ArrayList<>();
+        for (String itemId : itemIds) {
+            Optional<Item> item = found.get(itemId);
+            if (item != null && item.isPresent()) {
+                items.add(item.get());
+            } else {
+                skipped.add(itemId);
+            }
+        }
+        couponMetrics.recordSkipped(skipped.size());
+        if (!skipped.isEmpty() && "fail".equalsIgnoreCase(missingPolicy)) {
+            throw new ItemNotFoundException("Error al obtener los ítems: " + String.join(", ", skipped));
+        }
+        return new ItemFetchResult(items, skipped);
     }
 }
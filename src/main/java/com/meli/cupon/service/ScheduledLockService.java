@@ -0,0 +1,55 @@
+package com.meli.cupon.service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Servicio que reparte entre las instancias las tareas programadas que deben ejecutarse en una
+ * sola a la vez.
+ *
+ * Cada tarea tiene una fila en `scheduled_locks`. Tomar el turno es un único `UPDATE` condicional
+ * que solo prospera si el turno anterior venció, así que entre varias instancias gana una sola. El
+ * turno se toma por un tiempo máximo: si la instancia se detiene a mitad de la tarea, otra puede
+ * tomarlo cuando vence. Las sentencias se ejecutan fuera de la transacción de la tarea, para que
+ * el turno sea visible enseguida para las demás instancias.
+ */
+@Service
+public class ScheduledLockService {
+
+    private static final String TRY_LOCK = "UPDATE scheduled_locks SET locked_until = ?, locked_by = ? " +
+                                           "WHERE name = ? AND locked_until <= ?";
+
+    private static final String UNLOCK = "UPDATE scheduled_locks SET locked_until = ? WHERE name = ? AND locked_by = ?";
+
+    private final String instance = ManagementFactory.getRuntimeMXBean().getName() + "/" + System.identityHashCode(this);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Intenta tomar el turno de una tarea.
+     *
+     * @param name Nombre de la tarea (fila de `scheduled_locks`).
+     * @param lockAtMostFor Tiempo tras el cual el turno vence aunque no se haya liberado.
+     * @return Si esta instancia tomó el turno.
+     */
+    public boolean tryLock(String name, Duration lockAtMostFor) {
+        long now = Instant.now().toEpochMilli();
+        return jdbcTemplate.update(TRY_LOCK, now + lockAtMostFor.toMillis(), instance, name, now) == 1;
+    }
+
+    /**
+     * Libera el turno de una tarea tomado por esta instancia.
+     *
+     * @param name Nombre de la tarea.
+     * @param lockedUntil Hasta cuándo las demás instancias no pueden tomarlo; para que una tarea
+     *                    periódica no se repita en otra instancia apenas termina.
+     */
+    public void unlock(String name, Instant lockedUntil) {
+        jdbcTemplate.update(UNLOCK, lockedUntil.toEpochMilli(), name, instance);
+    }
+}
@@ -0,0 +1,39 @@
+package com.meli.cupon.service.solver;
+
+import com.meli.cupon.model.Deadline;
+
+/**
+ * Estrategia de selección de ítems para un cupón.
+ * 
+ * Las implementaciones reciben los precios de los ítems expresados en **centavos** y el monto 
+ * disponible también en centavos, y devuelven qué ítems comprar sin exceder ese monto. Trabajar 
+ * con enteros evita los errores de redondeo propios de `double` en los totales de dinero.
+ * 
+ * Las estrategias costosas pueden respetar un **Deadline**: si se agota, devuelven la mejor 
+ * selección encontrada hasta el momento, marcada como no óptima.
+ */
+public interface CuponSolver {
+
+    /**
+     * Selecciona los ítems a comprar dentro del monto disponible.
+     * 
+     * @param prices Precios de los ítems en centavos; la posición identifica al ítem.
+     * @param budget Monto disponible en centavos.
+     * @return La **Selection** con los índices elegidos y el total gastado.
+     */
+    Selection solve(long[] prices, long budget);
+
+    /**
+     * Selecciona los ítems a comprar dentro del monto disponible, sin exceder el tiempo límite.
+     * 
+     * Por defecto ignora el límite, lo que es adecuado para estrategias que siempre son rápidas.
+     * 
+     * @param prices Precios de los ítems en centavos; la posición identifica al ítem.
+     * @param budget Monto disponible en centavos.
+     * @param deadline Tiempo límite del cálculo.
+     * @return La **Selection** con los índices elegidos y el total gastado.
+     */
+    default Selection solve(long[] prices, long budget, Deadline deadline) {
+        return solve(prices, budget);
+    }
+}
@@ -0,0 +1,40 @@
+package com.meli.cupon.service.solver;
+
+import java.util.Arrays;
+import org.springframework.stereotype.Component;
+
+/**
+ * Estrategia voraz: ordena los ítems por precio y toma los más baratos mientras entren en el monto.
+ * 
+ * Es el comportamiento histórico del servicio. Es rápida (O(n log n)) pero puede dejar dinero sin 
+ * gastar, por lo que solo se conserva para poder compararla contra {@link KnapsackCuponSolver}.
+ */
+@Component(GreedyCuponSolver.NAME)
+public class GreedyCuponSolver implements CuponSolver {
+
+    public static final String NAME = "greedy";
+
+    @Override
+    public Selection solve(long[] prices, long budget) {
+        // Ordena los índices por precio empaquetando (precio, índice) en un long para no usar Integer
+        long[] keys = new long[prices.length];
+        for (int i = 0; i < prices.length; i++) {
+            keys[i] = (prices[i] << 20) | i;
+        }
+        Arrays.sort(keys);
+
+        int[] chosen = new int[prices.length];
+        int count = 0;
+        long total = 0;
+        for (long key : keys) {
+            int i = (int) (key & 0xFFFFF);
+            if (total + prices[i] <= budget) {
+                chosen[count++] = i;
+                total += prices[i];
+            }
+        }
+        int[] indices = Arrays.copyOf(chosen, count);
+        Arrays.sort(indices);
+        return new Selection(indices, total, count == prices.length);
+    }
+}
@@ -0,0 +1,191 @@
+package com.meli.cupon.service.solver;
+
+import com.meli.cupon.model.Deadline;
+import java.util.Arrays;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Estrategia exacta: resuelve la mochila 0/1 (subset-sum) sobre los precios en centavos.
+ * 
+ * Mantiene en un **bitset** (`long[]`) los totales alcanzables y, para cada total, el índice del 
+ * ítem con el que se alcanzó por primera vez (`int[]`). Con eso la reconstrucción es un simple 
+ * recorrido hacia atrás y la memoria es O(capacidad), sin tablas n × capacidad.
+ * 
+ * El costo está acotado por `cupon.solver.max-capacity`: si el monto (dividido por el MCD de los 
+ * precios) supera esa cantidad de celdas, los precios se redondean hacia arriba a una unidad más 
+ * gruesa. La selección sigue siendo válida pero ya no se garantiza óptima.
+ * 
+ * Es un algoritmo **anytime**: el límite de tiempo se revisa antes de incorporar cada ítem. Si se 
+ * agota, se toma el mejor total alcanzable con los ítems ya procesados y se completa el monto 
+ * restante con los demás ítems, de mayor a menor precio, mientras entren.
+ */
+@Component(KnapsackCuponSolver.NAME)
+public class KnapsackCuponSolver implements CuponSolver {
+
+    public static final String NAME = "knapsack";
+
+    private final int maxCapacity;
+
+    public KnapsackCuponSolver(@Value("${cupon.solver.max-capacity:1000000}") int maxCapacity) {
+        this.maxCapacity = maxCapacity;
+    }
+
+    @Override
+    public Selection solve(long[] prices, long budget) {
+        return solve(prices, budget, Deadline.none());
+    }
+
+    @Override
+    public Selection solve(long[] prices, long budget, Deadline deadline) {
+        int n = prices.length;
+        int[] candidates = new int[n];
+        int count = 0;
+        long sum = 0;
+        long gcd = 0;
+        for (int i = 0; i < n; i++) {
+            if (prices[i] >= 0 && prices[i] <= budget) {
+                candidates[count++] = i;
+                sum += prices[i];
+                gcd = gcd(gcd, prices[i]);
+            }
+        }
+
+        // Si todos los candidatos entran en el monto no hay nada que optimizar
+        if (count == 0 || sum <= budget) {
+            return new Selection(Arrays.copyOf(candidates, count), sum, true);
+        }
+
+        long unit = gcd;
+        long capacity = budget / unit;
+        boolean optimal = true;
+        if (capacity > maxCapacity) {
+            unit = unit * ((capacity + maxCapacity - 1) / maxCapacity);
+            capacity = budget / unit;
+            optimal = false;
+        }
+
+        int[] weights = new int[count];
+        for (int k = 0; k < count; k++) {
+            // Redondeo hacia arriba: con la unidad exacta es una división entera sin resto
+            weights[k] = (int) ((prices[candidates[k]] + unit - 1) / unit);
+        }
+
+        int cap = (int) capacity;
+        long[] reach = new long[(cap >>> 6) + 1];
+        int[] firstItem = new int[cap + 1];
+        reach[0] = 1L;
+        int processed = 0;
+        for (; processed < count; processed++) {
+            if (deadline.isExpired()) {
+                optimal = false;
+                break;
+            }
+            if (weights[processed] == 0) {
+                continue;
+            }
+            addItem(reach, firstItem, cap, weights[processed], processed);
+        }
+
+        int best = highestBit(reach, cap);
+        int[] chosen = new int[count];
+        int size = 0;
+        long total = 0;
+        for (int k = 0; k < count; k++) {
+            // Los ítems gratuitos siempre se incluyen (también los que no llegaron a procesarse)
+            if (weights[k] == 0) {
+                chosen[size++] = candidates[k];
+            }
+        }
+        for (int s = best; s > 0; s -= weights[firstItem[s]]) {
+            int k = firstItem[s];
+            chosen[size++] = candidates[k];
+            total += prices[candidates[k]];
+        }
+        if (processed < count) {
+            size = fill(prices, candidates, weights, processed, count, budget - total, chosen, size);
+            total = 0;
+            for (int k = 0; k < size; k++) {
+                total += prices[chosen[k]];
+            }
+        }
+        int[] indices = Arrays.copyOf(chosen, size);
+        Arrays.sort(indices);
+        return new Selection(indices, total, optimal);
+    }
+
+    /**
+     * Aplica `reach |= reach << weight` sobre el bitset, recorriendo las palabras de mayor a menor 
+     * para que cada ítem se use a lo sumo una vez, y registra qué totales aparecieron con este ítem.
+     */
+    private static void addItem(long[] reach, int[] firstItem, int cap, int weight, int item) {
+        int wordShift = weight >>> 6;
+        int bitShift = weight & 63;
+        int top = cap >>> 6;
+        long topMask = (cap & 63) == 63 ? -1L : (1L << ((cap & 63) + 1)) - 1;
+        for (int j = top; j >= wordShift; j--) {
+            long shifted = reach[j - wordShift] << bitShift;
+            if (bitShift != 0 && j - wordShift - 1 >= 0) {
+                shifted |= reach[j - wordShift - 1] >>> (64 - bitShift);
+            }
+            if (j == top) {
+                shifted &= topMask;
+            }
+            long added = shifted & ~reach[j];
+            if (added != 0) {
+                reach[j] |= added;
+                int base = j << 6;
+                while (added != 0) {
+                    firstItem[base + Long.numberOfTrailingZeros(added)] = item;
+                    added &= added - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Completa una selección parcial con los candidatos `from..to-1`, de mayor a menor precio, 
+     * mientras entren en el monto restante.
+     * 
+     * @return La nueva cantidad de ítems elegidos.
+     */
+    private static int fill(long[] prices, int[] candidates, int[] weights, int from, int to, long remaining,
+                            int[] chosen, int size) {
+        long[] keys = new long[to - from];
+        int count = 0;
+        for (int k = from; k < to; k++) {
+            if (weights[k] != 0) {
+                // Mismo empaquetado (precio, posición) que la estrategia voraz, para ordenar sin objetos
+                keys[count++] = (prices[candidates[k]] << 20) | k;
+            }
+        }
+        Arrays.sort(keys, 0, count);
+        for (int i = count - 1; i >= 0 && remaining > 0; i--) {
+            int k = (int) (keys[i] & 0xFFFFF);
+            long price = prices[candidates[k]];
+            if (price <= remaining) {
+                chosen[size++] = candidates[k];
+                remaining -= price;
+            }
+        }
+        return size;
+    }
+
+    private static int highestBit(long[] reach, int cap) {
+        for (int j = cap >>> 6; j >= 0; j--) {
+            if (reach[j] != 0) {
+                return (j << 6) + 63 - Long.numberOfLeadingZeros(reach[j]);
+            }
+        }
+        return 0;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
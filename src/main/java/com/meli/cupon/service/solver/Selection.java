@@ -0,0 +1,32 @@
+package com.meli.cupon.service.solver;
+
+/**
+ * Resultado de un {@link CuponSolver}.
+ * 
+ * Contiene los índices (en orden ascendente) de los ítems elegidos, el total gastado en centavos 
+ * y si la selección está garantizada como óptima.
+ */
+public final class Selection {
+
+    private final int[] indices;
+    private final long total;
+    private final boolean optimal;
+
+    public Selection(int[] indices, long total, boolean optimal) {
+        this.indices = indices;
+        this.total = total;
+        this.optimal = optimal;
+    }
+
+    public int[] getIndices() {
+        return indices;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public boolean isOptimal() {
+        return optimal;
+    }
+}
@@ -0,0 +1,120 @@
+package com.meli.cupon.stats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Estructura en memoria para obtener los K elementos más frecuentes (algoritmo Space-Saving).
+ * 
+ * Monitorea como máximo `capacity` elementos. Cuando llega uno nuevo y no hay lugar, reemplaza al 
+ * de menor cuenta y hereda esa cuenta como error máximo, por lo que los elementos realmente 
+ * frecuentes nunca se pierden. Las cuentas se mantienen ordenadas, así que obtener los K primeros 
+ * cuesta O(K) y cada actualización O(log capacity).
+ * 
+ * Con {@link #reset(Map)} se vuelve a sembrar con cuentas exactas, lo que corrige el error acumulado.
+ */
+public class TopKSketch {
+
+    private static final Comparator<Counter> BY_COUNT_DESC = Comparator
+            .comparingLong((Counter c) -> c.count).reversed()
+            .thenComparing(c -> c.key);
+
+    private final int capacity;
+    private final Map<String, Counter> counters = new HashMap<>();
+    private final TreeSet<Counter> ranking = new TreeSet<>(BY_COUNT_DESC);
+
+    public TopKSketch(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Suma `delta` a la cuenta de un elemento.
+     * 
+     * Los decrementos solo se aplican a elementos monitoreados; una cuenta nunca baja de cero.
+     * 
+     * @param key Elemento.
+     * @param delta Cantidad a sumar (negativa para restar).
+     */
+    public synchronized void add(String key, long delta) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            ranking.remove(counter);
+            counter.count = Math.max(0, counter.count + delta);
+            ranking.add(counter);
+        } else if (delta <= 0) {
+            return;
+        } else if (counters.size() < capacity) {
+            counter = new Counter(key, delta);
+            counters.put(key, counter);
+            ranking.add(counter);
+        } else {
+            // Reemplaza al elemento de menor cuenta; el nuevo hereda esa cuenta (sobreestimación acotada)
+            Counter min = ranking.pollLast();
+            counters.remove(min.key);
+            counter = new Counter(key, min.count + delta);
+            counters.put(key, counter);
+            ranking.add(counter);
+        }
+    }
+
+    /**
+     * Reemplaza todo el contenido por cuentas exactas.
+     * 
+     * @param exactCounts Cuentas exactas por elemento; se conservan las `capacity` más altas.
+     */
+    public synchronized void reset(Map<String, Long> exactCounts) {
+        counters.clear();
+        ranking.clear();
+        exactCounts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(capacity)
+                .forEach(entry -> {
+                    Counter counter = new Counter(entry.getKey(), entry.getValue());
+                    counters.put(entry.getKey(), counter);
+                    ranking.add(counter);
+                });
+    }
+
+    /**
+     * Devuelve los `k` elementos con mayor cuenta, en orden descendente.
+     * 
+     * @param k Cantidad de elementos a devolver.
+     * @return Pares (elemento, cuenta estimada) ordenados por cuenta.
+     */
+    public synchronized List<Map.Entry<String, Long>> top(int k) {
+        List<Map.Entry<String, Long>> result = new ArrayList<>(Math.min(k, ranking.size()));
+        Iterator<Counter> it = ranking.iterator();
+        while (it.hasNext() && result.size() < k) {
+            Counter counter = it.next();
+            if (counter.count > 0) {
+                result.add(Map.entry(counter.key, counter.count));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Devuelve la cantidad de elementos monitoreados.
+     * 
+     * @return La cantidad de elementos monitoreados.
+     */
+    public synchronized int size() {
+        return counters.size();
+    }
+
+    private static final class Counter {
+
+        private final String key;
+        private long count;
+
+        private Counter(String key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+-- Agregado de favoritos por ítem, mantenido de forma incremental y reconstruido periódicamente
+-- desde la tabla favorites.
+CREATE TABLE IF NOT EXISTS item_favorite_counts (
+    item_id  VARCHAR(255) NOT NULL,
+    quantity BIGINT       NOT NULL,
+    PRIMARY KEY (item_id)
+);
+
+CREATE INDEX idx_item_favorite_counts_quantity ON item_favorite_counts (quantity);
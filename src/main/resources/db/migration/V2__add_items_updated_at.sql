@@ -0,0 +1,9 @@
+-- Espejo local de precios: los ítems obtenidos de la API se guardan con la fecha (UTC) de su
+-- última actualización, para servirlos en frío o durante una caída de la API.
+CREATE TABLE IF NOT EXISTS items (
+    id    VARCHAR(255) NOT NULL,
+    price DOUBLE       NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE items ADD COLUMN updated_at DATETIME(6) NULL;
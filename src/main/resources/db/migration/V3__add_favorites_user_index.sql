@@ -0,0 +1,9 @@
+-- Índice de cobertura para leer los favoritos de un usuario: la clave primaria empieza por
+-- item_id, así que sin este índice la búsqueda por user_id recorre toda la tabla.
+CREATE TABLE IF NOT EXISTS favorites (
+    item_id VARCHAR(255) NOT NULL,
+    user_id BIGINT       NOT NULL,
+    PRIMARY KEY (item_id, user_id)
+);
+
+CREATE INDEX idx_favorites_user_item ON favorites (user_id, item_id);
@@ -0,0 +1,10 @@
+-- Turnos de las tareas programadas que deben ejecutarse en una sola instancia a la vez.
+-- locked_until está en milisegundos desde la época, así no depende de la zona horaria.
+CREATE TABLE IF NOT EXISTS scheduled_locks (
+    name         VARCHAR(64)  NOT NULL,
+    locked_until BIGINT       NOT NULL,
+    locked_by    VARCHAR(255) NOT NULL,
+    PRIMARY KEY (name)
+);
+
+INSERT INTO scheduled_locks (name, locked_until, locked_by) VALUES ('favorites-reconcile', 0, '');
@@ -0,0 +1,90 @@
+package com.meli.cupon;
+
+import com.meli.cupon.admission.AdaptiveConcurrencyLimiter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void testRejectsAboveLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0.5, 2.0);
+
+        // Act
+        boolean first = limiter.tryAcquire();
+        boolean second = limiter.tryAcquire();
+        boolean third = limiter.tryAcquire();
+        limiter.release(10 * MILLIS, false);
+        boolean afterRelease = limiter.tryAcquire();
+
+        // Assert
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertTrue(afterRelease);
+        assertEquals(2, limiter.inFlight());
+    }
+
+    @Test
+    void testLimitShrinksWhenLatencyGrowsAndRecovers() {
+        // Arrange: latencia habitual de 10 ms con el límite en uso
+        AtomicLong clock = new AtomicLong();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 40, 0.5, 2.0, clock::get);
+        for (int i = 0; i < 200; i++) {
+            run(limiter, clock, 10 * MILLIS);
+        }
+        int steady = limiter.limit();
+
+        // Act: la latencia se multiplica por 10 durante un rato y después vuelve a la normalidad
+        for (int i = 0; i < 20; i++) {
+            run(limiter, clock, 100 * MILLIS);
+        }
+        int congested = limiter.limit();
+        for (int i = 0; i < 2000; i++) {
+            run(limiter, clock, 10 * MILLIS);
+        }
+
+        // Assert
+        assertTrue(steady > 20, "el límite crece mientras se usa: " + steady);
+        assertEquals(4, congested);
+        assertTrue(limiter.limit() > 20, "el límite se recupera: " + limiter.limit());
+    }
+
+    @Test
+    void testFailuresShrinkLimitOncePerLatency() {
+        // Arrange
+        AtomicLong clock = new AtomicLong();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(32, 1, 64, 0.5, 2.0, clock::get);
+        run(limiter, clock, 10 * MILLIS);
+        int before = limiter.limit();
+
+        // Act: varios errores que terminan juntos cuentan como una sola señal
+        clock.addAndGet(10 * MILLIS);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+        }
+        for (int i = 0; i < 5; i++) {
+            limiter.release(MILLIS, true);
+        }
+
+        // Assert
+        assertEquals(before / 2, limiter.limit());
+    }
+
+    // Simula una tanda de solicitudes que ocupa todo el límite
+    private static void run(AdaptiveConcurrencyLimiter limiter, AtomicLong clock, long nanos) {
+        int busy = limiter.limit();
+        for (int i = 0; i < busy; i++) {
+            limiter.tryAcquire();
+        }
+        clock.addAndGet(nanos);
+        for (int i = 0; i < busy; i++) {
+            limiter.release(nanos, false);
+        }
+    }
+}
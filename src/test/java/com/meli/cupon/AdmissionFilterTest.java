@@ -0,0 +1,146 @@
+package com.meli.cupon;
+
+import com.meli.cupon.admission.AdaptiveConcurrencyLimiter;
+import com.meli.cupon.admission.AdmissionFilter;
+import com.meli.cupon.admission.AdmissionWebFilter;
+import com.meli.cupon.admission.UserRateLimiter;
+import com.meli.cupon.config.AdmissionProperties;
+import com.meli.cupon.config.DeadlineProperties;
+import com.meli.cupon.metrics.CouponMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionFilterTest {
+
+    @BeforeAll
+    static void warmUp() throws Exception {
+        // La primera solicitud carga clases y sería la latencia habitual de la primera prueba
+        servlet(newFilter(newLimiter()), "/coupon/", null, 0, 200);
+        reactive(newWebFilter(newLimiter()), "/coupon/", null, 0, HttpStatus.OK);
+    }
+
+    @Test
+    void testMixedTrafficDoesNotShrinkLimit() throws Exception {
+        // Arrange: solicitudes individuales de 1 ms, que fijan la latencia habitual
+        AdaptiveConcurrencyLimiter limiter = newLimiter();
+        AdmissionFilter filter = newFilter(limiter);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(200, servlet(filter, "/coupon/", null, 1, 200));
+        }
+
+        // Act: lotes y streams lentos, y solicitudes que vencen por el plazo corto que pidió el cliente
+        for (int i = 0; i < 5; i++) {
+            servlet(filter, "/coupon/batch", null, 60, 200);
+            servlet(filter, "/coupon/stream", null, 60, 200);
+            servlet(filter, "/coupon/", "1", 60, 504);
+        }
+
+        // Assert
+        assertEquals(20, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void testServerTimeoutShrinksLimit() throws Exception {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = newLimiter();
+        AdmissionFilter filter = newFilter(limiter);
+        for (int i = 0; i < 50; i++) {
+            servlet(filter, "/coupon/", null, 1, 200);
+        }
+
+        // Act: un 504 con el plazo por defecto, o con uno más largo, sí es señal de sobrecarga
+        servlet(filter, "/coupon/", null, 5, 504);
+        int afterDefault = limiter.limit();
+        servlet(filter, "/coupon/", "5000", 5, 504);
+
+        // Assert
+        assertEquals(10, afterDefault);
+        assertEquals(5, limiter.limit());
+    }
+
+    @Test
+    void testReactiveMixedTrafficDoesNotShrinkLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = newLimiter();
+        AdmissionWebFilter filter = newWebFilter(limiter);
+        for (int i = 0; i < 50; i++) {
+            reactive(filter, "/coupon/", null, 1, HttpStatus.OK);
+        }
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            reactive(filter, "/coupon/batch", null, 60, HttpStatus.OK);
+            reactive(filter, "/coupon/", "1", 60, HttpStatus.GATEWAY_TIMEOUT);
+        }
+        int mixed = limiter.limit();
+        reactive(filter, "/coupon/", null, 5, HttpStatus.GATEWAY_TIMEOUT);
+
+        // Assert
+        assertEquals(20, mixed);
+        assertEquals(10, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    // El reloj del límite avanza un segundo por lectura, así cada señal de sobrecarga lo reduce
+    private static AdaptiveConcurrencyLimiter newLimiter() {
+        AtomicLong clock = new AtomicLong();
+        return new AdaptiveConcurrencyLimiter(20, 4, 40, 0.5, 20.0, () -> clock.addAndGet(TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    private static AdmissionWebFilter newWebFilter(AdaptiveConcurrencyLimiter limiter) {
+        return new AdmissionWebFilter(new AdmissionProperties(), limiter, new UserRateLimiter(0, 1, 16),
+                new DeadlineProperties(), new CouponMetrics(new SimpleMeterRegistry()));
+    }
+
+    private static AdmissionFilter newFilter(AdaptiveConcurrencyLimiter limiter) {
+        return new AdmissionFilter(new AdmissionProperties(), limiter, new UserRateLimiter(0, 1, 16),
+                new DeadlineProperties(), new CouponMetrics(new SimpleMeterRegistry()));
+    }
+
+    // Ejecuta una solicitud que tarda `millis` y termina con `status`
+    private static int servlet(AdmissionFilter filter, String path, String timeout, long millis, int status)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        if (timeout != null) {
+            request.addHeader(DeadlineProperties.HEADER, timeout);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            sleep(millis);
+            response.setStatus(status);
+        });
+        return response.getStatus();
+    }
+
+    private static void reactive(AdmissionWebFilter filter, String path, String timeout, long millis, HttpStatus status) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.post(path);
+        if (timeout != null) {
+            request.header(DeadlineProperties.HEADER, timeout);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, ex -> Mono.fromRunnable(() -> {
+            sleep(millis);
+            ex.getResponse().setStatusCode(status);
+        })).block(Duration.ofSeconds(5));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.meli.cupon;
+
+import com.meli.cupon.metrics.CouponMetrics;
+import com.meli.cupon.model.Cart;
+import com.meli.cupon.model.Deadline;
+import com.meli.cupon.model.entity.Item;
+import com.meli.cupon.model.response.CuponResponse;
+import com.meli.cupon.service.CuponService;
+import com.meli.cupon.service.solver.GreedyCuponSolver;
+import com.meli.cupon.service.solver.KnapsackCuponSolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CartTest {
+
+    @Test
+    void testCartKeepsOrderAndCents() {
+        Cart cart = Cart.of(List.of(item("MLA1", 0.1), item("MLA2", 0.2), item("MLA3", 19.99)));
+
+        assertEquals(3, cart.size());
+        assertArrayEquals(new long[]{10, 20, 1999}, cart.cents());
+        assertEquals(List.of("MLA3", "MLA1"), cart.ids(new int[]{2, 0}));
+    }
+
+    @Test
+    void testTotalsAreExactInCents() {
+        // Arrange: en double 0.1 + 0.2 da 0.30000000000000004
+        CuponService cuponService = new CuponService();
+        ReflectionTestUtils.setField(cuponService, "solvers", Map.of(
+                KnapsackCuponSolver.NAME, new KnapsackCuponSolver(1_000_000),
+                GreedyCuponSolver.NAME, new GreedyCuponSolver()));
+        ReflectionTestUtils.setField(cuponService, "couponMetrics", new CouponMetrics(new SimpleMeterRegistry()));
+        Cart cart = Cart.of(List.of(item("MLA1", 0.1), item("MLA2", 0.2), item("MLA3", 0.29)));
+
+        // Act
+        CuponResponse knapsack = cuponService.calculateOptimalItems(cart, 0.3, KnapsackCuponSolver.NAME, Deadline.none());
+        CuponResponse greedy = cuponService.calculateOptimalItems(cart, 0.3, GreedyCuponSolver.NAME, Deadline.none());
+
+        // Assert
+        assertEquals(0.3, knapsack.getTotal());
+        assertEquals(List.of("MLA1", "MLA2"), knapsack.getItemIds());
+        assertEquals(0.3, greedy.getTotal());
+        assertEquals(29, Cart.budgetCents(0.29));
+    }
+
+    private static Item item(String id, double price) {
+        Item item = new Item();
+        item.setId(id);
+        item.setPrice(price);
+        return item;
+    }
+}
@@ -0,0 +1,57 @@
+package com.meli.cupon;
+
+import com.meli.cupon.metrics.CouponMetrics;
+import com.meli.cupon.model.entity.Item;
+import com.meli.cupon.model.response.CuponResponse;
+import com.meli.cupon.service.CuponService;
+import com.meli.cupon.service.solver.KnapsackCuponSolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CouponMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CouponMetrics couponMetrics = new CouponMetrics(registry);
+
+    @Test
+    void testSolveAndCartAreRecorded() {
+        // Arrange
+        CuponService cuponService = new CuponService();
+        ReflectionTestUtils.setField(cuponService, "solvers", Map.of(KnapsackCuponSolver.NAME, new KnapsackCuponSolver(1_000_000)));
+        ReflectionTestUtils.setField(cuponService, "defaultStrategy", KnapsackCuponSolver.NAME);
+        ReflectionTestUtils.setField(cuponService, "couponMetrics", couponMetrics);
+
+        // Act
+        CuponResponse response = cuponService.calculateOptimalItems(List.of(item("MLA1", 100.0), item("MLA2", 210.0)), 250.0);
+
+        // Assert: una selección medida por estrategia y el tamaño del carrito registrado
+        assertEquals(210.0, response.getTotal());
+        assertEquals(1, registry.get("cupon.solve").tag("strategy", "knapsack").tag("optimal", "true").timer().count());
+        assertEquals(2.0, registry.get("cupon.cart.size").summary().totalAmount());
+        assertEquals(250.0, registry.get("cupon.budget").summary().totalAmount());
+    }
+
+    @Test
+    void testFetchOutcomeIsTagged() {
+        // Act: una obtención exitosa y una fallida
+        couponMetrics.timeFetch(Mono.just("ok")).block();
+        assertThrows(IllegalStateException.class,
+                () -> couponMetrics.timeFetch(Mono.error(new IllegalStateException("caída"))).block());
+
+        // Assert
+        assertEquals(1, registry.get("cupon.fetch").tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get("cupon.fetch").tag("outcome", "error").timer().count());
+    }
+
+    private static Item item(String id, double price) {
+        Item item = new Item();
+        item.setId(id);
+        item.setPrice(price);
+        return item;
+    }
+}
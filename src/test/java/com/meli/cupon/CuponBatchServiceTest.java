@@ -0,0 +1,96 @@
+package com.meli.cupon;
+
+import com.meli.cupon.metrics.CouponMetrics;
+import com.meli.cupon.model.Deadline;
+import com.meli.cupon.model.ItemFetchResult;
+import com.meli.cupon.model.entity.Item;
+import com.meli.cupon.model.response.CuponBatchResult;
+import com.meli.cupon.model.response.CuponRequest;
+import com.meli.cupon.service.CuponBatchService;
+import com.meli.cupon.service.CuponService;
+import com.meli.cupon.service.ItemService;
+import com.meli.cupon.service.solver.KnapsackCuponSolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CuponBatchServiceTest {
+
+    @Mock
+    private ItemService itemService;  // Mockeamos la obtención de ítems
+
+    private final CuponBatchService cuponBatchService = new CuponBatchService(2);
+
+    @AfterEach
+    void tearDown() {
+        cuponBatchService.shutdown();
+    }
+
+    @Test
+    void testItemsAreFetchedOnceAndResultsKeepOrder() {
+        // Arrange: tres pedidos que comparten ítems y uno vacío
+        Map<String, Optional<Item>> catalog = Map.of(
+                "MLA1", Optional.of(item("MLA1", 100.0)),
+                "MLA2", Optional.of(item("MLA2", 210.0)),
+                "MLA3", Optional.of(item("MLA3", 80.0)));
+        when(itemService.fetchCatalogBlocking(anyList(), any())).thenReturn(catalog);
+        when(itemService.select(anyList(), eq(catalog))).thenAnswer(invocation -> {
+            List<String> itemIds = invocation.getArgument(0);
+            List<Item> items = new ArrayList<>();
+            itemIds.forEach(itemId -> catalog.get(itemId).ifPresent(items::add));
+            return new ItemFetchResult(items, List.of());
+        });
+        ReflectionTestUtils.setField(cuponBatchService, "itemService", itemService);
+        ReflectionTestUtils.setField(cuponBatchService, "cuponService", newCuponService());
+        ReflectionTestUtils.setField(cuponBatchService, "maxSize", 10);
+        List<CuponRequest> requests = List.of(
+                request(250.0, "MLA1", "MLA2"),
+                request(200.0, "MLA2", "MLA3", "MLA1"),
+                request(100.0));
+
+        // Act
+        List<CuponBatchResult> results = cuponBatchService.evaluate(requests, Deadline.none(), 0.8);
+
+        // Assert: una sola obtención con la unión de IDs y los resultados en el orden del lote
+        verify(itemService, times(1)).fetchCatalogBlocking(eq(List.of("MLA1", "MLA2", "MLA3")), any());
+        assertEquals(3, results.size());
+        assertEquals(210.0, results.get(0).getResponse().getTotal());
+        assertEquals(180.0, results.get(1).getResponse().getTotal());
+        assertNull(results.get(2).getResponse());
+        assertNotNull(results.get(2).getError());
+    }
+
+    private static CuponService newCuponService() {
+        CuponService cuponService = new CuponService();
+        ReflectionTestUtils.setField(cuponService, "solvers", Map.of(KnapsackCuponSolver.NAME, new KnapsackCuponSolver(1_000_000)));
+        ReflectionTestUtils.setField(cuponService, "defaultStrategy", KnapsackCuponSolver.NAME);
+        ReflectionTestUtils.setField(cuponService, "couponMetrics", new CouponMetrics(new SimpleMeterRegistry()));
+        return cuponService;
+    }
+
+    private static CuponRequest request(double amount, String... itemIds) {
+        CuponRequest request = new CuponRequest();
+        request.setItemIds(List.of(itemIds));
+        request.setAmount(amount);
+        return request;
+    }
+
+    private static Item item(String id, double price) {
+        Item item = new Item();
+        item.setId(id);
+        item.setPrice(price);
+        return item;
+    }
+}
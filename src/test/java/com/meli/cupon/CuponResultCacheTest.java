@@ -0,0 +1,276 @@
+package com.meli.cupon;
+
+import com.meli.cupon.cache.CuponResultCache;
+import com.meli.cupon.metrics.CouponMetrics;
+import com.meli.cupon.model.Cart;
+import com.meli.cupon.model.Deadline;
+import com.meli.cupon.model.entity.Item;
+import com.meli.cupon.model.response.CuponResponse;
+import com.meli.cupon.service.CuponService;
+import com.meli.cupon.service.solver.CuponSolver;
+import com.meli.cupon.service.solver.KnapsackCuponSolver;
+import com.meli.cupon.service.solver.Selection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CuponResultCacheTest {
+
+    @Test
+    void testIdenticalCartsAreSolvedOnce() {
+        // Arrange: el mismo carrito en otro orden y luego con un precio distinto
+        CountingSolver solver = new CountingSolver(new KnapsackCuponSolver(1_000_000));
+        CuponService cuponService = newCuponService(solver);
+        Cart cart = Cart.of(List.of(item("MLA1", 100.0), item("MLA2", 210.0), item("MLA3", 80.0)));
+        Cart reordered = Cart.of(List.of(item("MLA3", 80.0), item("MLA2", 210.0), item("MLA1", 100.0)));
+        Cart repriced = Cart.of(List.of(item("MLA1", 100.0), item("MLA2", 200.0), item("MLA3", 80.0)));
+
+        // Act
+        CuponResponse first = cuponService.calculateOptimalItems(cart, 300.0, KnapsackCuponSolver.NAME, Deadline.none());
+        CuponResponse second = cuponService.calculateOptimalItems(reordered, 300.0, KnapsackCuponSolver.NAME, Deadline.none());
+        CuponResponse third = cuponService.calculateOptimalItems(repriced, 300.0, KnapsackCuponSolver.NAME, Deadline.none());
+
+        // Assert: el reordenado reutiliza el resultado (en su propio orden) y el cambio de precio no
+        assertEquals(List.of("MLA2", "MLA3"), first.getItemIds());
+        assertEquals(List.of("MLA3", "MLA2"), second.getItemIds());
+        assertEquals(290.0, second.getTotal());
+        assertEquals(List.of("MLA1", "MLA2"), third.getItemIds());
+        assertEquals(2, solver.calls.get());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void testConcurrentIdenticalRequestsComputeOnce() throws Exception {
+        // Arrange: la estrategia tarda hasta que todos los pedidos están en vuelo
+        CountDownLatch release = new CountDownLatch(1);
+        CountingSolver solver = new CountingSolver((prices, budget) -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new KnapsackCuponSolver(1_000_000).solve(prices, budget);
+        });
+        CuponService cuponService = newCuponService(solver);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            // Act
+            List<CompletableFuture<CuponResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                Cart cart = Cart.of(List.of(item("MLA1", 100.0), item("MLA2", 210.0)));
+                responses.add(CompletableFuture.supplyAsync(
+                        () -> cuponService.calculateOptimalItems(cart, 250.0, KnapsackCuponSolver.NAME, Deadline.none()), executor));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            // Assert
+            for (CompletableFuture<CuponResponse> response : responses) {
+                assertEquals(210.0, response.get(5, TimeUnit.SECONDS).getTotal());
+            }
+            assertEquals(1, solver.calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testNonOptimalResultsAreNotKept() {
+        // Arrange: una estrategia que siempre se queda sin tiempo
+        CountingSolver solver = new CountingSolver((prices, budget) -> new Selection(new int[]{0}, prices[0], false));
+        CuponService cuponService = newCuponService(solver);
+        Cart cart = Cart.of(List.of(item("MLA1", 100.0), item("MLA2", 210.0)));
+
+        // Act
+        cuponService.calculateOptimalItems(cart, 250.0, KnapsackCuponSolver.NAME, Deadline.none());
+        CuponResponse second = cuponService.calculateOptimalItems(cart, 250.0, KnapsackCuponSolver.NAME, Deadline.none());
+
+        // Assert
+        assertFalse(second.isOptimal());
+        assertEquals(2, solver.calls.get());
+    }
+
+    @Test
+    void testWaitersRecomputeWhenFirstResultIsCutShort() throws Exception {
+        // Arrange: el primer cálculo se queda sin tiempo mientras los demás pedidos esperan
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger order = new AtomicInteger();
+        CountingSolver solver = new CountingSolver((prices, budget) -> {
+            if (order.getAndIncrement() == 0) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new Selection(new int[]{0}, prices[0], false);
+            }
+            return new KnapsackCuponSolver(1_000_000).solve(prices, budget);
+        });
+        CuponService cuponService = newCuponService(solver);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // Act
+            List<CompletableFuture<CuponResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                Cart cart = Cart.of(List.of(item("MLA1", 100.0), item("MLA2", 210.0)));
+                responses.add(CompletableFuture.supplyAsync(
+                        () -> cuponService.calculateOptimalItems(cart, 250.0, KnapsackCuponSolver.NAME, Deadline.none()), executor));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            List<CuponResponse> results = new ArrayList<>();
+            for (CompletableFuture<CuponResponse> response : responses) {
+                results.add(response.get(5, TimeUnit.SECONDS));
+            }
+
+            // Assert: solo el primero recibe el resultado recortado
+            assertEquals(1, results.stream().filter(response -> !response.isOptimal()).count());
+            assertEquals(3, results.stream().filter(response -> response.getTotal() == 210.0).count());
+            assertEquals(4, solver.calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testWaiterStopsWaitingAtItsDeadline() throws Exception {
+        // Arrange: un cálculo lento en curso y un pedido idéntico con poco tiempo
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger order = new AtomicInteger();
+        CountingSolver solver = new CountingSolver((prices, budget) -> {
+            if (order.getAndIncrement() == 0) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new KnapsackCuponSolver(1_000_000).solve(prices, budget);
+        });
+        CuponService cuponService = newCuponService(solver);
+        Cart cart = Cart.of(List.of(item("MLA1", 100.0), item("MLA2", 210.0)));
+        CompletableFuture<CuponResponse> slow = CompletableFuture.supplyAsync(
+                () -> cuponService.calculateOptimalItems(cart, 250.0, KnapsackCuponSolver.NAME, Deadline.none()));
+        try {
+            Thread.sleep(100);
+
+            // Act
+            long start = System.nanoTime();
+            CuponResponse hurried = cuponService.calculateOptimalItems(cart, 250.0, KnapsackCuponSolver.NAME,
+                    Deadline.after(Duration.ofMillis(50)));
+            long waited = System.nanoTime() - start;
+
+            // Assert: no espera al cálculo ajeno más allá de su límite y calcula por su cuenta
+            assertTrue(waited < TimeUnit.SECONDS.toNanos(1), "esperó " + waited + " ns");
+            assertNotNull(hurried);
+            assertEquals(2, solver.calls.get());
+        } finally {
+            release.countDown();
+            slow.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void testReactiveWaiterDoesNotBlockWhileSharedComputationRuns() throws Exception {
+        // Arrange: un cálculo lento en curso
+        CountDownLatch release = new CountDownLatch(1);
+        CountingSolver solver = new CountingSolver((prices, budget) -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new KnapsackCuponSolver(1_000_000).solve(prices, budget);
+        });
+        CuponService cuponService = newCuponService(solver);
+        List<Item> items = List.of(item("MLA1", 100.0), item("MLA2", 210.0));
+        CompletableFuture<CuponResponse> slow = CompletableFuture.supplyAsync(
+                () -> cuponService.calculateOptimalItems(Cart.of(items), 250.0, KnapsackCuponSolver.NAME, Deadline.none()));
+        try {
+            Thread.sleep(100);
+
+            // Act: suscribirse devuelve el control enseguida, sin esperar el cálculo ajeno
+            CompletableFuture<CuponResponse> waiter = cuponService
+                    .calculateOptimalItemsReactive(items, 250.0, Deadline.none())
+                    .toFuture();
+            boolean doneBeforeRelease = waiter.isDone();
+            release.countDown();
+
+            // Assert
+            assertFalse(doneBeforeRelease);
+            assertEquals(210.0, waiter.get(5, TimeUnit.SECONDS).getTotal());
+            assertEquals(1, solver.calls.get());
+        } finally {
+            release.countDown();
+            slow.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void testFailedComputationIsNotCached() {
+        // Arrange: el primer cálculo falla
+        AtomicInteger order = new AtomicInteger();
+        CountingSolver solver = new CountingSolver((prices, budget) -> {
+            if (order.getAndIncrement() == 0) {
+                throw new IllegalStateException("falla");
+            }
+            return new KnapsackCuponSolver(1_000_000).solve(prices, budget);
+        });
+        CuponService cuponService = newCuponService(solver);
+        Cart cart = Cart.of(List.of(item("MLA1", 100.0), item("MLA2", 210.0)));
+
+        // Act
+        assertThrows(IllegalStateException.class,
+                () -> cuponService.calculateOptimalItems(cart, 250.0, KnapsackCuponSolver.NAME, Deadline.none()));
+        CuponResponse second = cuponService.calculateOptimalItems(cart, 250.0, KnapsackCuponSolver.NAME, Deadline.none());
+        CuponResponse third = cuponService.calculateOptimalItems(cart, 250.0, KnapsackCuponSolver.NAME, Deadline.none());
+
+        // Assert
+        assertEquals(210.0, second.getTotal());
+        assertEquals(210.0, third.getTotal());
+        assertEquals(2, solver.calls.get());
+    }
+
+    private static CuponService newCuponService(CuponSolver solver) {
+        CuponService cuponService = new CuponService();
+        ReflectionTestUtils.setField(cuponService, "solvers", Map.of(KnapsackCuponSolver.NAME, solver));
+        ReflectionTestUtils.setField(cuponService, "couponMetrics", new CouponMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(cuponService, "cuponResultCache", new CuponResultCache(100, Duration.ofMinutes(1)));
+        ReflectionTestUtils.setField(cuponService, "defaultStrategy", KnapsackCuponSolver.NAME);
+        return cuponService;
+    }
+
+    private static Item item(String id, double price) {
+        Item item = new Item();
+        item.setId(id);
+        item.setPrice(price);
+        return item;
+    }
+
+    private static final class CountingSolver implements CuponSolver {
+
+        private final CuponSolver delegate;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        CountingSolver(CuponSolver delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Selection solve(long[] prices, long budget) {
+            calls.incrementAndGet();
+            return delegate.solve(prices, budget);
+        }
+    }
+}
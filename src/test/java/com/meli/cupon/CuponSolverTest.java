@@ -0,0 +1,115 @@
+package com.meli.cupon;
+
+import com.meli.cupon.model.Deadline;
+import com.meli.cupon.service.solver.GreedyCuponSolver;
+import com.meli.cupon.service.solver.KnapsackCuponSolver;
+import com.meli.cupon.service.solver.Selection;
+import java.time.Duration;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CuponSolverTest {
+
+    private final KnapsackCuponSolver knapsack = new KnapsackCuponSolver(1_000_000);
+    private final GreedyCuponSolver greedy = new GreedyCuponSolver();
+
+    @Test
+    void testKnapsackSpendsMoreThanGreedy() {
+        // Arrange: el ejemplo donde la estrategia voraz deja dinero sin gastar
+        long[] prices = {10000, 21000, 22000, 26000, 8000, 9000};
+        long budget = 50000;
+
+        // Act
+        Selection exact = knapsack.solve(prices, budget);
+        Selection cheapestFirst = greedy.solve(prices, budget);
+
+        // Assert: la mochila llega a 490 y la voraz se queda en 480
+        assertEquals(49000, exact.getTotal());
+        assertTrue(exact.isOptimal());
+        assertEquals(48000, cheapestFirst.getTotal());
+        assertEquals(exact.getTotal(), sum(prices, exact.getIndices()));
+    }
+
+    @Test
+    void testExpiredDeadlineReturnsBestSoFar() {
+        // Arrange: un carrito grande y un límite que ya venció
+        Random random = new Random(7);
+        long[] prices = new long[500];
+        long sum = 0;
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 100 + random.nextInt(5_000);
+            sum += prices[i];
+        }
+        long budget = sum / 3;
+
+        // Act
+        Selection partial = knapsack.solve(prices, budget, Deadline.after(Duration.ZERO));
+        Selection exact = knapsack.solve(prices, budget);
+
+        // Assert: la selección parcial es válida, no se declara óptima y no supera a la exacta
+        assertTrue(exact.isOptimal());
+        assertFalse(partial.isOptimal());
+        assertTrue(partial.getTotal() <= budget);
+        assertEquals(partial.getTotal(), sum(prices, partial.getIndices()));
+        assertTrue(partial.getTotal() <= exact.getTotal());
+        assertTrue(partial.getTotal() > budget * 0.99);
+    }
+
+    @Test
+    void testKnapsackMatchesBruteForce() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            int n = 1 + random.nextInt(12);
+            long[] prices = new long[n];
+            for (int i = 0; i < n; i++) {
+                prices[i] = 1 + random.nextInt(50_000);
+            }
+            long budget = random.nextInt(150_000);
+
+            Selection selection = knapsack.solve(prices, budget);
+
+            assertEquals(bruteForce(prices, budget), selection.getTotal());
+            assertEquals(selection.getTotal(), sum(prices, selection.getIndices()));
+        }
+    }
+
+    @Test
+    void testKnapsackBoundsCapacity() {
+        // Arrange: un monto mayor que la capacidad configurada obliga a redondear los precios
+        KnapsackCuponSolver bounded = new KnapsackCuponSolver(1_000);
+        long[] prices = {333_337, 499_999, 250_001, 700_003};
+
+        // Act
+        Selection selection = bounded.solve(prices, 1_000_000);
+
+        // Assert: la selección nunca excede el monto aunque no se garantice óptima
+        assertFalse(selection.isOptimal());
+        assertTrue(selection.getTotal() <= 1_000_000);
+        assertEquals(selection.getTotal(), sum(prices, selection.getIndices()));
+    }
+
+    private static long bruteForce(long[] prices, long budget) {
+        long best = 0;
+        for (int mask = 0; mask < (1 << prices.length); mask++) {
+            long total = 0;
+            for (int i = 0; i < prices.length; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    total += prices[i];
+                }
+            }
+            if (total <= budget && total > best) {
+                best = total;
+            }
+        }
+        return best;
+    }
+
+    private static long sum(long[] prices, int[] indices) {
+        long total = 0;
+        for (int i : indices) {
+            total += prices[i];
+        }
+        return total;
+    }
+}
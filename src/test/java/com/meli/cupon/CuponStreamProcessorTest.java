@@ -0,0 +1,185 @@
+package com.meli.cupon;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meli.cupon.config.DeadlineProperties;
+import com.meli.cupon.exception.DeadlineExceededException;
+import com.meli.cupon.metrics.CouponMetrics;
+import com.meli.cupon.model.ItemFetchResult;
+import com.meli.cupon.model.entity.Item;
+import com.meli.cupon.model.response.CuponBatchResult;
+import com.meli.cupon.model.response.CuponRequest;
+import com.meli.cupon.service.CuponBatchService;
+import com.meli.cupon.service.CuponService;
+import com.meli.cupon.service.CuponStreamProcessor;
+import com.meli.cupon.service.ItemService;
+import com.meli.cupon.service.solver.KnapsackCuponSolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CuponStreamProcessorTest {
+
+    @Mock
+    private ItemService itemService;  // Mockeamos la obtención de ítems
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final CuponBatchService cuponBatchService = new CuponBatchService(2);
+
+    private final CuponStreamProcessor cuponStreamProcessor = new CuponStreamProcessor(objectMapper);
+
+    private final Map<String, Optional<Item>> catalog = Map.of(
+            "MLA1", Optional.of(item("MLA1", 100.0)),
+            "MLA2", Optional.of(item("MLA2", 210.0)));
+
+    @BeforeEach
+    void setUp() {
+        CuponService cuponService = new CuponService();
+        ReflectionTestUtils.setField(cuponService, "solvers", Map.of(KnapsackCuponSolver.NAME, new KnapsackCuponSolver(1_000_000)));
+        ReflectionTestUtils.setField(cuponService, "defaultStrategy", KnapsackCuponSolver.NAME);
+        ReflectionTestUtils.setField(cuponService, "couponMetrics", new CouponMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(cuponBatchService, "itemService", itemService);
+        ReflectionTestUtils.setField(cuponBatchService, "cuponService", cuponService);
+        ReflectionTestUtils.setField(cuponBatchService, "maxSize", 10);
+        ReflectionTestUtils.setField(cuponStreamProcessor, "itemService", itemService);
+        ReflectionTestUtils.setField(cuponStreamProcessor, "cuponBatchService", cuponBatchService);
+        ReflectionTestUtils.setField(cuponStreamProcessor, "deadlineProperties", new DeadlineProperties());
+        ReflectionTestUtils.setField(cuponStreamProcessor, "windowSize", 2);
+        ReflectionTestUtils.setField(cuponStreamProcessor, "windowTimeout", Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cuponBatchService.shutdown();
+    }
+
+    @Test
+    void testLinesAreProcessedByWindowInOrder() throws Exception {
+        // Arrange: cinco pedidos en ventanas de dos
+        stubSelect();
+        when(itemService.fetchCatalogBlocking(anyList(), any())).thenReturn(catalog);
+        String input = """
+                {"itemIds":["MLA1","MLA2"],"amount":250}
+                {"itemIds":[],"amount":50}
+                {"itemIds":["MLA2","MLA1"],"amount":400}
+
+                {"itemIds":["MLA2"],"amount":300}
+                {"itemIds":["MLA1","MLA2"],"amount":120}
+                """;
+
+        // Act
+        List<JsonNode> lines = process(input, 5);
+
+        // Assert: una obtención por ventana y un resultado por línea en el mismo orden
+        verify(itemService, times(3)).fetchCatalogBlocking(anyList(), any());
+        assertEquals(210.0, lines.get(0).at("/response/total").asDouble());
+        assertTrue(lines.get(1).has("error"));
+        assertEquals(310.0, lines.get(2).at("/response/total").asDouble());
+        assertEquals(210.0, lines.get(3).at("/response/total").asDouble());
+        assertEquals(100.0, lines.get(4).at("/response/total").asDouble());
+    }
+
+    @Test
+    void testFailedWindowReportsErrorAndContinues() throws Exception {
+        // Arrange: la primera ventana no obtiene sus ítems a tiempo
+        stubSelect();
+        when(itemService.fetchCatalogBlocking(anyList(), any()))
+                .thenThrow(new DeadlineExceededException("Tiempo agotado"))
+                .thenReturn(catalog);
+        String input = "{\"itemIds\":[\"MLA1\"],\"amount\":150}\n"
+                + "{\"itemIds\":[\"MLA2\"],\"amount\":150}\n"
+                + "{\"itemIds\":[\"MLA1\"],\"amount\":150}\n";
+
+        // Act
+        List<JsonNode> lines = process(input, 3);
+
+        // Assert
+        assertEquals("Tiempo agotado", lines.get(0).get("error").asText());
+        assertEquals("Tiempo agotado", lines.get(1).get("error").asText());
+        assertEquals(100.0, lines.get(2).at("/response/total").asDouble());
+    }
+
+    @Test
+    void testReactiveInvalidWindowReportsErrorAndContinues() {
+        // Arrange: ventanas de dos con lotes de a lo sumo uno; la última ventana queda con un pedido
+        ReflectionTestUtils.setField(cuponBatchService, "maxSize", 1);
+        stubSelect();
+        when(itemService.fetchCatalog(anyList(), any())).thenReturn(Mono.just(catalog));
+        Flux<CuponRequest> requests = Flux.just(request("MLA1", 150), request("MLA2", 150), request("MLA1", 150));
+
+        // Act
+        List<CuponBatchResult> results = cuponStreamProcessor.process(requests).collectList().block(Duration.ofSeconds(5));
+
+        // Assert: el error queda en los pedidos de la ventana y el flujo no se corta
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).getError().contains("máximo de 1"));
+        assertTrue(results.get(1).getError().contains("máximo de 1"));
+        assertEquals(100.0, results.get(2).getResponse().getTotal());
+    }
+
+    @Test
+    void testWindowLargerThanBatchIsRejected() {
+        // Arrange
+        ReflectionTestUtils.setField(cuponBatchService, "maxSize", 1);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, cuponStreamProcessor::validate);
+    }
+
+    private List<JsonNode> process(String input, int expected) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long processed = cuponStreamProcessor.process(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out);
+        String[] raw = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(expected, processed);
+        assertEquals(expected, raw.length);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : raw) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private void stubSelect() {
+        when(itemService.select(anyList(), anyMap())).thenAnswer(invocation -> {
+            List<String> itemIds = invocation.getArgument(0);
+            Map<String, Optional<Item>> found = invocation.getArgument(1);
+            List<Item> items = new ArrayList<>();
+            itemIds.forEach(itemId -> found.get(itemId).ifPresent(items::add));
+            return new ItemFetchResult(items, List.of());
+        });
+    }
+
+    private static CuponRequest request(String itemId, double amount) {
+        CuponRequest request = new CuponRequest();
+        request.setItemIds(List.of(itemId));
+        request.setAmount(amount);
+        return request;
+    }
+
+    private static Item item(String id, double price) {
+        Item item = new Item();
+        item.setId(id);
+        item.setPrice(price);
+        return item;
+    }
+}
@@ -0,0 +1,124 @@
+package com.meli.cupon;
+
+import com.meli.cupon.config.SecurityConfig;
+import com.meli.cupon.controller.FavoriteController;
+import com.meli.cupon.metrics.CouponMetrics;
+import com.meli.cupon.security.JwtTokenProvider;
+import com.meli.cupon.service.FavoriteWriteService;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Prueba `/favorites` a través de la cadena de filtros de seguridad real, incluido el despacho 
+ * asíncrono con el que Spring MVC completa las respuestas.
+ */
+@WebMvcTest(controllers = FavoriteController.class, properties = {"jwt.username=test", "jwt.password=12345", "jwt.user-id=1"})
+@Import(SecurityConfig.class)
+public class FavoriteControllerTest {
+
+    private static final String BODY = "{\"userId\":1,\"itemId\":\"MLA1\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private FavoriteWriteService favoriteWriteService;
+
+    @MockBean
+    private CouponMetrics couponMetrics;
+
+    @Test
+    void testQueuedAddIsAccepted() throws Exception {
+        // Arrange
+        when(favoriteWriteService.add(eq(1L), eq("MLA1"), any())).thenReturn(CompletableFuture.completedFuture(null));
+        String token = jwtTokenProvider.createToken("test");
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/favorites")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert: el despacho asíncrono también pasa por la seguridad
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isAccepted());
+    }
+
+    @Test
+    void testMetricsRequireToken() throws Exception {
+        // Act & Assert: solo las sondas de salud son públicas
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testDurableRemoveAnswersAfterCommit() throws Exception {
+        // Arrange
+        when(favoriteWriteService.remove(eq(1L), eq("MLA1"), eq("durable"))).thenReturn(CompletableFuture.completedFuture(null));
+        when(favoriteWriteService.isDurable("durable")).thenReturn(true);
+        String token = jwtTokenProvider.createToken("test");
+
+        // Act
+        MvcResult result = mockMvc.perform(delete("/favorites").param("ack", "durable")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+    }
+
+    @Test
+    void testOtherUsersFavoritesAreForbidden() throws Exception {
+        // Arrange: el token es del usuario 1 (`jwt.user-id`) y el cuerpo pide por el usuario 2
+        String token = jwtTokenProvider.createToken("test");
+        String otherUser = "{\"userId\":2,\"itemId\":\"MLA1\"}";
+
+        // Act
+        MvcResult add = mockMvc.perform(post("/favorites")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(otherUser))
+                .andReturn();
+        MvcResult remove = mockMvc.perform(delete("/favorites")
+                        .header("Authorization", "Bearer " + jwtTokenProvider.createToken("otro"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andReturn();
+
+        // Assert: un token sin `uid` tampoco puede escribir
+        mockMvc.perform(asyncDispatch(add)).andExpect(status().isForbidden());
+        mockMvc.perform(asyncDispatch(remove)).andExpect(status().isForbidden());
+        verify(favoriteWriteService, never()).add(any(), any(), any());
+        verify(favoriteWriteService, never()).remove(any(), any(), any());
+    }
+
+    @Test
+    void testRequestWithoutTokenIsRejected() throws Exception {
+        // Act / Assert
+        mockMvc.perform(post("/favorites").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(favoriteWriteService);
+    }
+}
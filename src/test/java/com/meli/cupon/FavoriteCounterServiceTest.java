@@ -0,0 +1,134 @@
+package com.meli.cupon;
+
+import com.meli.cupon.repository.ItemFavoriteCountRepository;
+import com.meli.cupon.service.FavoriteCounterService;
+import com.meli.cupon.service.ScheduledLockService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class FavoriteCounterServiceTest {
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testCountersAreUpdatedInKeyOrder() {
+        // Arrange
+        ItemFavoriteCountRepository repository = mock(ItemFavoriteCountRepository.class);
+        FavoriteCounterService service = newService(repository);
+        Map<String, Long> deltas = new HashMap<>();
+        deltas.put("MLA3", 1L);
+        deltas.put("MLA1", -1L);
+        deltas.put("MLA2", 2L);
+        deltas.put("MLA4", 0L);
+
+        // Act
+        service.favoritesChanged(deltas);
+
+        // Assert: siempre el mismo orden, y sin tocar los ítems sin cambios
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).increment("MLA1", -1L);
+        inOrder.verify(repository).increment("MLA2", 2L);
+        inOrder.verify(repository).increment("MLA3", 1L);
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void testRankingChangesOnlyAfterCommit() {
+        // Arrange: dos lotes en transacciones distintas, el primero se revierte
+        FavoriteCounterService service = newService(mock(ItemFavoriteCountRepository.class));
+        TransactionSynchronizationManager.initSynchronization();
+        service.favoritesChanged(Map.of("MLA1", 1L));
+        List<TransactionSynchronization> rolledBack = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        service.favoritesChanged(Map.of("MLA2", 1L));
+        List<TransactionSynchronization> committed = TransactionSynchronizationManager.getSynchronizations();
+
+        // Act
+        List<Map.Entry<String, Long>> beforeCommit = service.topFavorites(5);
+        rolledBack.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        committed.forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        assertTrue(beforeCommit.isEmpty());
+        assertEquals(List.of(Map.entry("MLA2", 1L)), service.topFavorites(5));
+    }
+
+    @Test
+    void testReconcileIsSkippedWhileAnotherInstanceHoldsTheLock() {
+        // Arrange
+        ItemFavoriteCountRepository repository = mock(ItemFavoriteCountRepository.class);
+        ScheduledLockService locks = mock(ScheduledLockService.class);
+        FavoriteCounterService service = newService(repository, locks);
+        when(locks.tryLock(eq("favorites-reconcile"), any(Duration.class))).thenReturn(false);
+
+        // Act
+        service.scheduledReconcile();
+
+        // Assert
+        verifyNoInteractions(repository);
+        verify(locks, never()).unlock(any(), any());
+    }
+
+    @Test
+    void testReconcileReleasesTheLockUntilMidInterval() {
+        // Arrange
+        ItemFavoriteCountRepository repository = mock(ItemFavoriteCountRepository.class);
+        ScheduledLockService locks = mock(ScheduledLockService.class);
+        FavoriteCounterService service = newService(repository, locks);
+        when(locks.tryLock("favorites-reconcile", Duration.ofHours(1))).thenReturn(true);
+        Instant before = Instant.now();
+
+        // Act
+        service.scheduledReconcile();
+
+        // Assert: reconstruye y nadie más lo intenta hasta la mitad del intervalo
+        verify(repository).deleteAllCounts();
+        verify(repository).rebuildFromFavorites();
+        verify(locks).unlock(eq("favorites-reconcile"),
+                argThat(until -> !until.isBefore(before.plus(Duration.ofHours(3)))));
+    }
+
+    private static FavoriteCounterService newService(ItemFavoriteCountRepository repository) {
+        return newService(repository, mock(ScheduledLockService.class));
+    }
+
+    private static FavoriteCounterService newService(ItemFavoriteCountRepository repository,
+                                                     ScheduledLockService locks) {
+        // Ejecuta la transacción en el mismo hilo, sin base
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(new SimpleTransactionStatus());
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        FavoriteCounterService service = new FavoriteCounterService(100);
+        ReflectionTestUtils.setField(service, "itemFavoriteCountRepository", repository);
+        ReflectionTestUtils.setField(service, "scheduledLockService", locks);
+        ReflectionTestUtils.setField(service, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(service, "reconcileInterval", Duration.ofHours(6));
+        ReflectionTestUtils.setField(service, "reconcileLockTimeout", Duration.ofHours(1));
+        return service;
+    }
+}
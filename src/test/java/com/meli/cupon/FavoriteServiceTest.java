@@ -0,0 +1,85 @@
+package com.meli.cupon;
+
+import com.meli.cupon.exception.FavoriteNotFoundException;
+import com.meli.cupon.metrics.CouponMetrics;
+import com.meli.cupon.repository.FavoriteRepository;
+import com.meli.cupon.service.FavoriteCounterService;
+import com.meli.cupon.service.FavoriteService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.scheduler.Schedulers;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class FavoriteServiceTest {
+
+    @Test
+    void testFavoriteItemIdsArePagedByKey() {
+        // Arrange: páginas de 2, la última incompleta
+        FavoriteRepository favoriteRepository = mock(FavoriteRepository.class);
+        when(favoriteRepository.findItemIdsByUserId(eq(7L), eq(""), any(Pageable.class))).thenReturn(List.of("MLA1", "MLA2"));
+        when(favoriteRepository.findItemIdsByUserId(eq(7L), eq("MLA2"), any(Pageable.class))).thenReturn(List.of("MLA3", "MLA4"));
+        when(favoriteRepository.findItemIdsByUserId(eq(7L), eq("MLA4"), any(Pageable.class))).thenReturn(List.of("MLA5"));
+        FavoriteService favoriteService = newService(favoriteRepository, 2);
+
+        // Act
+        List<List<String>> pages = favoriteService.favoriteItemIds(7L).collectList().block();
+
+        // Assert: cada página empieza después del último ID de la anterior y no se pide una cuarta
+        assertEquals(List.of(List.of("MLA1", "MLA2"), List.of("MLA3", "MLA4"), List.of("MLA5")), pages);
+        verify(favoriteRepository, times(3)).findItemIdsByUserId(eq(7L), any(), any(Pageable.class));
+    }
+
+    @Test
+    void testFullLastPageEndsWithEmptyPage() {
+        // Arrange
+        FavoriteRepository favoriteRepository = mock(FavoriteRepository.class);
+        when(favoriteRepository.findItemIdsByUserId(eq(7L), eq(""), any(Pageable.class))).thenReturn(List.of("MLA1", "MLA2"));
+        when(favoriteRepository.findItemIdsByUserId(eq(7L), eq("MLA2"), any(Pageable.class))).thenReturn(List.of());
+        FavoriteService favoriteService = newService(favoriteRepository, 2);
+
+        // Act
+        List<List<String>> pages = favoriteService.favoriteItemIds(7L).collectList().block();
+
+        // Assert: la página vacía no se emite
+        assertEquals(List.of(List.of("MLA1", "MLA2")), pages);
+    }
+
+    @Test
+    void testStartupFailureKeepsRefreshScheduled() {
+        // Arrange: la base no responde al iniciar
+        FavoriteCounterService counters = mock(FavoriteCounterService.class);
+        doThrow(new DataAccessResourceFailureException("sin conexión")).when(counters).initialize();
+        TaskScheduler taskScheduler = mock(TaskScheduler.class);
+        FavoriteService favoriteService = newService(mock(FavoriteRepository.class), 2);
+        ReflectionTestUtils.setField(favoriteService, "favoriteCounterService", counters);
+        ReflectionTestUtils.setField(favoriteService, "taskScheduler", taskScheduler);
+        ReflectionTestUtils.setField(favoriteService, "refreshInterval", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(favoriteService, "jitter", Duration.ZERO);
+
+        // Act
+        assertDoesNotThrow(favoriteService::start);
+
+        // Assert: no hay ranking todavía, pero el próximo refresco queda programado
+        assertThrows(FavoriteNotFoundException.class, favoriteService::getTopFavoritesSnapshot);
+        verify(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    private static FavoriteService newService(FavoriteRepository favoriteRepository, int pageSize) {
+        FavoriteService favoriteService = new FavoriteService();
+        ReflectionTestUtils.setField(favoriteService, "favoriteRepository", favoriteRepository);
+        ReflectionTestUtils.setField(favoriteService, "jdbcScheduler", Schedulers.immediate());
+        ReflectionTestUtils.setField(favoriteService, "pageSize", pageSize);
+        ReflectionTestUtils.setField(favoriteService, "couponMetrics", new CouponMetrics(new SimpleMeterRegistry()));
+        return favoriteService;
+    }
+}
@@ -0,0 +1,156 @@
+package com.meli.cupon;
+
+import com.meli.cupon.exception.FavoriteQueueFullException;
+import com.meli.cupon.metrics.CouponMetrics;
+import com.meli.cupon.service.FavoriteCounterService;
+import com.meli.cupon.service.FavoriteWriteService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class FavoriteWriteServiceTest {
+
+    @Test
+    void testBatchKeepsOrderAndCountsOnlyAppliedWrites() throws Exception {
+        // Arrange: un alta repetida (INSERT IGNORE devuelve 0) entre altas, y una baja en el medio
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        List<String> statements = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            BatchPreparedStatementSetter setter = invocation.getArgument(1);
+            statements.add(sql.substring(0, 6) + setter.getBatchSize());
+            return statements.size() == 1 ? new int[] {1, 0, 1} : new int[] {1};
+        });
+        FavoriteCounterService counters = mock(FavoriteCounterService.class);
+        FavoriteWriteService service = newService(jdbcTemplate, counters, 100);
+        service.add(1L, "MLA1", "queued");
+        service.add(2L, "MLA1", "queued");
+        service.add(1L, "MLA2", "queued");
+        service.remove(3L, "MLA3", "queued");
+        CompletableFuture<Void> last = service.add(4L, "MLA4", "durable");
+
+        // Act
+        service.start();
+        last.get(5, TimeUnit.SECONDS);
+        service.shutdown();
+
+        // Assert
+        assertEquals(List.of("INSERT3", "DELETE1", "INSERT1"), statements);
+        verify(counters).favoritesChanged(Map.of("MLA1", 1L, "MLA2", 1L, "MLA3", -1L, "MLA4", 1L));
+    }
+
+    @Test
+    void testDurableWriteFailsWhenBatchFails() throws Exception {
+        // Arrange
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("sin conexión"));
+        FavoriteCounterService counters = mock(FavoriteCounterService.class);
+        FavoriteWriteService service = newService(jdbcTemplate, counters, 100);
+        CompletableFuture<Void> queued = service.add(1L, "MLA1", null);
+        CompletableFuture<Void> durable = service.add(2L, "MLA1", "durable");
+
+        // Act
+        service.start();
+        ExecutionException e = assertThrows(ExecutionException.class, () -> durable.get(5, TimeUnit.SECONDS));
+        service.shutdown();
+
+        // Assert: el modo `queued` ya estaba confirmado al encolar
+        assertTrue(queued.isDone());
+        assertInstanceOf(DataAccessResourceFailureException.class, e.getCause());
+        verifyNoInteractions(counters);
+    }
+
+    @Test
+    void testTransientLockErrorsAreRetried() throws Exception {
+        // Arrange: un deadlock y una espera de lock agotada antes de que el lote entre
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new PessimisticLockingFailureException("deadlock"))
+                .thenThrow(new CannotAcquireLockException("lock wait timeout"))
+                .thenReturn(new int[] {1});
+        FavoriteCounterService counters = mock(FavoriteCounterService.class);
+        FavoriteWriteService service = newService(jdbcTemplate, counters, 100);
+        CompletableFuture<Void> durable = service.add(1L, "MLA1", "durable");
+
+        // Act
+        service.start();
+        durable.get(5, TimeUnit.SECONDS);
+        service.shutdown();
+
+        // Assert: los contadores se actualizan una sola vez, en el intento que confirmó
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        verify(counters).favoritesChanged(Map.of("MLA1", 1L));
+    }
+
+    @Test
+    void testDurableWriteFailsWhenRetriesAreExhausted() throws Exception {
+        // Arrange
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new PessimisticLockingFailureException("deadlock"));
+        FavoriteCounterService counters = mock(FavoriteCounterService.class);
+        FavoriteWriteService service = newService(jdbcTemplate, counters, 100);
+        CompletableFuture<Void> durable = service.add(1L, "MLA1", "durable");
+
+        // Act
+        service.start();
+        ExecutionException e = assertThrows(ExecutionException.class, () -> durable.get(5, TimeUnit.SECONDS));
+        service.shutdown();
+
+        // Assert
+        assertInstanceOf(PessimisticLockingFailureException.class, e.getCause());
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        verifyNoInteractions(counters);
+    }
+
+    @Test
+    void testFullQueueRejectsWithRetryAfter() {
+        // Arrange
+        FavoriteWriteService service = newService(mock(JdbcTemplate.class), mock(FavoriteCounterService.class), 1);
+        service.add(1L, "MLA1", null);
+
+        // Act
+        FavoriteQueueFullException e = assertThrows(FavoriteQueueFullException.class,
+                () -> service.add(2L, "MLA2", null));
+
+        // Assert
+        assertEquals(Duration.ofSeconds(1), e.getRetryAfter());
+    }
+
+    private static FavoriteWriteService newService(JdbcTemplate jdbcTemplate, FavoriteCounterService counters, int capacity) {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        FavoriteWriteService service = new FavoriteWriteService(capacity);
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "transactionTemplate", new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(service, "favoriteCounterService", counters);
+        ReflectionTestUtils.setField(service, "couponMetrics", new CouponMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(service, "flushSize", 500);
+        ReflectionTestUtils.setField(service, "flushInterval", Duration.ofMillis(20));
+        ReflectionTestUtils.setField(service, "defaultAck", "queued");
+        ReflectionTestUtils.setField(service, "retryAfter", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "retryBackoff", Duration.ofMillis(1));
+        return service;
+    }
+}
@@ -0,0 +1,37 @@
+package com.meli.cupon;
+
+import com.meli.cupon.client.HedgePolicy;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HedgePolicyTest {
+
+    @Test
+    void testDelayFollowsObservedPercentile() {
+        // Arrange: p90 sobre una ventana de 100 muestras, acotado entre 1 y 50 ms
+        HedgePolicy policy = new HedgePolicy(true, Duration.ofMillis(30), 0.9,
+                Duration.ofMillis(1), Duration.ofMillis(50), 100);
+        assertEquals(Duration.ofMillis(30), policy.delay());
+
+        // Act: latencias de 1 a 100 ms, dos vueltas de ventana
+        for (int round = 0; round < 2; round++) {
+            for (int ms = 1; ms <= 100; ms++) {
+                policy.record(Duration.ofMillis(ms).toNanos());
+            }
+        }
+
+        // Assert: el p90 (90 ms) se recorta a la cota superior
+        assertEquals(Duration.ofMillis(50), policy.delay());
+    }
+
+    @Test
+    void testFixedDelayIgnoresSamples() {
+        HedgePolicy policy = new HedgePolicy(true, Duration.ofMillis(30), 0,
+                Duration.ofMillis(1), Duration.ofMillis(50), 100);
+        for (int i = 0; i < 500; i++) {
+            policy.record(Duration.ofMillis(5).toNanos());
+        }
+        assertEquals(Duration.ofMillis(30), policy.delay());
+    }
+}
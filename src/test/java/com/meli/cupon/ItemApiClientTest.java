@@ -0,0 +1,141 @@
+package com.meli.cupon;
+
+import com.meli.cupon.client.HedgePolicy;
+import com.meli.cupon.client.ItemApiClient;
+import com.meli.cupon.loadtest.FakeItemApi;
+import com.meli.cupon.loadtest.LatencyDistribution;
+import com.meli.cupon.metrics.CouponMetrics;
+import com.meli.cupon.model.entity.Item;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ItemApiClientTest {
+
+    private FakeItemApi itemApi;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("item-api");
+    private HedgePolicy hedgePolicy = new HedgePolicy(false, Duration.ZERO, 0, Duration.ZERO, Duration.ZERO, 16);
+
+    @AfterEach
+    void tearDown() {
+        if (itemApi != null) {
+            itemApi.close();
+        }
+    }
+
+    @Test
+    void testFetchItemAndNotFound() {
+        // Arrange: catálogo de 10 ítems
+        itemApi = FakeItemApi.builder().catalogSize(10).start();
+        ItemApiClient client = newClient(false);
+
+        // Act
+        Optional<Item> found = client.fetchItem("MLA3").block();
+        Optional<Item> missing = client.fetchItem("MLA11").block();
+
+        // Assert: el 404 se traduce en un Optional vacío
+        assertEquals("MLA3", found.get().getId());
+        assertEquals(itemApi.price("MLA3"), found.get().getPrice());
+        assertTrue(missing.isEmpty());
+    }
+
+    @Test
+    void testFailedItemsAreOmitted() {
+        // Arrange: todas las respuestas fallan con 500
+        itemApi = FakeItemApi.builder().errorRate(1.0).start();
+        ItemApiClient client = newClient(false);
+
+        // Act
+        Map<String, Optional<Item>> result = client.fetchItems(List.of("MLA1", "MLA2")).block();
+
+        // Assert: los IDs que fallaron no aparecen en el resultado
+        assertTrue(result.isEmpty());
+        assertEquals(2, itemApi.errorCount());
+    }
+
+    @Test
+    void testMultiGetBatches() {
+        // Arrange: lotes de 2 IDs
+        itemApi = FakeItemApi.builder().catalogSize(10).start();
+        ItemApiClient client = newClient(true);
+
+        // Act
+        Map<String, Optional<Item>> result = client.fetchItems(List.of("MLA1", "MLA2", "MLA3", "MLA99")).block();
+
+        // Assert: dos llamadas, y el ID ausente en la respuesta queda como inexistente
+        assertEquals(2, itemApi.requestCount());
+        assertEquals(4, result.size());
+        assertEquals(itemApi.price("MLA2"), result.get("MLA2").get().getPrice());
+        assertTrue(result.get("MLA99").isEmpty());
+    }
+
+    @Test
+    void testCircuitBreakerFailsFast() {
+        // Arrange: la API falla siempre y el circuito se abre tras 4 llamadas
+        itemApi = FakeItemApi.builder().errorRate(1.0).start();
+        circuitBreaker = CircuitBreaker.of("item-api", CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        ItemApiClient client = newClient(false);
+        for (int i = 1; i <= 4; i++) {
+            String itemId = "MLA" + i;
+            assertThrows(RuntimeException.class, () -> client.fetchItem(itemId).block());
+        }
+
+        // Act / Assert: con el circuito abierto la llamada no llega a la API
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(CallNotPermittedException.class, () -> client.fetchItem("MLA5").block());
+        assertEquals(4, itemApi.requestCount());
+    }
+
+    @Test
+    void testHedgeAvoidsSlowReplica() {
+        // Arrange: la mitad de las respuestas tarda 500 ms; el duplicado sale a los 20 ms
+        itemApi = FakeItemApi.builder()
+                .latency(LatencyDistribution.fixed(Duration.ofMillis(5)))
+                .slowTail(0.5, Duration.ofMillis(500))
+                .start();
+        hedgePolicy = new HedgePolicy(true, Duration.ofMillis(20), 0, Duration.ZERO, Duration.ZERO, 16);
+        ItemApiClient client = newClient(false);
+        List<String> itemIds = new ArrayList<>();
+        for (int i = 1; i <= 40; i++) {
+            itemIds.add("MLA" + i);
+        }
+
+        // Act
+        Map<String, Optional<Item>> result = client.fetchItems(itemIds).block();
+
+        // Assert: todos los ítems se obtuvieron y algún duplicado respondió antes que el original
+        assertEquals(40, result.size());
+        assertTrue(registry.get("cupon.item.hedge").tag("result", "won").counter().count() > 0);
+        assertTrue(registry.get("cupon.item.hedge").tag("result", "sent").counter().count() > 0);
+    }
+
+    private ItemApiClient newClient(boolean multiGet) {
+        ItemApiClient client = new ItemApiClient();
+        ReflectionTestUtils.setField(client, "itemApiWebClient", WebClient.create(itemApi.baseUrl()));
+        ReflectionTestUtils.setField(client, "couponMetrics", new CouponMetrics(registry));
+        ReflectionTestUtils.setField(client, "itemApiCircuitBreaker", circuitBreaker);
+        ReflectionTestUtils.setField(client, "itemApiBulkhead", Bulkhead.ofDefaults("item-api"));
+        ReflectionTestUtils.setField(client, "hedgePolicy", hedgePolicy);
+        ReflectionTestUtils.setField(client, "concurrency", 4);
+        ReflectionTestUtils.setField(client, "multiGetEnabled", multiGet);
+        ReflectionTestUtils.setField(client, "batchSize", 2);
+        return client;
+    }
+}
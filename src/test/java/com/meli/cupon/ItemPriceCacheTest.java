@@ -0,0 +1,218 @@
+package com.meli.cupon;
+
+import com.meli.cupon.cache.InMemorySharedItemCache;
+import com.meli.cupon.cache.ItemMirror;
+import com.meli.cupon.cache.ItemPriceCache;
+import com.meli.cupon.cache.ItemTtl;
+import com.meli.cupon.client.ItemApiClient;
+import com.meli.cupon.model.entity.Item;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemPriceCacheTest {
+
+    @Mock
+    private ItemApiClient itemApiClient;  // Mockeamos la API de ítems
+
+    @Mock
+    private ItemMirror itemMirror;  // Mockeamos el espejo local de la tabla items
+
+    @Test
+    void testHotItemIsFetchedOnce() {
+        // Arrange: la API devuelve el ítem una sola vez
+        Item item = new Item();
+        item.setId("MLA1");
+        item.setPrice(100.0);
+        when(itemApiClient.fetchItem("MLA1")).thenReturn(Mono.just(Optional.of(item)));
+        ItemPriceCache cache = newCache();
+
+        // Act: pedimos el mismo ítem varias veces
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Optional.of(item), cache.get("MLA1").block());
+        }
+
+        // Assert: solo la primera consulta llega a la API
+        verify(itemApiClient, times(1)).fetchItem("MLA1");
+        assertEquals(4, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void testMissingItemIsNegativelyCached() {
+        // Arrange: la API responde 404
+        when(itemApiClient.fetchItem("MLA404")).thenReturn(Mono.just(Optional.empty()));
+        ItemPriceCache cache = newCache();
+
+        // Act
+        Optional<Item> first = cache.get("MLA404").block();
+        Optional<Item> second = cache.get("MLA404").block();
+
+        // Assert: el 404 queda cacheado y no se vuelve a consultar
+        assertTrue(first.isEmpty());
+        assertTrue(second.isEmpty());
+        verify(itemApiClient, times(1)).fetchItem("MLA404");
+    }
+
+    @Test
+    void testUpstreamFailureIsNotCached() {
+        // Arrange: la API falla la primera vez y responde la segunda
+        Item item = new Item();
+        item.setId("MLA2");
+        item.setPrice(50.0);
+        when(itemApiClient.fetchItem("MLA2"))
+                .thenReturn(Mono.error(new IllegalStateException("API caída")))
+                .thenReturn(Mono.just(Optional.of(item)));
+        ItemPriceCache cache = newCache();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> cache.get("MLA2").block());
+        assertEquals(Optional.of(item), cache.get("MLA2").block());
+        assertEquals(1, cache.stats().loadFailureCount());
+    }
+
+    @Test
+    void testCancelledRequestDoesNotCancelSharedLoad() {
+        // Arrange: la API responde recién cuando lo indicamos
+        Item item = new Item();
+        item.setId("MLA3");
+        item.setPrice(70.0);
+        Sinks.One<Optional<Item>> response = Sinks.one();
+        when(itemApiClient.fetchItem("MLA3")).thenReturn(response.asMono());
+        ItemPriceCache cache = newCache();
+
+        // Act: un pedido se cancela (por ejemplo, vence su tiempo) antes de que llegue la respuesta
+        cache.get("MLA3").subscribe().dispose();
+        Mono<Optional<Item>> other = cache.get("MLA3");
+        response.tryEmitValue(Optional.of(item));
+
+        // Assert: la carga sigue en curso para los demás y no se repite
+        assertEquals(Optional.of(item), other.block(Duration.ofSeconds(5)));
+        verify(itemApiClient, times(1)).fetchItem("MLA3");
+    }
+
+    @Test
+    void testGetAllLoadsMissesInBulkAndOmitsFailures() {
+        // Arrange: la API resuelve MLA1, informa 404 para MLA404 y falla para MLA500
+        Item item = new Item();
+        item.setId("MLA1");
+        item.setPrice(10.0);
+        when(itemApiClient.fetchItems(anyCollection()))
+                .thenReturn(Mono.just(Map.of("MLA1", Optional.of(item), "MLA404", Optional.empty())));
+        ItemPriceCache cache = newCache();
+
+        // Act
+        Map<String, Optional<Item>> result = cache.getAll(List.of("MLA1", "MLA404", "MLA500")).block();
+
+        // Assert: el ítem fallido no aparece y los demás quedan cacheados
+        assertEquals(Optional.of(item), result.get("MLA1"));
+        assertEquals(Optional.empty(), result.get("MLA404"));
+        assertFalse(result.containsKey("MLA500"));
+        assertEquals(Optional.of(item), cache.get("MLA1").block());
+        verify(itemApiClient, times(1)).fetchItems(anyCollection());
+        verify(itemApiClient, never()).fetchItem("MLA1");
+    }
+
+    @Test
+    void testFreshMirrorRowsSkipTheApi() {
+        // Arrange: MLA1 tiene fila fresca en la tabla, MLA2 no está
+        Item mirrored = item("MLA1", 10.0);
+        Item fetched = item("MLA2", 20.0);
+        when(itemMirror.findAll(anyCollection())).thenReturn(Mono.just(Map.of("MLA1", mirrored)));
+        when(itemMirror.fresh(anyCollection(), anyMap())).thenReturn(Map.of("MLA1", mirrored));
+        when(itemApiClient.fetchItems(anyCollection())).thenReturn(Mono.just(Map.of("MLA2", Optional.of(fetched))));
+        ItemPriceCache cache = newCache();
+        ReflectionTestUtils.setField(cache, "itemMirror", itemMirror);
+
+        // Act
+        Map<String, Optional<Item>> result = cache.getAll(List.of("MLA1", "MLA2")).block();
+
+        // Assert: solo el faltante llega a la API y se guarda en la tabla
+        assertEquals(Optional.of(mirrored), result.get("MLA1"));
+        assertEquals(Optional.of(fetched), result.get("MLA2"));
+        verify(itemApiClient).fetchItems(List.of("MLA2"));
+        verify(itemMirror).saveAllAsync(List.of(fetched));
+    }
+
+    @Test
+    void testStaleMirrorRowIsServedWhenApiFails() {
+        // Arrange: MLA1 tiene una fila vencida y la API no responde por él
+        Item stale = item("MLA1", 10.0);
+        when(itemMirror.findAll(anyCollection())).thenReturn(Mono.just(Map.of("MLA1", stale)));
+        when(itemMirror.fresh(anyCollection(), anyMap())).thenReturn(Map.of());
+        when(itemApiClient.fetchItems(anyCollection())).thenReturn(Mono.just(Map.of()));
+        ItemPriceCache cache = newCache();
+        ReflectionTestUtils.setField(cache, "itemMirror", itemMirror);
+
+        // Act
+        Map<String, Optional<Item>> result = cache.getAll(List.of("MLA1", "MLA500")).block();
+
+        // Assert
+        assertEquals(Optional.of(stale), result.get("MLA1"));
+        assertFalse(result.containsKey("MLA500"));
+    }
+
+    @Test
+    void testSharedCacheWarmsOtherInstances() {
+        // Arrange: dos instancias con cachés locales propias y una caché compartida
+        when(itemApiClient.fetchItems(anyCollection()))
+                .thenReturn(Mono.just(Map.of("MLA1", Optional.of(item("MLA1", 10.0)), "MLA404", Optional.empty())));
+        InMemorySharedItemCache shared = new InMemorySharedItemCache(Duration.ofMinutes(10), Duration.ofSeconds(30));
+        ItemPriceCache first = newCache();
+        ItemPriceCache second = newCache();
+        ReflectionTestUtils.setField(first, "sharedItemCache", shared);
+        ReflectionTestUtils.setField(second, "sharedItemCache", shared);
+
+        // Act
+        first.getAll(List.of("MLA1", "MLA404")).block();
+        Map<String, Optional<Item>> result = second.getAll(List.of("MLA1", "MLA404")).block();
+
+        // Assert: la segunda instancia no consulta la API, ni siquiera por el 404
+        assertEquals(10.0, result.get("MLA1").orElseThrow().getPrice());
+        assertEquals(Optional.empty(), result.get("MLA404"));
+        assertEquals(2, shared.size());
+        verify(itemApiClient, times(1)).fetchItems(anyCollection());
+    }
+
+    @Test
+    void testTtlCountsFromWhenThePriceWasFetched() {
+        ItemTtl itemTtl = new ItemTtl(Duration.ofMinutes(10), Duration.ofSeconds(30));
+        Item fresh = item("MLA1", 10.0);
+        fresh.setUpdatedAt(LocalDateTime.now(ZoneOffset.UTC));
+        Item aged = item("MLA2", 10.0);
+        aged.setUpdatedAt(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(8));
+        Item expired = item("MLA3", 10.0);
+        expired.setUpdatedAt(LocalDateTime.now(ZoneOffset.UTC).minusHours(1));
+
+        // Un precio de hace 8 minutos vive solo lo que le resta; uno vencido, el mínimo
+        assertTrue(itemTtl.remainingNanos(Optional.of(fresh)) > Duration.ofMinutes(9).toNanos());
+        long remaining = itemTtl.remainingNanos(Optional.of(aged));
+        assertTrue(remaining <= Duration.ofMinutes(2).toNanos() && remaining > Duration.ofMinutes(1).toNanos());
+        assertEquals(Duration.ofSeconds(30).toNanos(), itemTtl.remainingNanos(Optional.of(expired)));
+        assertEquals(Duration.ofSeconds(30).toNanos(), itemTtl.remainingNanos(Optional.empty()));
+    }
+
+    private static Item item(String id, double price) {
+        Item item = new Item();
+        item.setId(id);
+        item.setPrice(price);
+        return item;
+    }
+
+    private ItemPriceCache newCache() {
+        return new ItemPriceCache(itemApiClient, 100, Duration.ofMinutes(10), Duration.ofSeconds(30), Duration.ofMinutes(1));
+    }
+}
@@ -0,0 +1,60 @@
+package com.meli.cupon;
+
+import com.meli.cupon.security.JwtTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtTokenProviderTest {
+
+    private JwtTokenProvider jwtTokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwtTokenProvider, "cacheMaximumSize", 100L);
+        ReflectionTestUtils.setField(jwtTokenProvider, "username", "test");
+        ReflectionTestUtils.setField(jwtTokenProvider, "userId", 7L);
+        jwtTokenProvider.initCache();
+    }
+
+    @Test
+    void testAuthenticateReusesVerifiedToken() {
+        // Arrange
+        String token = jwtTokenProvider.createToken("test");
+
+        // Act: el mismo token se presenta dos veces
+        Authentication first = jwtTokenProvider.authenticate(token);
+        Authentication second = jwtTokenProvider.authenticate(token);
+
+        // Assert: la segunda vez se devuelve la autenticación ya construida
+        assertNotNull(first);
+        assertEquals("test", first.getName());
+        assertSame(first, second);
+    }
+
+    @Test
+    void testAuthenticateRejectsTamperedToken() {
+        // Arrange: se altera la firma de un token válido
+        String token = jwtTokenProvider.createToken("test");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // Act & Assert
+        assertNull(jwtTokenProvider.authenticate(tampered));
+        assertNull(jwtTokenProvider.parseClaims("no.es.un.jwt"));
+    }
+
+    @Test
+    void testTokenCarriesUserIdOfConfiguredUser() {
+        // Act
+        Authentication configured = jwtTokenProvider.authenticate(jwtTokenProvider.createToken("test"));
+        Authentication other = jwtTokenProvider.authenticate(jwtTokenProvider.createToken("otro"));
+
+        // Assert
+        assertEquals(7L, JwtTokenProvider.userId(configured));
+        assertNull(JwtTokenProvider.userId(other));
+        assertNull(JwtTokenProvider.userId(null));
+    }
+}
@@ -0,0 +1,188 @@
+package com.meli.cupon;
+
+import com.meli.cupon.cache.ItemPriceCache;
+import com.meli.cupon.config.AdmissionConfig;
+import com.meli.cupon.config.DeadlineProperties;
+import com.meli.cupon.config.ReactiveSecurityConfig;
+import com.meli.cupon.controller.reactive.ReactiveCuponController;
+import com.meli.cupon.controller.reactive.ReactiveStatsController;
+import com.meli.cupon.metrics.CouponMetrics;
+import com.meli.cupon.model.Deadline;
+import com.meli.cupon.model.ItemFetchResult;
+import com.meli.cupon.model.TopFavoritesSnapshot;
+import com.meli.cupon.model.entity.Item;
+import com.meli.cupon.model.response.CuponResponse;
+import com.meli.cupon.model.response.FavoriteResponse;
+import com.meli.cupon.security.JwtTokenProvider;
+import com.meli.cupon.service.CuponBatchService;
+import com.meli.cupon.service.CuponService;
+import com.meli.cupon.service.CuponStreamProcessor;
+import com.meli.cupon.service.FavoriteService;
+import com.meli.cupon.service.ItemService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Prueba el stack reactivo (perfil `reactive`) a través de su cadena real de filtros: la
+ * autenticación JWT de **ReactiveSecurityConfig** y el control de admisión de **AdmissionWebFilter**.
+ */
+@WebFluxTest(controllers = {ReactiveCuponController.class, ReactiveStatsController.class},
+        properties = {"jwt.username=test", "jwt.password=12345", "cupon.admission.user.rate=1", "cupon.admission.user.burst=3"})
+@Import({ReactiveSecurityConfig.class, AdmissionConfig.class, JwtTokenProvider.class, ReactiveCuponControllerTest.Config.class})
+public class ReactiveCuponControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private ItemService itemService;
+
+    @MockBean
+    private CuponService cuponService;
+
+    @MockBean
+    private CuponBatchService cuponBatchService;
+
+    @MockBean
+    private CuponStreamProcessor cuponStreamProcessor;
+
+    @MockBean
+    private FavoriteService favoriteService;
+
+    @MockBean
+    private ItemPriceCache itemPriceCache;
+
+    @MockBean
+    private CouponMetrics couponMetrics;
+
+    @Test
+    void testRequestWithoutTokenIsUnauthorized() {
+        // Act & Assert
+        webTestClient.post().uri("/coupon/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"itemIds\":[\"MLA1\"],\"amount\":100}")
+                .exchange()
+                .expectStatus().isUnauthorized();
+        verifyNoInteractions(itemService, cuponService);
+    }
+
+    @Test
+    void testMetricsRequireToken() {
+        // Act & Assert: solo las sondas de salud son públicas
+        webTestClient.get().uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void testApplyCoupon() {
+        // Arrange
+        Item item = new Item();
+        item.setId("MLA1");
+        item.setPrice(80.0);
+        when(itemService.fetchItems(eq(List.of("MLA1", "MLA2")), any(Duration.class)))
+                .thenReturn(Mono.just(new ItemFetchResult(List.of(item), List.of("MLA2"))));
+        CuponResponse response = new CuponResponse();
+        response.setItemIds(List.of("MLA1"));
+        response.setTotal(80.0);
+        response.setOptimal(true);
+        when(cuponService.calculateOptimalItemsReactive(eq(List.of(item)), anyDouble(), any(Deadline.class)))
+                .thenReturn(Mono.just(response));
+
+        // Act & Assert: la respuesta incluye los ítems que no se pudieron obtener
+        webTestClient.post().uri("/coupon/")
+                .header(HttpHeaders.AUTHORIZATION, bearer("apply"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"itemIds\":[\"MLA1\",\"MLA2\"],\"amount\":100}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.itemIds[0]").isEqualTo("MLA1")
+                .jsonPath("$.total").isEqualTo(80.0)
+                .jsonPath("$.skippedItemIds[0]").isEqualTo("MLA2");
+    }
+
+    @Test
+    void testStatsAnswerNotModified() {
+        // Arrange
+        when(favoriteService.getTopFavoritesSnapshot())
+                .thenReturn(new TopFavoritesSnapshot(List.of(favorite("MLA1", 7)), Instant.now(), 1));
+        String token = bearer("stats");
+        String eTag = webTestClient.get().uri("/coupon/stats")
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders().getETag();
+
+        // Act & Assert
+        assertNotNull(eTag);
+        webTestClient.get().uri("/coupon/stats")
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag)
+                .expectHeader().exists(HttpHeaders.CACHE_CONTROL)
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void testUserAboveBurstIsRejected() {
+        // Arrange: ráfagas de 3 y una solicitud por segundo
+        when(favoriteService.getTopFavoritesSnapshot())
+                .thenReturn(new TopFavoritesSnapshot(List.of(favorite("MLA1", 7)), Instant.now(), 1));
+        String token = bearer("burst");
+        for (int i = 0; i < 3; i++) {
+            webTestClient.get().uri("/coupon/stats")
+                    .header(HttpHeaders.AUTHORIZATION, token)
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+
+        // Act & Assert
+        webTestClient.get().uri("/coupon/stats")
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .exchange()
+                .expectStatus().isEqualTo(429)
+                .expectHeader().exists(HttpHeaders.RETRY_AFTER);
+        verify(couponMetrics).recordAdmissionRejected("user");
+    }
+
+    // Cada prueba usa su propio usuario, así no comparten el límite por usuario
+    private String bearer(String username) {
+        return "Bearer " + jwtTokenProvider.createToken(username);
+    }
+
+    private static FavoriteResponse favorite(String id, int quantity) {
+        FavoriteResponse favorite = new FavoriteResponse();
+        favorite.setId(id);
+        favorite.setQuantity(quantity);
+        return favorite;
+    }
+
+    @TestConfiguration
+    @EnableConfigurationProperties(DeadlineProperties.class)
+    static class Config {
+    }
+}
@@ -0,0 +1,47 @@
+package com.meli.cupon;
+
+import com.meli.cupon.config.RedisAutoConfigurationFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RedisAutoConfigurationFilterTest {
+
+    private static final String[] CANDIDATES = {
+            "org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.redis.RedisReactiveAutoConfiguration",
+            "org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration",
+            null
+    };
+
+    @Test
+    void testRedisIsSkippedWithoutRedisCache() {
+        // Arrange
+        RedisAutoConfigurationFilter filter = newFilter(new MockEnvironment().withProperty("cupon.cache.l2.type", "memory"));
+
+        // Act
+        boolean[] matches = filter.match(CANDIDATES, null);
+
+        // Assert: también sin la propiedad, que por defecto es `none`
+        assertArrayEquals(new boolean[]{false, false, true, true}, matches);
+        assertArrayEquals(new boolean[]{false, false, true, true}, newFilter(new MockEnvironment()).match(CANDIDATES, null));
+    }
+
+    @Test
+    void testRedisIsKeptWithRedisCache() {
+        // Arrange
+        RedisAutoConfigurationFilter filter = newFilter(new MockEnvironment().withProperty("cupon.cache.l2.type", "redis"));
+
+        // Act
+        boolean[] matches = filter.match(CANDIDATES, null);
+
+        // Assert
+        assertArrayEquals(new boolean[]{true, true, true, true}, matches);
+    }
+
+    private static RedisAutoConfigurationFilter newFilter(MockEnvironment environment) {
+        RedisAutoConfigurationFilter filter = new RedisAutoConfigurationFilter();
+        filter.setEnvironment(environment);
+        return filter;
+    }
+}
@@ -0,0 +1,80 @@
+package com.meli.cupon;
+
+import com.meli.cupon.config.ReplicaRoutingDataSource;
+import com.meli.cupon.metrics.CouponMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicaRoutingDataSourceTest {
+
+    @Test
+    void testReadOnlyTransactionsGoToReplica() {
+        // Arrange: dos bases H2 en memoria que se distinguen por su contenido
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DataSource dataSource = routing(primary, replica, registry);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate readWrite = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+
+        // Act
+        String read = readOnly.execute(status -> name(jdbcTemplate));
+        String written = readWrite.execute(status -> name(jdbcTemplate));
+        String outside = name(jdbcTemplate);
+
+        // Assert
+        assertEquals("replica", read);
+        assertEquals("primary", written);
+        assertEquals("primary", outside);
+        assertEquals(1.0, registry.get("cupon.datasource.route").tag("target", "replica").counter().count());
+    }
+
+    @Test
+    void testUnavailableReplicaFallsBackToPrimary() {
+        // Arrange: la réplica apunta a un servidor que no existe
+        DataSource primary = database("fallback-primary");
+        DataSource replica = new DriverManagerDataSource("jdbc:h2:tcp://127.0.0.1:1/missing", "sa", "");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DataSource dataSource = routing(primary, replica, registry);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+
+        // Act
+        String first = readOnly.execute(status -> name(jdbcTemplate));
+        String second = readOnly.execute(status -> name(jdbcTemplate));
+
+        // Assert: después de la primera falla no se vuelve a intentar la réplica
+        assertEquals("primary", first);
+        assertEquals("primary", second);
+        assertEquals(1.0, registry.get("cupon.datasource.route").tag("target", "fallback").counter().count());
+    }
+
+    private static DataSource routing(DataSource primary, DataSource replica, SimpleMeterRegistry registry) {
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replica, Duration.ofMinutes(1), new CouponMetrics(registry)));
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS origin (name VARCHAR(20))");
+        jdbcTemplate.update("DELETE FROM origin");
+        jdbcTemplate.update("INSERT INTO origin (name) VALUES (?)", name.replace("fallback-", ""));
+        return dataSource;
+    }
+
+    private static String name(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("SELECT name FROM origin", String.class);
+    }
+}
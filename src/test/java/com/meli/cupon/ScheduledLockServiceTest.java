@@ -0,0 +1,69 @@
+package com.meli.cupon;
+
+import com.meli.cupon.service.ScheduledLockService;
+import java.time.Duration;
+import java.time.Instant;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScheduledLockServiceTest {
+
+    private static final String LOCK = "favorites-reconcile";
+
+    @Test
+    void testOnlyOneInstanceTakesTheLock() {
+        // Arrange: dos instancias sobre la misma base
+        JdbcTemplate jdbcTemplate = database("locks-single");
+        ScheduledLockService first = newService(jdbcTemplate);
+        ScheduledLockService second = newService(jdbcTemplate);
+
+        // Act
+        boolean firstLocked = first.tryLock(LOCK, Duration.ofHours(1));
+        boolean secondLocked = second.tryLock(LOCK, Duration.ofHours(1));
+
+        // Assert
+        assertTrue(firstLocked);
+        assertFalse(secondLocked);
+    }
+
+    @Test
+    void testLockIsAvailableAfterReleaseOrExpiry() {
+        // Arrange
+        JdbcTemplate jdbcTemplate = database("locks-release");
+        ScheduledLockService first = newService(jdbcTemplate);
+        ScheduledLockService second = newService(jdbcTemplate);
+
+        // Act: una liberación ajena no cuenta; la propia y el vencimiento sí
+        first.tryLock(LOCK, Duration.ofHours(1));
+        second.unlock(LOCK, Instant.EPOCH);
+        boolean afterForeignUnlock = second.tryLock(LOCK, Duration.ofHours(1));
+        first.unlock(LOCK, Instant.EPOCH);
+        boolean afterUnlock = second.tryLock(LOCK, Duration.ZERO);
+        boolean afterExpiry = first.tryLock(LOCK, Duration.ofHours(1));
+
+        // Assert
+        assertFalse(afterForeignUnlock);
+        assertTrue(afterUnlock);
+        assertTrue(afterExpiry);
+    }
+
+    // Base H2 en memoria con la misma migración que se aplica en producción
+    private static JdbcTemplate database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V4__create_scheduled_locks.sql"))
+                .execute(dataSource);
+        return new JdbcTemplate(dataSource);
+    }
+
+    private static ScheduledLockService newService(JdbcTemplate jdbcTemplate) {
+        ScheduledLockService service = new ScheduledLockService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        return service;
+    }
+}
@@ -0,0 +1,78 @@
+package com.meli.cupon;
+
+import com.meli.cupon.controller.StatsController;
+import com.meli.cupon.model.TopFavoritesSnapshot;
+import com.meli.cupon.model.response.FavoriteResponse;
+import com.meli.cupon.service.FavoriteService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class StatsControllerTest {
+
+    @Test
+    void testStatsCarryETagAndAnswerNotModified() throws Exception {
+        // Arrange
+        FavoriteService favoriteService = mock(FavoriteService.class);
+        when(favoriteService.getTopFavoritesSnapshot())
+                .thenReturn(new TopFavoritesSnapshot(List.of(favorite("MLA1", 7), favorite("MLA2", 3)), Instant.now(), 4));
+        MockMvc mockMvc = newMockMvc(favoriteService);
+
+        // Act
+        MvcResult first = mockMvc.perform(get("/coupon/stats"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=45, public, stale-while-revalidate=60"))
+                .andReturn();
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Assert: el mismo ETag responde 304 sin cuerpo y con las cabeceras de caché
+        assertNotNull(eTag);
+        mockMvc.perform(get("/coupon/stats").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(header().exists(HttpHeaders.CACHE_CONTROL))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testETagDependsOnRankingContent() {
+        // Arrange
+        List<FavoriteResponse> ranking = List.of(favorite("MLA1", 7), favorite("MLA2", 3));
+
+        // Act: otra instancia con otro número de versión y otro ranking
+        TopFavoritesSnapshot snapshot = new TopFavoritesSnapshot(ranking, Instant.now(), 4);
+        TopFavoritesSnapshot sameRanking = new TopFavoritesSnapshot(ranking, Instant.now(), 9);
+        TopFavoritesSnapshot changed = new TopFavoritesSnapshot(List.of(favorite("MLA1", 8), favorite("MLA2", 3)), Instant.now(), 5);
+
+        // Assert
+        assertEquals(snapshot.getETag(), sameRanking.getETag());
+        assertNotEquals(snapshot.getETag(), changed.getETag());
+    }
+
+    private static MockMvc newMockMvc(FavoriteService favoriteService) {
+        StatsController controller = new StatsController();
+        ReflectionTestUtils.setField(controller, "favoriteService", favoriteService);
+        ReflectionTestUtils.setField(controller, "maxAge", Duration.ofSeconds(45));
+        ReflectionTestUtils.setField(controller, "staleWhileRevalidate", Duration.ofSeconds(60));
+        return MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    private static FavoriteResponse favorite(String id, int quantity) {
+        FavoriteResponse favorite = new FavoriteResponse();
+        favorite.setId(id);
+        favorite.setQuantity(quantity);
+        return favorite;
+    }
+}
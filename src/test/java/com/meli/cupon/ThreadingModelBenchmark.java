@@ -0,0 +1,69 @@
+package com.meli.cupon;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import reactor.core.publisher.Mono;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Comparación entre hilos de plataforma y hilos virtuales para solicitudes que bloquean esperando 
+ * a la API de ítems, como hace `CuponController.applyCoupon`.
+ * 
+ * Se ejecuta a pedido con: `mvn test -Dtest=ThreadingModelBenchmark -Dbenchmark=true`
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ThreadingModelBenchmark {
+
+    private static final int REQUESTS = 20_000;
+    private static final Duration UPSTREAM_LATENCY = Duration.ofMillis(50);
+
+    @Test
+    void platformThreads() throws Exception {
+        // 200 hilos es el máximo por defecto del pool de Tomcat
+        run("platform", Executors.newFixedThreadPool(200));
+    }
+
+    @Test
+    void virtualThreads() throws Exception {
+        ExecutorService executor = virtualExecutor();
+        assumeTrue(executor != null, "Los hilos virtuales requieren Java 21+");
+        run("virtual", executor);
+    }
+
+    private void run(String name, ExecutorService executor) throws InterruptedException {
+        long[] latencies = new long[REQUESTS];
+        CountDownLatch done = new CountDownLatch(REQUESTS);
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            int request = i;
+            long submitted = System.nanoTime();
+            executor.execute(() -> {
+                // Simula la espera bloqueante sobre el cliente reactivo de la API de ítems
+                Mono.delay(UPSTREAM_LATENCY).block();
+                latencies[request] = System.nanoTime() - submitted;
+                done.countDown();
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        Arrays.sort(latencies);
+        System.out.printf("%s: %d solicitudes en %d ms (%.0f req/s), p50=%d ms, p99=%d ms%n",
+                name, REQUESTS, elapsed / 1_000_000, REQUESTS / (elapsed / 1e9),
+                latencies[REQUESTS / 2] / 1_000_000, latencies[REQUESTS * 99 / 100] / 1_000_000);
+    }
+
+    private static ExecutorService virtualExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
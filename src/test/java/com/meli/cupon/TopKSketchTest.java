@@ -0,0 +1,47 @@
+package com.meli.cupon;
+
+import com.meli.cupon.stats.TopKSketch;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TopKSketchTest {
+
+    @Test
+    void testTopKeepsFrequentItemsWhenCapacityIsExceeded() {
+        // Arrange: dos ítems muy frecuentes mezclados con muchos ítems que aparecen una vez
+        TopKSketch sketch = new TopKSketch(10);
+        for (int i = 0; i < 1000; i++) {
+            sketch.add("MLA-A", 1);
+            if (i % 2 == 0) {
+                sketch.add("MLA-B", 1);
+            }
+            sketch.add("MLA-ruido-" + i, 1);
+        }
+
+        // Act
+        List<Map.Entry<String, Long>> top = sketch.top(2);
+
+        // Assert: los frecuentes siguen primero aunque la capacidad sea mucho menor que los distintos
+        assertEquals("MLA-A", top.get(0).getKey());
+        assertEquals("MLA-B", top.get(1).getKey());
+        assertTrue(top.get(0).getValue() >= 1000);
+        assertTrue(sketch.size() <= 10);
+    }
+
+    @Test
+    void testResetAndDecrement() {
+        // Arrange
+        TopKSketch sketch = new TopKSketch(3);
+        sketch.reset(Map.of("MLA1", 5L, "MLA2", 9L, "MLA3", 1L, "MLA4", 7L));
+
+        // Act: MLA2 pierde favoritos y MLA1 gana uno
+        sketch.add("MLA2", -5);
+        sketch.add("MLA1", 1);
+
+        // Assert: solo se conservan los 3 más altos y el orden refleja los cambios
+        List<Map.Entry<String, Long>> top = sketch.top(5);
+        assertEquals(List.of(Map.entry("MLA4", 7L), Map.entry("MLA1", 6L), Map.entry("MLA2", 4L)), top);
+    }
+}
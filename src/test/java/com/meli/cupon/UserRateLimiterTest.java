@@ -0,0 +1,47 @@
+package com.meli.cupon;
+
+import com.meli.cupon.admission.UserRateLimiter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserRateLimiterTest {
+
+    @Test
+    void testBurstThenSteadyRatePerUser() {
+        // Arrange: 10 solicitudes por segundo con ráfagas de 3
+        AtomicLong clock = new AtomicLong(1_000);
+        UserRateLimiter limiter = new UserRateLimiter(10, 3, 1024, clock::get);
+
+        // Act
+        long first = limiter.tryAcquire("user1");
+        long second = limiter.tryAcquire("user1");
+        long third = limiter.tryAcquire("user1");
+        long rejected = limiter.tryAcquire("user1");
+        long otherUser = limiter.tryAcquire("user2");
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        long refilled = limiter.tryAcquire("user1");
+        long rejectedAgain = limiter.tryAcquire("user1");
+
+        // Assert
+        assertEquals(0, first);
+        assertEquals(0, second);
+        assertEquals(0, third);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), rejected);
+        assertEquals(0, otherUser);
+        assertEquals(0, refilled);
+        assertTrue(rejectedAgain > 0);
+    }
+
+    @Test
+    void testZeroRateDisablesLimit() {
+        // Arrange
+        UserRateLimiter limiter = new UserRateLimiter(0, 1, 16);
+
+        // Act / Assert
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, limiter.tryAcquire("user1"));
+        }
+    }
+}
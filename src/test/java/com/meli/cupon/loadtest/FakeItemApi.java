@@ -0,0 +1,226 @@
+package com.meli.cupon.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+/**
+ * Reemplazo local de la API de ítems, corriendo en el mismo proceso sobre Netty.
+ *
+ * Atiende `GET /api/items/{id}` y `GET /api/items?ids=a,b,c` con el mismo formato que la API real,
+ * sobre un catálogo sintético de `catalogSize` ítems (`MLA1` … `MLAn`). Los IDs fuera del catálogo
+ * responden **404**. Cada respuesta se demora según una **LatencyDistribution**, con una fracción
+ * `slowRate` de respuestas lentas (`slowLatency`) y una fracción `errorRate` de errores **500**.
+ *
+ * Los precios se derivan del ID y de la semilla, así dos corridas con la misma configuración ven
+ * exactamente el mismo catálogo.
+ */
+public class FakeItemApi implements AutoCloseable {
+
+    public static final String ID_PREFIX = "MLA";
+    public static final String BASE_PATH = "/api/items";
+
+    private final Builder config;
+    private final DisposableServer server;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    private FakeItemApi(Builder config) {
+        this.config = config;
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(config.port)
+                .route(routes -> routes
+                        .get(BASE_PATH + "/{id}", this::handleSingle)
+                        .get(BASE_PATH, this::handleMulti))
+                .bindNow();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return La URL base para `item-api.base-url`, por ejemplo `http://127.0.0.1:8080/api/items`.
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.port() + BASE_PATH;
+    }
+
+    public int port() {
+        return server.port();
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    public long errorCount() {
+        return errors.get();
+    }
+
+    /**
+     * @return El ID del ítem número `n` del catálogo (desde 1).
+     */
+    public static String itemId(int n) {
+        return ID_PREFIX + n;
+    }
+
+    /**
+     * @return El precio del ítem, o `null` si no pertenece al catálogo.
+     */
+    public Double price(String itemId) {
+        if (!itemId.startsWith(ID_PREFIX)) {
+            return null;
+        }
+        long n;
+        try {
+            n = Long.parseLong(itemId.substring(ID_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (n < 1 || n > config.catalogSize) {
+            return null;
+        }
+        // Mezcla de bits (splitmix64) para obtener un precio estable por ID y semilla
+        long z = n * 0x9E3779B97F4A7C15L + config.seed;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        long minCents = Math.round(config.minPrice * 100);
+        long maxCents = Math.round(config.maxPrice * 100);
+        return (minCents + Math.floorMod(z, maxCents - minCents + 1)) / 100.0;
+    }
+
+    private Mono<Void> handleSingle(HttpServerRequest request, HttpServerResponse response) {
+        String itemId = request.param("id");
+        return respond(response, () -> {
+            Double price = price(itemId);
+            if (price == null) {
+                response.status(HttpResponseStatus.NOT_FOUND);
+                return "{\"message\":\"Item not found\"}";
+            }
+            return json(itemId, price);
+        });
+    }
+
+    private Mono<Void> handleMulti(HttpServerRequest request, HttpServerResponse response) {
+        QueryStringDecoder query = new QueryStringDecoder(request.uri());
+        String ids = query.parameters().getOrDefault("ids", List.of("")).get(0);
+        return respond(response, () -> {
+            // Como la API real, el multi-get omite los IDs inexistentes
+            StringBuilder body = new StringBuilder("[");
+            for (String itemId : ids.split(",")) {
+                Double price = itemId.isEmpty() ? null : price(itemId);
+                if (price != null) {
+                    if (body.length() > 1) {
+                        body.append(',');
+                    }
+                    body.append(json(itemId, price));
+                }
+            }
+            return body.append(']').toString();
+        });
+    }
+
+    private Mono<Void> respond(HttpServerResponse response, Supplier<String> body) {
+        requests.incrementAndGet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean fail = random.nextDouble() < config.errorRate;
+        Duration delay = random.nextDouble() < config.slowRate ? config.slowLatency : config.latency.next(random);
+        Mono<String> payload = Mono.fromSupplier(() -> {
+            if (fail) {
+                errors.incrementAndGet();
+                response.status(HttpResponseStatus.INTERNAL_SERVER_ERROR);
+                return "{\"message\":\"Injected failure\"}";
+            }
+            return body.get();
+        });
+        if (!delay.isZero()) {
+            payload = Mono.delay(delay).then(payload);
+        }
+        return payload.flatMap(json -> response
+                .header("Content-Type", "application/json")
+                .sendByteArray(Mono.just(json.getBytes(StandardCharsets.UTF_8)))
+                .then());
+    }
+
+    private static String json(String itemId, double price) {
+        return "{\"id\":\"" + itemId + "\",\"price\":" + price + "}";
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    /**
+     * Configuración del servidor. Todos los valores tienen un default razonable para pruebas.
+     */
+    public static class Builder {
+
+        private int port = 0;
+        private int catalogSize = 10_000;
+        private double minPrice = 1;
+        private double maxPrice = 1_000;
+        private long seed = 42;
+        private LatencyDistribution latency = LatencyDistribution.fixed(Duration.ZERO);
+        private double slowRate = 0;
+        private Duration slowLatency = Duration.ofSeconds(1);
+        private double errorRate = 0;
+
+        /** Puerto de escucha; `0` elige uno libre. */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Builder catalogSize(int catalogSize) {
+            this.catalogSize = catalogSize;
+            return this;
+        }
+
+        public Builder priceRange(double minPrice, double maxPrice) {
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder latency(LatencyDistribution latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        /** Fracción de respuestas que tardan `slowLatency` en lugar de seguir la distribución. */
+        public Builder slowTail(double slowRate, Duration slowLatency) {
+            this.slowRate = slowRate;
+            this.slowLatency = slowLatency;
+            return this;
+        }
+
+        /** Fracción de respuestas que devuelven **500**. */
+        public Builder errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        public FakeItemApi start() {
+            return new FakeItemApi(this);
+        }
+    }
+}
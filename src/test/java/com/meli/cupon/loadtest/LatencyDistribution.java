@@ -0,0 +1,83 @@
+package com.meli.cupon.loadtest;
+
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Distribución de latencias inyectada por **FakeItemApi** en cada respuesta.
+ *
+ * Se puede construir desde código o desde un texto, para configurarla con propiedades del sistema:
+ * `fixed:20ms`, `uniform:5ms-50ms` o `lognormal:20ms,0.6` (mediana y sigma).
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    Duration next(Random random);
+
+    static LatencyDistribution fixed(Duration latency) {
+        return random -> latency;
+    }
+
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long minNanos = min.toNanos();
+        long maxNanos = max.toNanos();
+        return random -> Duration.ofNanos(minNanos + (long) (random.nextDouble() * (maxNanos - minNanos)));
+    }
+
+    /**
+     * Log-normal: la forma típica de las latencias de un servicio remoto, con cola larga a derecha.
+     *
+     * @param median Mediana de la distribución.
+     * @param sigma Desvío del logaritmo; valores mayores alargan la cola.
+     */
+    static LatencyDistribution logNormal(Duration median, double sigma) {
+        double mu = Math.log(median.toNanos());
+        return random -> Duration.ofNanos((long) Math.exp(mu + sigma * random.nextGaussian()));
+    }
+
+    /**
+     * Interpreta una distribución escrita como `tipo:parámetros`.
+     *
+     * @param spec Por ejemplo `fixed:20ms`, `uniform:5ms-50ms` o `lognormal:20ms,0.6`.
+     * @return La distribución correspondiente.
+     * @throws IllegalArgumentException Si el texto no tiene un formato reconocido.
+     */
+    static LatencyDistribution parse(String spec) {
+        int colon = spec.indexOf(':');
+        String type = colon < 0 ? spec : spec.substring(0, colon);
+        String args = colon < 0 ? "" : spec.substring(colon + 1);
+        switch (type) {
+            case "none":
+                return fixed(Duration.ZERO);
+            case "fixed":
+                return fixed(parseDuration(args));
+            case "uniform": {
+                String[] range = args.split("-");
+                return uniform(parseDuration(range[0]), parseDuration(range[1]));
+            }
+            case "lognormal": {
+                String[] params = args.split(",");
+                return logNormal(parseDuration(params[0]), params.length > 1 ? Double.parseDouble(params[1]) : 0.5);
+            }
+            default:
+                throw new IllegalArgumentException("Distribución de latencia desconocida: " + spec);
+        }
+    }
+
+    /**
+     * @param text Duración como `250ms`, `2s`, o en formato ISO-8601 (`PT0.25S`).
+     */
+    static Duration parseDuration(String text) {
+        String value = text.trim();
+        if (value.startsWith("P") || value.startsWith("p")) {
+            return Duration.parse(value);
+        }
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofMillis(Math.round(Double.parseDouble(value.substring(0, value.length() - 1)) * 1000));
+        }
+        return Duration.ofMillis(Long.parseLong(value));
+    }
+}
@@ -0,0 +1,296 @@
+package com.meli.cupon.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Generador de carga de lazo abierto contra `POST /coupon/` y `GET /coupon/stats`.
+ *
+ * Dispara solicitudes a una tasa fija (`rps`) sin esperar a que terminen las anteriores, y mide cada
+ * latencia desde el instante en que la solicitud **debía** salir. Así, si el servicio se atrasa, la
+ * espera acumulada se refleja en los percentiles en lugar de bajar silenciosamente la tasa
+ * (omisión coordinada).
+ *
+ * Cada carrito toma `cartSize` IDs al azar del catálogo de **FakeItemApi** y un monto que es una
+ * fracción de la suma máxima posible. Una fracción `statsRatio` de las solicitudes va a las
+ * estadísticas de favoritos.
+ */
+public class LoadDriver {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Builder config;
+    private final HttpClient client;
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    private LoadDriver(Builder config) {
+        this.config = config;
+        this.client = HttpClient.create(ConnectionProvider.builder("load-driver")
+                        .maxConnections(config.maxInFlight)
+                        .pendingAcquireMaxCount(-1)
+                        .build())
+                .baseUrl(config.target)
+                .responseTimeout(config.timeout);
+        endpoints.put("coupon", new Endpoint());
+        endpoints.put("stats", new Endpoint());
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Obtiene un token, calienta el servicio y ejecuta la medición.
+     *
+     * @return Un reporte con los percentiles y el throughput de cada endpoint.
+     */
+    public Report run() throws InterruptedException {
+        String token = login();
+        if (!config.warmup.isZero()) {
+            drive(token, config.warmup);
+            endpoints.values().forEach(Endpoint::reset);
+        }
+        long elapsed = drive(token, config.duration);
+        Report report = new Report(config.rps, elapsed);
+        endpoints.forEach((name, endpoint) -> report.add(name, endpoint));
+        return report;
+    }
+
+    private String login() {
+        String body = "{\"username\":\"" + config.username + "\",\"password\":\"" + config.password + "\"}";
+        String token = client.headers(h -> h.set("Content-Type", "application/json"))
+                .post()
+                .uri("/auth/login")
+                .send(ByteBufFlux.fromString(Mono.just(body)))
+                .responseSingle((response, content) -> response.status().code() == 200
+                        ? content.asString()
+                        : Mono.error(new IllegalStateException("Login falló con " + response.status())))
+                .block(config.timeout);
+        if (token == null || token.isBlank()) {
+            throw new IllegalStateException("Login sin token");
+        }
+        return token.trim();
+    }
+
+    // Lazo abierto: cada solicitud tiene un instante programado y la latencia se mide desde ahí
+    private long drive(String token, Duration duration) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rps;
+        long total = duration.toNanos() / intervalNanos;
+        Semaphore inFlight = new Semaphore(config.maxInFlight);
+        CountDownLatch done = new CountDownLatch((int) total);
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long scheduled = start + i * intervalNanos;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean stats = ThreadLocalRandom.current().nextDouble() < config.statsRatio;
+            Endpoint endpoint = endpoints.get(stats ? "stats" : "coupon");
+            if (!inFlight.tryAcquire()) {
+                // El servicio no da abasto: se cuenta como rechazo en lugar de frenar el generador
+                endpoint.dropped.incrementAndGet();
+                done.countDown();
+                continue;
+            }
+            Mono<Integer> call = stats ? stats(token) : coupon(token);
+            call.subscribe(
+                    status -> endpoint.record(scheduled, status < 400),
+                    error -> {
+                        endpoint.record(scheduled, false);
+                        inFlight.release();
+                        done.countDown();
+                    },
+                    () -> {
+                        inFlight.release();
+                        done.countDown();
+                    });
+        }
+        done.await(config.timeout.toMillis() + 1_000, TimeUnit.MILLISECONDS);
+        return System.nanoTime() - start;
+    }
+
+    private Mono<Integer> coupon(String token) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder body = new StringBuilder("{\"itemIds\":[");
+        for (int i = 0; i < config.cartSize; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append('"').append(FakeItemApi.itemId(random.nextInt(1, config.catalogSize + 1))).append('"');
+        }
+        double amount = config.cartSize * config.maxPrice * config.budgetRatio;
+        body.append("],\"amount\":").append(Math.round(amount * 100) / 100.0).append('}');
+        return client.headers(h -> h.set("Authorization", "Bearer " + token).set("Content-Type", "application/json"))
+                .post()
+                .uri("/coupon/")
+                .send(ByteBufFlux.fromString(Mono.just(body.toString())))
+                .responseSingle((response, content) -> content.then(Mono.just(response.status().code())));
+    }
+
+    private Mono<Integer> stats(String token) {
+        return client.headers(h -> h.set("Authorization", "Bearer " + token))
+                .get()
+                .uri("/coupon/stats")
+                .responseSingle((response, content) -> content.then(Mono.just(response.status().code())));
+    }
+
+    private static final class Endpoint {
+
+        private final Recorder recorder = new Recorder(MAX_LATENCY_NANOS, 3);
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+
+        void record(long scheduled, boolean ok) {
+            recorder.recordValue(Math.min(System.nanoTime() - scheduled, MAX_LATENCY_NANOS));
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+
+        void reset() {
+            recorder.reset();
+            errors.set(0);
+            dropped.set(0);
+        }
+    }
+
+    /**
+     * Resultado de una corrida: percentiles (en milisegundos) y throughput por endpoint.
+     */
+    public static final class Report {
+
+        private final int targetRps;
+        private final long elapsedNanos;
+        private final StringBuilder lines = new StringBuilder();
+        private long totalErrors;
+
+        private Report(int targetRps, long elapsedNanos) {
+            this.targetRps = targetRps;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        private void add(String name, Endpoint endpoint) {
+            Histogram histogram = endpoint.recorder.getIntervalHistogram();
+            long count = histogram.getTotalCount();
+            totalErrors += endpoint.errors.get() + endpoint.dropped.get();
+            lines.append(String.format("%-7s count=%d errors=%d dropped=%d throughput=%.1f req/s "
+                            + "p50=%.2f ms p99=%.2f ms p999=%.2f ms max=%.2f ms%n",
+                    name, count, endpoint.errors.get(), endpoint.dropped.get(), count / (elapsedNanos / 1e9),
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue())));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+
+        public long getTotalErrors() {
+            return totalErrors;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("objetivo=%d req/s duración=%.1f s%n", targetRps, elapsedNanos / 1e9) + lines;
+        }
+    }
+
+    /**
+     * Configuración de la corrida.
+     */
+    public static class Builder {
+
+        private String target = "http://127.0.0.1:8081";
+        private String username = "test";
+        private String password = "12345";
+        private int rps = 200;
+        private Duration duration = Duration.ofSeconds(30);
+        private Duration warmup = Duration.ofSeconds(10);
+        private Duration timeout = Duration.ofSeconds(10);
+        private int maxInFlight = 2_000;
+        private int cartSize = 20;
+        private int catalogSize = 10_000;
+        private double maxPrice = 1_000;
+        private double budgetRatio = 0.3;
+        private double statsRatio = 0.1;
+
+        /** URL base del servicio de cupones. */
+        public Builder target(String target) {
+            this.target = target;
+            return this;
+        }
+
+        public Builder credentials(String username, String password) {
+            this.username = username;
+            this.password = password;
+            return this;
+        }
+
+        public Builder rps(int rps) {
+            this.rps = rps;
+            return this;
+        }
+
+        public Builder duration(Duration duration) {
+            this.duration = duration;
+            return this;
+        }
+
+        public Builder warmup(Duration warmup) {
+            this.warmup = warmup;
+            return this;
+        }
+
+        public Builder timeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /** Solicitudes simultáneas máximas; por encima se descartan y se informan como `dropped`. */
+        public Builder maxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        public Builder cartSize(int cartSize) {
+            this.cartSize = cartSize;
+            return this;
+        }
+
+        /** Catálogo y precio máximo de **FakeItemApi**, para armar carritos y montos coherentes. */
+        public Builder catalog(int catalogSize, double maxPrice) {
+            this.catalogSize = catalogSize;
+            this.maxPrice = maxPrice;
+            return this;
+        }
+
+        /** Monto del cupón como fracción del precio máximo posible del carrito. */
+        public Builder budgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+            return this;
+        }
+
+        /** Fracción de solicitudes dirigidas a `/coupon/stats`. */
+        public Builder statsRatio(double statsRatio) {
+            this.statsRatio = statsRatio;
+            return this;
+        }
+
+        public LoadDriver build() {
+            return new LoadDriver(this);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.meli.cupon.loadtest;
+
+import com.meli.cupon.CuponApplication;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Punto de entrada de la prueba de carga de punta a punta en una sola máquina.
+ *
+ * Levanta **FakeItemApi**, opcionalmente levanta la aplicación en el mismo proceso apuntando a ella,
+ * y ejecuta **LoadDriver**. Se configura con propiedades del sistema:
+ *
+ * - `loadtest.item-api.port` (8080, el puerto por defecto de `item-api.base-url`), `catalog-size`,
+ *   `max-price`, `latency` (`fixed:20ms`, `uniform:5ms-50ms`, `lognormal:20ms,0.6`),
+ *   `slow-rate`, `slow-latency` y `error-rate`, todas con el prefijo `loadtest.item-api.`.
+ * - `loadtest.app.start` (`false`) y `loadtest.app.args`: argumentos extra de Spring Boot, por
+ *   ejemplo `--spring.profiles.active=virtual`.
+ * - `loadtest.target`, `rps`, `duration`, `warmup`, `cart-size`, `budget-ratio`, `stats-ratio` y
+ *   `max-in-flight`, con el prefijo `loadtest.`.
+ *
+ * Si la aplicación corre aparte, conviene iniciarla con
+ * `--item-api.base-url=http://127.0.0.1:8080/api/items`: el servidor simulado escucha solo en IPv4 y
+ * `localhost` puede resolverse primero a `::1`.
+ *
+ * Ejemplo: `mvn -Ploadtest -DskipTests verify -Dloadtest.rps=500 -Dloadtest.item-api.latency=lognormal:20ms,0.6`
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        int catalogSize = Integer.getInteger("loadtest.item-api.catalog-size", 10_000);
+        double maxPrice = Double.parseDouble(System.getProperty("loadtest.item-api.max-price", "1000"));
+
+        try (FakeItemApi itemApi = FakeItemApi.builder()
+                .port(Integer.getInteger("loadtest.item-api.port", 8080))
+                .catalogSize(catalogSize)
+                .priceRange(1, maxPrice)
+                .latency(LatencyDistribution.parse(System.getProperty("loadtest.item-api.latency", "lognormal:20ms,0.5")))
+                .slowTail(Double.parseDouble(System.getProperty("loadtest.item-api.slow-rate", "0.001")),
+                        duration("loadtest.item-api.slow-latency", "1s"))
+                .errorRate(Double.parseDouble(System.getProperty("loadtest.item-api.error-rate", "0")))
+                .start()) {
+            System.out.println("API de ítems simulada en " + itemApi.baseUrl());
+
+            ConfigurableApplicationContext app = null;
+            if (Boolean.getBoolean("loadtest.app.start")) {
+                List<String> appArgs = new ArrayList<>();
+                appArgs.add("--item-api.base-url=" + itemApi.baseUrl());
+                String extra = System.getProperty("loadtest.app.args", "").trim();
+                if (!extra.isEmpty()) {
+                    appArgs.addAll(Arrays.asList(extra.split("\\s+")));
+                }
+                app = SpringApplication.run(CuponApplication.class, appArgs.toArray(new String[0]));
+            }
+
+            try {
+                LoadDriver.Report report = LoadDriver.builder()
+                        .target(System.getProperty("loadtest.target", "http://127.0.0.1:8081"))
+                        .rps(Integer.getInteger("loadtest.rps", 200))
+                        .duration(duration("loadtest.duration", "30s"))
+                        .warmup(duration("loadtest.warmup", "10s"))
+                        .maxInFlight(Integer.getInteger("loadtest.max-in-flight", 2_000))
+                        .cartSize(Integer.getInteger("loadtest.cart-size", 20))
+                        .catalog(catalogSize, maxPrice)
+                        .budgetRatio(Double.parseDouble(System.getProperty("loadtest.budget-ratio", "0.3")))
+                        .statsRatio(Double.parseDouble(System.getProperty("loadtest.stats-ratio", "0.1")))
+                        .build()
+                        .run();
+                System.out.print(report);
+                System.out.printf("API de ítems: %d solicitudes, %d errores inyectados%n",
+                        itemApi.requestCount(), itemApi.errorCount());
+            } finally {
+                if (app != null) {
+                    app.close();
+                }
+            }
+        }
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return LatencyDistribution.parseDuration(System.getProperty(property, defaultValue));
+    }
+}